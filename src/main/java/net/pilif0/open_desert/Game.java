@@ -1,11 +1,16 @@
 package net.pilif0.open_desert;
 
+import net.pilif0.open_desert.graphics.GLState;
 import net.pilif0.open_desert.graphics.Shaders;
+import net.pilif0.open_desert.graphics.TextureAtlas;
+import net.pilif0.open_desert.graphics.TextureLoader;
+import net.pilif0.open_desert.graphics.render.RenderSnapshot;
 import net.pilif0.open_desert.graphics.shapes.Shapes;
 import net.pilif0.open_desert.input.Action;
 import net.pilif0.open_desert.state.GameState;
 import net.pilif0.open_desert.state.StateMachine;
 import net.pilif0.open_desert.util.Delta;
+import net.pilif0.open_desert.util.FixedTimestep;
 import net.pilif0.open_desert.util.Pair;
 import net.pilif0.open_desert.window.Window;
 import org.lwjgl.opengl.GL;
@@ -13,6 +18,10 @@ import org.lwjgl.opengl.GL;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.opengl.GL11.*;
@@ -24,6 +33,9 @@ import static org.lwjgl.opengl.GL11.*;
  * @version 1.0
  */
 public class Game {
+    /** The default number of updates per second in the fixed loop mode */
+    public static final int DEFAULT_UPDATE_RATE = 60;
+
     /** The instance */
     private static Game instance;
 
@@ -31,8 +43,32 @@ public class Game {
     private Window window;
     /** The game-state state machine */
     private StateMachine<GameState> states;
-    /** The delta time */
+    /** The delta time (between two updates) */
     public Delta delta;
+    /** The frame delta time (between two rendered frames) */
+    public Delta frameDelta;
+    /** The loop mode (variable unless a game opts in to the fixed one) */
+    private LoopMode loopMode = LoopMode.VARIABLE;
+    /** The number of updates per second in the fixed loop mode */
+    private int updateRate = DEFAULT_UPDATE_RATE;
+    /** The maximal number of updates per rendered frame in the fixed loop mode */
+    private int maxCatchUpSteps = FixedTimestep.DEFAULT_MAX_STEPS;
+    /** Whether the rendering is synchronised with the display refresh rate (otherwise it is uncapped) */
+    private boolean vSync = false;
+    /** The time step of the fixed loop mode */
+    private FixedTimestep timestep;
+    /** The interpolation alpha of the current rendered frame */
+    private float alpha = 1;
+    /** Whether the update of the next frame runs on a worker thread while the current frame is rendered */
+    private boolean pipelined = false;
+    /** The update worker of the pipelined loop ({@code null} when not pipelined) */
+    private ExecutorService updateExecutor;
+    /** The double-buffered render snapshots of the pipelined loop */
+    private final RenderSnapshot[] snapshots = {new RenderSnapshot(), new RenderSnapshot()};
+    /** Index of the snapshot to render (the other one is written by the update) */
+    private int front;
+    /** The state that captured the snapshot to render ({@code null} when there is none) */
+    private GameState frontState;
 
     /**
      * Constructs the game instance
@@ -66,7 +102,7 @@ public class Game {
      */
     private void init(){
         //Build and show the window
-        window = new Window("Test Window", 1280, 720, Window.Type.WINDOWED, -1, false);
+        window = new Window("Test Window", 1280, 720, Window.Type.WINDOWED, -1, vSync);
         window.makeContextCurrent();
         window.centre();
         window.inputManager.getKeyCallback().register(e -> {
@@ -94,6 +130,7 @@ public class Game {
 
         //Prepare OpenGL
         GL.createCapabilities();
+        GLState.claimThread();
         glClearColor(0.0f, 0.0f,0.0f,1.0f);
         //glEnable(GL_DEPTH_TEST);
         glDepthFunc(GL_NEVER);
@@ -111,8 +148,19 @@ public class Game {
                 transitions
         );
 
-        //Prepare the delta class
+        //Prepare the delta classes and the time step
         delta = new Delta();
+        frameDelta = new Delta();
+        timestep = new FixedTimestep(updateRate, maxCatchUpSteps);
+
+        //Prepare the update worker
+        if(pipelined){
+            updateExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "Update worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
 
         //Log OpenGL errors
         Launcher.getLog().logOpenGLError("OpenGL", "in game initialisation");
@@ -122,25 +170,113 @@ public class Game {
      * Runs the main loop
      */
     private void loop(){
-        //Start the timer and the loop
+        //Start the timers and the loop
         delta.start();
+        frameDelta.start();
+        timestep.start();
         while(!window.isCloseRequested()){
             //Clear the buffer and poll for input
             glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
             glfwPollEvents();
 
-            //Update and render the game
-            update();
-            render();
+            //Update and render the frame
+            GameState state = states.getCurrent();
+            if(pipelined && state.isPipelined()){
+                pipelinedFrame(state);
+            }else{
+                sequentialFrame();
+            }
+
+            //Update the timers
+            if(loopMode == LoopMode.VARIABLE){
+                delta.update();
+            }
+            frameDelta.update();
+        }
+    }
 
-            //Log OpenGL errors
-            Launcher.getLog().logOpenGLError("OpenGL", "in main loop");
+    /**
+     * Updates and then renders one frame on the current thread
+     */
+    private void sequentialFrame(){
+        //Update the game
+        simulate();
+        frontState = null;
+
+        //Upload loaded textures, and render the game
+        TextureLoader.processUploads(TextureLoader.DEFAULT_UPLOAD_BUDGET);
+        render();
 
-            //Swap the buffers
-            glfwSwapBuffers(window.handle);
+        //Evict unused texture atlases over the budget
+        TextureAtlas.trim();
 
-            //Update the timer
-            delta.update();
+        //Log OpenGL errors and finish the GL state frame
+        Launcher.getLog().logOpenGLError("OpenGL", "in main loop");
+        GLState.endFrame();
+
+        //Swap the buffers
+        glfwSwapBuffers(window.handle);
+    }
+
+    /**
+     * Updates the next frame on the worker while rendering the snapshot of the current one, then swaps the snapshots.
+     * The worker only runs between the input polling and the join, so the input state and the GL work of the main
+     *  thread (texture uploads, atlas eviction, window changes) never overlap with it.
+     *
+     * @param state The current state
+     */
+    private void pipelinedFrame(GameState state){
+        //Update the next frame and capture its snapshot on the worker
+        RenderSnapshot back = snapshots[1 - front];
+        Future<?> task = updateExecutor.submit(() -> {
+            simulate();
+            state.snapshot(back);
+            back.alpha = getInterpolationAlpha();
+        });
+
+        //Meanwhile render the current frame (nothing on the first frame of the state)
+        if(frontState == state){
+            state.render(snapshots[front]);
+        }
+
+        //Log OpenGL errors and finish the GL state frame
+        Launcher.getLog().logOpenGLError("OpenGL", "in main loop");
+        GLState.endFrame();
+
+        //Swap the buffers
+        glfwSwapBuffers(window.handle);
+
+        //Wait for the update and swap the snapshots
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the update", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Update failed", e.getCause());
+        }
+        front = 1 - front;
+        frontState = state;
+
+        //Upload loaded textures and evict unused texture atlases over the budget
+        TextureLoader.processUploads(TextureLoader.DEFAULT_UPLOAD_BUDGET);
+        TextureAtlas.trim();
+    }
+
+    /**
+     * Runs the updates of one frame - as many fixed steps as the elapsed time calls for in the fixed loop mode, the
+     *  rest being the interpolation alpha, or a single update in the variable loop mode
+     */
+    private void simulate(){
+        if(loopMode == LoopMode.FIXED){
+            int steps = timestep.advance();
+            for(int i = 0; i < steps; i++){
+                delta.update(timestep.getStep());
+                update();
+            }
+            alpha = timestep.getAlpha();
+        }else{
+            update();
         }
     }
 
@@ -162,6 +298,11 @@ public class Game {
      * Cleans up
      */
     private void cleanUp(){
+        //Stop the update worker
+        if(updateExecutor != null){
+            updateExecutor.shutdown();
+        }
+
         //Clean up all the global shaders
         Shaders.cleanUp();
 
@@ -169,6 +310,7 @@ public class Game {
         Shapes.cleanUp();
 
         states.cleanUp();
+        TextureLoader.cleanUp();
         window.destroy();
         glfwTerminate();
     }
@@ -180,10 +322,85 @@ public class Game {
      */
     public Window getWindow(){ return window; }
 
+    /**
+     * Returns the loop mode
+     *
+     * @return The loop mode
+     */
+    public LoopMode getLoopMode(){ return loopMode; }
+
+    /**
+     * Sets the loop mode (before running the game).
+     * The fixed mode renders between updates, so the states should interpolate with
+     *  {@link #getInterpolationAlpha()} when they use it.
+     *
+     * @param loopMode The loop mode
+     */
+    public void setLoopMode(LoopMode loopMode){ this.loopMode = loopMode; }
+
+    /**
+     * Sets the number of updates per second in the fixed loop mode (before running the game)
+     *
+     * @param updateRate The number of updates per second
+     */
+    public void setUpdateRate(int updateRate){ this.updateRate = updateRate; }
+
+    /**
+     * Sets the maximal number of updates per rendered frame in the fixed loop mode (before running the game).
+     * When the game falls further behind, the excess time is dropped.
+     *
+     * @param maxCatchUpSteps The maximal number of updates per rendered frame
+     */
+    public void setMaxCatchUpSteps(int maxCatchUpSteps){ this.maxCatchUpSteps = maxCatchUpSteps; }
+
+    /**
+     * Sets whether the rendering is synchronised with the display refresh rate, otherwise it is uncapped (before
+     *  running the game)
+     *
+     * @param vSync Whether vSync should be enabled
+     */
+    public void setVSync(boolean vSync){ this.vSync = vSync; }
+
+    /**
+     * Sets whether the update of the next frame runs on a worker thread while the current frame is rendered (before
+     *  running the game). Only applies to states that support it (see {@link GameState#isPipelined()}), the frame
+     *  time then becomes roughly the longer of the update and the render instead of their sum, at the cost of one
+     *  frame of latency. Off by default, as the update then runs without the OpenGL context and must not create any
+     *  OpenGL objects (loading a texture atlas off the OpenGL thread fails with an exception).
+     *
+     * @param pipelined Whether the loop should be pipelined
+     */
+    public void setPipelined(boolean pipelined){ this.pipelined = pipelined; }
+
+    /**
+     * Returns whether the loop is pipelined
+     *
+     * @return Whether the loop is pipelined
+     */
+    public boolean isPipelined(){ return pipelined; }
+
+    /**
+     * Returns the interpolation alpha of the current rendered frame - the fraction of an update elapsed since the
+     *  last update, for rendering between the last two updated states (always {@code 1} in the variable loop mode)
+     *
+     * @return The interpolation alpha
+     */
+    public float getInterpolationAlpha(){ return loopMode == LoopMode.FIXED ? alpha : 1; }
+
     /**
      * Return current game state
      *
      * @return Current state
      */
     public GameState getCurrentState(){ return states.getCurrent(); }
+
+    /**
+     * The modes of the main loop
+     */
+    public enum LoopMode {
+        /** One update per rendered frame with the measured delta time */
+        VARIABLE,
+        /** Updates at a fixed rate with a fixed delta time, independent of the rendered frames */
+        FIXED
+    }
 }
@@ -8,6 +8,9 @@ import net.pilif0.open_desert.entities.ColorEntity;
 import net.pilif0.open_desert.entities.DynamicColorEntity;
 import net.pilif0.open_desert.geometry.Transformation;
 import net.pilif0.open_desert.graphics.*;
+import net.pilif0.open_desert.graphics.render.Culler;
+import net.pilif0.open_desert.graphics.render.RenderSnapshot;
+import net.pilif0.open_desert.graphics.render.SpriteBatch;
 import net.pilif0.open_desert.graphics.render.SpriteRenderer;
 import net.pilif0.open_desert.graphics.shapes.ColorShape;
 import net.pilif0.open_desert.graphics.shapes.Shape;
@@ -44,6 +47,14 @@ public class IntroState extends GameState{
     public static final Font TEXT_FONT;
     /** Condition for sprite-renderable game objects */
     public static final Condition SPRITE_RENDERABLE;
+    /** Margin around the screen in which sprites are still rendered (sprites are expected to have bounds) */
+    public static final float CULL_MARGIN = 0;
+    /** Index of the static entity state in the snapshots */
+    private static final int STATIC_STATE = 0;
+    /** Index of the pulsating entity state in the snapshots */
+    private static final int PULSATING_STATE = 1;
+    /** Index of the text state in the snapshots */
+    private static final int TEXT_STATE = 2;
 
     static{
         //Parse the shapes
@@ -68,8 +79,14 @@ public class IntroState extends GameState{
     private DynamicColorEntity pulsatingEntity;
     /** The camera */
     private PerpendicularCamera camera;
-    /** The text */
+    /** The text (only drawn, so owned by the OpenGL thread) */
     private Text text;
+    /** The transformation of the text as updated (copied into the snapshots) */
+    private final Transformation textTransformation = new Transformation();
+    /** Copy of the static entity drawn from the snapshots (owned by the OpenGL thread) */
+    private ColorEntity staticView;
+    /** Copy of the pulsating entity drawn from the snapshots (owned by the OpenGL thread) */
+    private DynamicColorEntity pulsatingView;
 
     /** Static sprite square */
     private GameObject spriteGO;
@@ -80,6 +97,12 @@ public class IntroState extends GameState{
 
     /** World tree */
     private WorldTree world;
+    /** Culler collecting the sprite-renderable game objects on screen */
+    private Culler culler = new Culler(SPRITE_RENDERABLE, CULL_MARGIN);
+    /** Batch for the sprites of the world */
+    private SpriteBatch spriteBatch = new SpriteBatch();
+    /** Batch drawing the sprites of the snapshots (owned by the OpenGL thread) */
+    private SpriteBatch snapshotBatch = new SpriteBatch();
 
     /**
      * Constructs the state
@@ -101,8 +124,9 @@ public class IntroState extends GameState{
             System.exit(1);
         }
 
-        // Create the world
+        // Create the world (relocating the deferred game objects in the same update)
         world = new WorldTree(1e6f);
+        world.setEventQueue(gameObjectEvents);
 
         //Create the camera
         camera = new PerpendicularCamera(new Vector2f(0, 0), Game.getInstance().getWindow().getResolution());
@@ -135,7 +159,7 @@ public class IntroState extends GameState{
         // Create the sprite square
         try {
             spriteGO = new GameObject(new Template(Paths.get("templates/numbers.template")));
-            world.root.add(spriteGO);
+            world.add(spriteGO);
         } catch (IOException e) {
             Launcher.getLog().log("spriteGO", e);
             System.exit(1);
@@ -144,7 +168,8 @@ public class IntroState extends GameState{
         // Create the texture square
         try {
             textureGO = new GameObject(new Template(Paths.get("templates/texture_test.template")));
-            world.root.add(textureGO);
+            textureGO.setEventQueue(gameObjectEvents);
+            world.add(textureGO);
         } catch (IOException e) {
             Launcher.getLog().log("textureGO", e);
             System.exit(1);
@@ -153,7 +178,9 @@ public class IntroState extends GameState{
         // Create the camera focus
         try {
             cameraFocus = new GameObject(new Template(Paths.get("templates/camera_focus.template")));
-            world.root.add(cameraFocus);
+            // Moved every frame while a key is held, so defer its change events
+            cameraFocus.setEventQueue(gameObjectEvents);
+            world.add(cameraFocus);
         } catch (IOException e) {
             Launcher.getLog().log("cameraFocus", e);
             System.exit(1);
@@ -163,6 +190,11 @@ public class IntroState extends GameState{
         text = new Text("Hello world!\nTest of new line", TEXT_FONT, 32);
         text.getTransformation()
                 .translate(new Vector2f(-400, -400));
+        textTransformation.set(text.getTransformation());
+
+        //Create the copies of the entities drawn from the snapshots (sharing the shapes)
+        staticView = new ColorEntity(RAINBOW_SQUARE);
+        pulsatingView = new DynamicColorEntity(BASIC_SQUARE);
     }
 
     @Override
@@ -220,7 +252,46 @@ public class IntroState extends GameState{
         text.render(camera);
 
         // Render world
-        world.root.getByCondition(SPRITE_RENDERABLE).forEach(go -> SpriteRenderer.render(camera.getMatrix(), go));
+        for(GameObject go : culler.cull(world, camera)) spriteBatch.add(go);
+        spriteBatch.flush(camera.getMatrix());
+    }
+
+    @Override
+    public boolean isPipelined() {
+        return true;
+    }
+
+    @Override
+    protected void onSnapshot(RenderSnapshot snapshot) {
+        snapshot.clear();
+        snapshot.capture(camera);
+
+        // Capture the entities in the order of their indices
+        snapshot.capture(staticEntity.getTransformation(), null);
+        snapshot.capture(pulsatingEntity.getTransformation(), pulsatingEntity.getColor());
+        snapshot.capture(textTransformation, null);
+
+        // Capture the world sprites on screen
+        for(GameObject go : culler.cull(world, camera)) spriteBatch.add(go);
+        spriteBatch.build();
+        spriteBatch.clear();
+        snapshot.capture(spriteBatch);
+    }
+
+    @Override
+    protected void onRender(RenderSnapshot snapshot) {
+        // Render the copies of the entities from their captured states
+        staticView.getTransformation().set(snapshot.getEntity(STATIC_STATE).transformation);
+        staticView.render(snapshot.camera);
+        RenderSnapshot.EntityState pulsating = snapshot.getEntity(PULSATING_STATE);
+        pulsatingView.getTransformation().set(pulsating.transformation);
+        pulsatingView.getColor().set(pulsating.color);
+        pulsatingView.render(snapshot.camera);
+        text.getTransformation().set(snapshot.getEntity(TEXT_STATE).transformation);
+        text.render(snapshot.camera);
+
+        // Render world
+        snapshotBatch.render(snapshot);
     }
 
     @Override
@@ -251,7 +322,9 @@ public class IntroState extends GameState{
         //Clean up textures
         TextureAtlas.cleanAll();
 
-        // Clean up renderer
+        // Clean up renderers
+        spriteBatch.cleanUp();
+        snapshotBatch.cleanUp();
         SpriteRenderer.cleanUp();
     }
 
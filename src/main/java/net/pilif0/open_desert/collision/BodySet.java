@@ -0,0 +1,104 @@
+package net.pilif0.open_desert.collision;
+
+import net.pilif0.open_desert.ecs.GameObject;
+
+import java.util.Arrays;
+
+/**
+ * Axis-aligned boxes of the bodies taking part in collision detection, stored as parallel arrays.
+ * Bodies are identified by their index, which is only valid until the next {@link #clear()}.
+ * Only the first {@link #size()} entries of the arrays are valid.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class BodySet {
+    /** Minimal x coordinates of the boxes */
+    public float[] minX;
+    /** Minimal y coordinates of the boxes */
+    public float[] minY;
+    /** Maximal x coordinates of the boxes */
+    public float[] maxX;
+    /** Maximal y coordinates of the boxes */
+    public float[] maxY;
+    /** Game objects of the bodies ({@code null} for bodies without one) */
+    public GameObject[] objects;
+    /** Number of bodies */
+    private int size;
+
+    /**
+     * Construct an empty set
+     */
+    public BodySet(){
+        this(64);
+    }
+
+    /**
+     * Construct an empty set with an initial capacity
+     *
+     * @param capacity Initial capacity
+     */
+    public BodySet(int capacity){
+        capacity = Math.max(capacity, 1);
+        minX = new float[capacity];
+        minY = new float[capacity];
+        maxX = new float[capacity];
+        maxY = new float[capacity];
+        objects = new GameObject[capacity];
+    }
+
+    /**
+     * Add a body
+     *
+     * @param go Game object of the body ({@code null} for none)
+     * @param minX Minimal x coordinate of the box
+     * @param minY Minimal y coordinate of the box
+     * @param maxX Maximal x coordinate of the box
+     * @param maxY Maximal y coordinate of the box
+     * @return Index of the body
+     */
+    public int add(GameObject go, float minX, float minY, float maxX, float maxY){
+        if(size == objects.length){
+            int capacity = 2 * size;
+            this.minX = Arrays.copyOf(this.minX, capacity);
+            this.minY = Arrays.copyOf(this.minY, capacity);
+            this.maxX = Arrays.copyOf(this.maxX, capacity);
+            this.maxY = Arrays.copyOf(this.maxY, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+        }
+        this.minX[size] = minX;
+        this.minY[size] = minY;
+        this.maxX[size] = maxX;
+        this.maxY[size] = maxY;
+        objects[size] = go;
+        return size++;
+    }
+
+    /**
+     * Whether the boxes of two bodies overlap (touching counts)
+     *
+     * @param a Index of the first body
+     * @param b Index of the second body
+     * @return Whether the boxes overlap
+     */
+    public boolean overlap(int a, int b){
+        return minX[a] <= maxX[b] && minX[b] <= maxX[a] && minY[a] <= maxY[b] && minY[b] <= maxY[a];
+    }
+
+    /**
+     * Remove all bodies (keeping the capacity)
+     */
+    public void clear(){
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Return the number of bodies
+     *
+     * @return Number of bodies
+     */
+    public int size(){
+        return size;
+    }
+}
@@ -0,0 +1,33 @@
+package net.pilif0.open_desert.collision;
+
+/**
+ * Strategy finding the pairs of bodies whose boxes overlap.
+ * Implementations report each overlapping pair exactly once (in no particular order) and may keep state between calls
+ *  to exploit coherence between frames.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public interface BroadPhase {
+    /**
+     * Find all pairs of overlapping bodies
+     *
+     * @param bodies Bodies to check
+     * @param sink Receiver of the pairs
+     */
+    void findPairs(BodySet bodies, PairSink sink);
+
+    /**
+     * Receiver of overlapping pairs
+     */
+    @FunctionalInterface
+    interface PairSink{
+        /**
+         * Receive a pair of overlapping bodies
+         *
+         * @param a Index of the body with the lower index
+         * @param b Index of the body with the higher index
+         */
+        void pair(int a, int b);
+    }
+}
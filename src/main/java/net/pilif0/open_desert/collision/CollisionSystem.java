@@ -0,0 +1,157 @@
+package net.pilif0.open_desert.collision;
+
+import net.pilif0.open_desert.components.BoundsComponent;
+import net.pilif0.open_desert.components.ColliderComponent;
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.ecs.Archetype;
+import net.pilif0.open_desert.ecs.Condition;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.ecs.Query;
+import net.pilif0.open_desert.world.WorldTree;
+import org.joml.Vector2fc;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Broad phase collision detection over the colliders of a world.
+ * Each update collects the boxes of the colliders, finds the overlapping pairs with the selected strategy, and then
+ *  delivers a collision event to both game objects of each pair. Pairs are delivered only after all are found, so
+ *  handlers can move game objects without disturbing the detection.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class CollisionSystem {
+    /** Condition of the colliders */
+    public static final Condition COLLIDERS =
+            new Condition(ColliderComponent.NAME, BoundsComponent.NAME, PositionComponent.NAME);
+
+    /** Live query of the colliders in the world */
+    private final Query colliders;
+    /** Bodies of the current frame */
+    private final BodySet bodies = new BodySet();
+    /** Strategy finding the pairs */
+    private BroadPhase strategy = new SortAndSweep();
+    /** Pairs of the current frame (body indices, two per pair) */
+    private int[] pairs = new int[64];
+    /** Number of pairs of the current frame */
+    private int pairCount;
+    /** Receiver of the pairs */
+    private final BroadPhase.PairSink collector = this::collect;
+    /** Gatherer of the bodies */
+    private final Consumer<Archetype.Chunk> gatherer = this::gather;
+
+    /**
+     * Construct the collision system of a world
+     *
+     * @param world World to detect collisions in
+     */
+    public CollisionSystem(WorldTree world){
+        colliders = world.query(COLLIDERS);
+    }
+
+    /**
+     * Detect the collisions of the current frame and deliver them
+     */
+    public void update(){
+        detect();
+        deliver();
+    }
+
+    /**
+     * Collect the bodies and find the overlapping pairs (without delivering them)
+     */
+    public void detect(){
+        bodies.clear();
+        pairCount = 0;
+        if(colliders.size() == 0){
+            return;
+        }
+
+        colliders.forEachChunk(gatherer);
+        strategy.findPairs(bodies, collector);
+    }
+
+    /**
+     * Collect the bodies of a chunk of colliders
+     *
+     * @param chunk Chunk of colliders
+     */
+    private void gather(Archetype.Chunk chunk){
+        for(int i = 0; i < chunk.size(); i++){
+            GameObject go = chunk.objects[i];
+            float px = go.position.getX();
+            float py = go.position.getY();
+            Vector2fc e = ((BoundsComponent) go.getComponent(BoundsComponent.ID)).getHalfExtents();
+            int index = bodies.add(go, px - e.x(), py - e.y(), px + e.x(), py + e.y());
+            ((ColliderComponent) go.getComponent(ColliderComponent.ID)).setBodyIndex(index);
+        }
+    }
+
+    /**
+     * Remember a found pair
+     *
+     * @param a Index of the first body
+     * @param b Index of the second body
+     */
+    private void collect(int a, int b){
+        if(2 * pairCount == pairs.length){
+            pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+        }
+        pairs[2 * pairCount] = a;
+        pairs[2 * pairCount + 1] = b;
+        pairCount++;
+    }
+
+    /**
+     * Deliver a collision event to both game objects of each found pair
+     */
+    public void deliver(){
+        GameObject[] objects = bodies.objects;
+        for(int i = 0; i < pairCount; i++){
+            GameObject a = objects[pairs[2 * i]];
+            GameObject b = objects[pairs[2 * i + 1]];
+            ColliderComponent colliderA = (ColliderComponent) a.getComponent(ColliderComponent.ID);
+            ColliderComponent colliderB = (ColliderComponent) b.getComponent(ColliderComponent.ID);
+            a.distributeEvent(new ColliderComponent.CollisionEvent(colliderB, b));
+            b.distributeEvent(new ColliderComponent.CollisionEvent(colliderA, a));
+        }
+    }
+
+    /**
+     * Return the number of pairs found in the current frame
+     *
+     * @return Number of pairs
+     */
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    /**
+     * Return the bodies of the current frame
+     *
+     * @return Bodies
+     */
+    public BodySet getBodies() {
+        return bodies;
+    }
+
+    /**
+     * Return the strategy finding the pairs
+     *
+     * @return Broad phase strategy
+     */
+    public BroadPhase getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Set the strategy finding the pairs
+     *
+     * @param strategy New value
+     */
+    public void setStrategy(BroadPhase strategy) {
+        this.strategy = strategy;
+    }
+}
@@ -0,0 +1,132 @@
+package net.pilif0.open_desert.collision;
+
+import java.util.Arrays;
+
+/**
+ * Sort-and-sweep broad phase.
+ * Bodies are sorted by the minimal x coordinate of their box and swept in that order, comparing each body only with
+ *  the following bodies that start before it ends.
+ * The order is kept between frames, so that it can be restored by an insertion sort when bodies move a little. When
+ *  the number of bodies changes or the insertion sort would take too long, the bodies are sorted from scratch.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SortAndSweep implements BroadPhase {
+    /** Maximum number of insertion sort shifts per body before sorting from scratch */
+    public static final int SHIFT_LIMIT = 8;
+
+    /** Body indices in the order of the minimal x coordinate */
+    private int[] order = new int[0];
+    /** Number of bodies in the order */
+    private int ordered = -1;
+    /** Scratch keys for sorting from scratch */
+    private long[] keys = new long[0];
+    // Boxes copied in the sweep order, so that the sweep reads memory sequentially
+    /** Minimal x coordinates in the sweep order */
+    private float[] sortedMinX = new float[0];
+    /** Maximal x coordinates in the sweep order */
+    private float[] sortedMaxX = new float[0];
+    /** Minimal y coordinates in the sweep order */
+    private float[] sortedMinY = new float[0];
+    /** Maximal y coordinates in the sweep order */
+    private float[] sortedMaxY = new float[0];
+
+    @Override
+    public void findPairs(BodySet bodies, PairSink sink) {
+        int n = bodies.size();
+        float[] minX = bodies.minX;
+        float[] maxX = bodies.maxX;
+        float[] minY = bodies.minY;
+        float[] maxY = bodies.maxY;
+
+        // Restore the order
+        if(n != ordered || !insertionSort(minX, n)){
+            fullSort(minX, n);
+        }
+
+        // Copy the boxes in the sweep order
+        if(sortedMinX.length < n){
+            sortedMinX = new float[order.length];
+            sortedMaxX = new float[order.length];
+            sortedMinY = new float[order.length];
+            sortedMaxY = new float[order.length];
+        }
+        for(int i = 0; i < n; i++){
+            int a = order[i];
+            sortedMinX[i] = minX[a];
+            sortedMaxX[i] = maxX[a];
+            sortedMinY[i] = minY[a];
+            sortedMaxY[i] = maxY[a];
+        }
+
+        // Sweep
+        for(int i = 0; i < n; i++){
+            float endX = sortedMaxX[i];
+            float aMinY = sortedMinY[i];
+            float aMaxY = sortedMaxY[i];
+            for(int j = i + 1; j < n && sortedMinX[j] <= endX; j++){
+                if(sortedMinY[j] <= aMaxY && sortedMaxY[j] >= aMinY){
+                    int a = order[i];
+                    int b = order[j];
+                    if(a < b){
+                        sink.pair(a, b);
+                    }else{
+                        sink.pair(b, a);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Restore the order of the previous frame by an insertion sort
+     *
+     * @param minX Minimal x coordinates of the boxes
+     * @param n Number of bodies
+     * @return Whether the order was restored (otherwise it is left partly sorted)
+     */
+    private boolean insertionSort(float[] minX, int n){
+        long budget = (long) SHIFT_LIMIT * n;
+        for(int i = 1; i < n; i++){
+            int v = order[i];
+            float key = minX[v];
+            int j = i - 1;
+            while(j >= 0 && minX[order[j]] > key){
+                order[j + 1] = order[j];
+                j--;
+                if(--budget < 0){
+                    order[j + 1] = v;
+                    return false;
+                }
+            }
+            order[j + 1] = v;
+        }
+        return true;
+    }
+
+    /**
+     * Sort the bodies from scratch
+     *
+     * @param minX Minimal x coordinates of the boxes
+     * @param n Number of bodies
+     */
+    private void fullSort(float[] minX, int n){
+        if(order.length < n){
+            order = new int[n];
+            keys = new long[n];
+        }
+
+        // Pack the order preserving bits of the coordinate with the index and sort the primitives
+        for(int i = 0; i < n; i++){
+            int bits = Float.floatToIntBits(minX[i]);
+            bits ^= (bits >> 31) & 0x7fffffff;
+            keys[i] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(keys, 0, n);
+        for(int i = 0; i < n; i++){
+            order[i] = (int) keys[i];
+        }
+        ordered = n;
+    }
+}
@@ -0,0 +1,62 @@
+package net.pilif0.open_desert.collision;
+
+import net.pilif0.open_desert.components.ColliderComponent;
+import net.pilif0.open_desert.ecs.Condition;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.world.SpatialIndex;
+
+import java.util.function.Consumer;
+
+/**
+ * Broad phase querying a spatial index (such as the world tree) with the box of each body.
+ * Requires the bodies to be the colliders of the world collected by the collision system (so that their game objects
+ *  know their body indices) and the index to hold them and be up to date.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SpatialIndexBroadPhase implements BroadPhase {
+    /** Spatial index to query */
+    private final SpatialIndex index;
+    /** Condition of the colliders */
+    private final Condition condition;
+    /** Visitor reporting the pairs of the current body */
+    private final Consumer<GameObject> visitor = this::visit;
+    /** Index of the current body */
+    private int current;
+    /** Receiver of the pairs of the current search */
+    private PairSink sink;
+
+    /**
+     * Construct the broad phase over a spatial index
+     *
+     * @param index Spatial index to query
+     * @param condition Condition of the colliders
+     */
+    public SpatialIndexBroadPhase(SpatialIndex index, Condition condition){
+        this.index = index;
+        this.condition = condition;
+    }
+
+    @Override
+    public void findPairs(BodySet bodies, PairSink sink) {
+        this.sink = sink;
+        for(current = 0; current < bodies.size(); current++){
+            index.queryRect(bodies.minX[current], bodies.minY[current], bodies.maxX[current], bodies.maxY[current],
+                    condition, visitor);
+        }
+        this.sink = null;
+    }
+
+    /**
+     * Report the pair of the current body with a found game object (once, from the body with the lower index)
+     *
+     * @param go Found game object
+     */
+    private void visit(GameObject go){
+        int other = ((ColliderComponent) go.getComponent(ColliderComponent.ID)).getBodyIndex();
+        if(other > current){
+            sink.pair(current, other);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package net.pilif0.open_desert.collision;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid broad phase.
+ * Each body is entered into every cell of an unbounded grid its box covers, with the cells hashed into a table sized
+ *  to the number of entries. Only bodies sharing a cell are compared, and a pair is reported only from the cell
+ *  containing the minimal corner of the intersection of the boxes, so that it is reported once.
+ * Works best when the cell size is close to the typical body size.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class UniformGrid implements BroadPhase {
+    /** Length of one side of a cell */
+    private final float cellSize;
+    /** Inverse of the cell size */
+    private final float inverse;
+
+    // Entries (one per body and covered cell)
+    /** Body of each entry */
+    private int[] entryBody = new int[0];
+    /** Cell x coordinate of each entry */
+    private int[] entryX = new int[0];
+    /** Cell y coordinate of each entry */
+    private int[] entryY = new int[0];
+    /** Next entry in the same bucket ({@code -1} for none) */
+    private int[] next = new int[0];
+    /** First entry of each bucket ({@code -1} for none) */
+    private int[] heads = new int[0];
+
+    /**
+     * Construct the grid
+     *
+     * @param cellSize Length of one side of a cell
+     */
+    public UniformGrid(float cellSize){
+        this.cellSize = cellSize;
+        this.inverse = 1 / cellSize;
+    }
+
+    @Override
+    public void findPairs(BodySet bodies, PairSink sink) {
+        int n = bodies.size();
+        float[] minX = bodies.minX;
+        float[] maxX = bodies.maxX;
+        float[] minY = bodies.minY;
+        float[] maxY = bodies.maxY;
+
+        // Count the entries and make space
+        int entries = 0;
+        for(int i = 0; i < n; i++){
+            entries += (cell(maxX[i]) - cell(minX[i]) + 1) * (cell(maxY[i]) - cell(minY[i]) + 1);
+        }
+        if(entryBody.length < entries){
+            int capacity = Math.max(entries, 2 * entryBody.length);
+            entryBody = new int[capacity];
+            entryX = new int[capacity];
+            entryY = new int[capacity];
+            next = new int[capacity];
+        }
+        int buckets = Integer.highestOneBit(Math.max(2 * entries - 1, 1)) << 1;
+        if(heads.length < buckets){
+            heads = new int[buckets];
+        }
+        int mask = heads.length - 1;
+        Arrays.fill(heads, -1);
+
+        // Enter the bodies into the cells
+        int e = 0;
+        for(int i = 0; i < n; i++){
+            int x1 = cell(maxX[i]);
+            int y0 = cell(minY[i]);
+            int y1 = cell(maxY[i]);
+            for(int x = cell(minX[i]); x <= x1; x++){
+                for(int y = y0; y <= y1; y++){
+                    int bucket = hash(x, y) & mask;
+                    entryBody[e] = i;
+                    entryX[e] = x;
+                    entryY[e] = y;
+                    next[e] = heads[bucket];
+                    heads[bucket] = e;
+                    e++;
+                }
+            }
+        }
+
+        // Compare bodies sharing a cell
+        for(int bucket = 0; bucket <= mask; bucket++){
+            for(int f = heads[bucket]; f != -1; f = next[f]){
+                int a = entryBody[f];
+                int x = entryX[f];
+                int y = entryY[f];
+                for(int g = next[f]; g != -1; g = next[g]){
+                    int b = entryBody[g];
+                    if(entryX[g] != x || entryY[g] != y || !bodies.overlap(a, b)){
+                        continue;
+                    }
+
+                    // Report only from the cell with the minimal corner of the intersection
+                    if(cell(Math.max(minX[a], minX[b])) != x || cell(Math.max(minY[a], minY[b])) != y){
+                        continue;
+                    }
+                    if(a < b){
+                        sink.pair(a, b);
+                    }else{
+                        sink.pair(b, a);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculate the cell coordinate of a world coordinate
+     *
+     * @param v World coordinate
+     * @return Cell coordinate
+     */
+    private int cell(float v){
+        return (int) Math.floor(v * inverse);
+    }
+
+    /**
+     * Hash cell coordinates
+     *
+     * @param x Cell x coordinate
+     * @param y Cell y coordinate
+     * @return Hash
+     */
+    private static int hash(int x, int y){
+        int h = x * 0x9E3779B1 ^ y * 0x85EBCA77;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Return the length of one side of a cell
+     *
+     * @return Cell size
+     */
+    public float getCellSize() {
+        return cellSize;
+    }
+}
@@ -0,0 +1,204 @@
+package net.pilif0.open_desert.components;
+
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.Components;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.ecs.GameObjectEvent;
+import net.pilif0.open_desert.ecs.Template;
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the axis-aligned bounding box of the game object around its position.
+ * The box covers the sprite dimensions (or the size field when there is no sprite) after scaling and rotation, and is
+ *  recalculated lazily after a rotation or scale change.
+ * World trees index the extent of game objects with this component, so spatial queries match them exactly.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class BoundsComponent implements Component {
+    /** Name of this component */
+    public static final String NAME = "bounds";
+    /** ID of this component */
+    public static final int ID = Components.getId(NAME);
+    /** Types of events handled by this component */
+    private static final List<Class<? extends GameObjectEvent>> EVENT_TYPES =
+            Arrays.asList(RotationComponent.RotationEvent.class, ScaleComponent.ScaleEvent.class);
+    /** Default value for the size (used without a sprite) */
+    public static final Vector2fc DEFAULT_SIZE = new Vector2f(0, 0);
+
+    /** Size of the unscaled, unrotated box when there is no sprite */
+    private final Vector2f size = new Vector2f(DEFAULT_SIZE);
+    /** Half-extents of the box */
+    private final Vector2f halfExtents = new Vector2f();
+    /** Whether the half-extents need to be recalculated */
+    private boolean recalculate = true;
+    /** Change event of this component (only holds the origin, so it is reused) */
+    private final BoundsEvent changeEvent = new BoundsEvent(this);
+    /** Component's owner */
+    private GameObject owner;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void handle(GameObjectEvent e) {
+        // Only subscribed to rotation and scale changes, which both change the box
+        recalculate = true;
+    }
+
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return EVENT_TYPES;
+    }
+
+    @Override
+    public void onAttach(GameObject owner) {
+        // Remember who the component is attached to and set to recalculate
+        this.owner = owner;
+        recalculate = true;
+    }
+
+    @Override
+    public void onDetach(GameObject owner) {
+        // Forget the owner
+        this.owner = null;
+    }
+
+    @Override
+    public void overrideFields(Map<String, Object> overrides) {
+        // Size is serialised as a String with two float values separated by ','
+        Object val = overrides.getOrDefault("size", null);
+        if(val instanceof String){
+            String[] s = ((String) val).split(",");
+            size.set(Float.parseFloat(s[0]), Float.parseFloat(s[1]));
+            recalculate = true;
+        }
+    }
+
+    @Override
+    public Object toYaml(Template t) {
+        // Retrieve the template default
+        Template.ComponentInfo info = t.getComponents().stream()
+                .filter(i -> NAME.equals(i.name))
+                .findFirst()
+                .orElse(null);
+
+        // Check for equal to template values
+        if(info != null){
+            Object val = info.fieldOverrides.getOrDefault("size", null);
+            if(val instanceof String){
+                String[] s = ((String) val).split(",");
+                if(size.x() == Float.parseFloat(s[0]) && size.y() == Float.parseFloat(s[1])){
+                    // Equal to the override
+                    return null;
+                }
+            }else if(val == null && size.equals(DEFAULT_SIZE)){
+                // Equal to the override
+                return null;
+            }
+        }
+
+        // Check for equal to default value
+        if(size.equals(DEFAULT_SIZE)){
+            // Only declare the component
+            return NAME;
+        }
+
+        // Build full object
+        Map<String, Object> result = new HashMap<>();
+        Map<String, Object> data = new HashMap<>();
+        data.put("size", String.format("%f, %f", size.x(), size.y()));
+        result.put(NAME, data);
+        return result;
+    }
+
+    /**
+     * Return the half-extents of the box (distance from the position to the box sides)
+     *
+     * @return Half-extents
+     */
+    public Vector2fc getHalfExtents(){
+        if(recalculate){
+            // Start from the sprite dimensions when there is a sprite
+            SpriteComponent sprite = owner == null ? null : (SpriteComponent) owner.getComponent(SpriteComponent.ID);
+            float w = sprite != null ? sprite.getDimensions().x() : size.x;
+            float h = sprite != null ? sprite.getDimensions().y() : size.y;
+
+            // Scale
+            if(owner != null && owner.scale != null){
+                Vector2fc s = owner.scale.getScale();
+                w *= Math.abs(s.x());
+                h *= Math.abs(s.y());
+            }
+
+            // Rotate (box around the rotated rectangle)
+            if(owner != null && owner.rotation != null && owner.rotation.getRotation() != 0){
+                float r = owner.rotation.getRotation();
+                float cos = Math.abs((float) Math.cos(r));
+                float sin = Math.abs((float) Math.sin(r));
+                float rw = cos * w + sin * h;
+                float rh = sin * w + cos * h;
+                w = rw;
+                h = rh;
+            }
+
+            halfExtents.set(w / 2, h / 2);
+            recalculate = false;
+        }
+
+        return halfExtents;
+    }
+
+    /**
+     * Return the size used without a sprite
+     *
+     * @return Size
+     */
+    public Vector2fc getSize() {
+        return size;
+    }
+
+    /**
+     * Set the size used without a sprite
+     *
+     * @param size New value
+     */
+    public void setSize(Vector2fc size) {
+        this.size.set(size);
+        recalculate = true;
+        if(owner != null){
+            owner.postEvent(changeEvent);
+        }
+    }
+
+    /**
+     * Represents an event in the bounds, such as a change of size
+     */
+    public static class BoundsEvent implements GameObjectEvent {
+        /** Origin of the event */
+        private BoundsComponent origin;
+
+        /**
+         * Construct the event from its origin
+         *
+         * @param origin Origin of the event
+         */
+        public BoundsEvent(BoundsComponent origin) {
+            this.origin = origin;
+        }
+
+        @Override
+        public Component getOrigin() {
+            return origin;
+        }
+    }
+}
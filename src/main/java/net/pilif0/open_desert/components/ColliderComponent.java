@@ -0,0 +1,124 @@
+package net.pilif0.open_desert.components;
+
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.Components;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.ecs.GameObjectEvent;
+import net.pilif0.open_desert.ecs.Template;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marks the game object as a body taking part in the collision detection of its world.
+ * The body is the box of the bounds component. Overlaps are delivered to the game object as collision events.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class ColliderComponent implements Component {
+    /** Name of this component */
+    public static final String NAME = "collider";
+    /** ID of this component */
+    public static final int ID = Components.getId(NAME);
+
+    /** Index of the body in the current collision frame ({@code -1} when not collected) */
+    private int bodyIndex = -1;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void handle(GameObjectEvent e) {}
+
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return NO_EVENTS;
+    }
+
+    @Override
+    public void onAttach(GameObject owner) {}
+
+    @Override
+    public void onDetach(GameObject owner) {
+        bodyIndex = -1;
+    }
+
+    @Override
+    public void overrideFields(Map<String, Object> overrides) {
+        // Nothing in this component is to be overridden
+    }
+
+    @Override
+    public Object toYaml(Template t) {
+        // Retrieve the template default
+        Template.ComponentInfo info = t.getComponents().stream()
+                .filter(i -> NAME.equals(i.name))
+                .findFirst()
+                .orElse(null);
+
+        // Check template
+        if(info != null){
+            // Present in template
+            return null;
+        }else{
+            // Only declare the component
+            return NAME;
+        }
+    }
+
+    /**
+     * Return the index of the body in the current collision frame
+     *
+     * @return Body index or {@code -1} when not collected
+     */
+    public int getBodyIndex() {
+        return bodyIndex;
+    }
+
+    /**
+     * Set the index of the body in the current collision frame (done by the collision system)
+     *
+     * @param bodyIndex New value
+     */
+    public void setBodyIndex(int bodyIndex) {
+        this.bodyIndex = bodyIndex;
+    }
+
+    /**
+     * Represents an overlap of the box of the game object with the box of another one
+     */
+    public static class CollisionEvent implements GameObjectEvent {
+        /** Origin of the event (collider of the other game object) */
+        private ColliderComponent origin;
+        /** The other game object */
+        private GameObject other;
+
+        /**
+         * Construct the event from its origin
+         *
+         * @param origin Collider of the other game object
+         * @param other The other game object
+         */
+        public CollisionEvent(ColliderComponent origin, GameObject other) {
+            this.origin = origin;
+            this.other = other;
+        }
+
+        @Override
+        public Component getOrigin() {
+            return origin;
+        }
+
+        /**
+         * Return the other game object
+         *
+         * @return The other game object
+         */
+        public GameObject getOther() {
+            return other;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package net.pilif0.open_desert.components;
 
+import net.pilif0.open_desert.ecs.ColumnarComponent;
 import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.Components;
 import net.pilif0.open_desert.ecs.GameObjectEvent;
 import net.pilif0.open_desert.ecs.GameObject;
 import net.pilif0.open_desert.ecs.Template;
@@ -10,25 +12,40 @@ import org.joml.Vector3f;
 import org.joml.Vector3fc;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Component that only contains position and related operations.
  * This is the most basic component guaranteed to be present in all game objects.
+ * When the game object is in an archetype storage, the position is stored in the {@code x} and {@code y} columns and
+ *  every read goes straight to them, so the component holds no state shared between the readers.
  *
  * @author Filip Smola
  * @version 1.0
  */
-public class PositionComponent implements Component {
+public class PositionComponent implements ColumnarComponent {
     /** Name of this component */
     public static final String NAME = "position";
+    /** ID of this component */
+    public static final int ID = Components.getId(NAME);
     /** Default value for position */
     public static final Vector2fc DEFAULT_POSITION = new Vector2f();
+    /** Names of the float columns */
+    private static final String[] COLUMN_NAMES = {"x", "y"};
 
-    /** Position value */
+    /** Position value (only used while not bound to columns) */
     private Vector2f position = new Vector2f(DEFAULT_POSITION);
+    /** Change event of this component (only holds the origin, so it is reused) */
+    private final PositionEvent changeEvent = new PositionEvent(this);
     /** Component's owner */
     private GameObject owner;
+    /** Column of x coordinates ({@code null} when not bound) */
+    private float[] xs;
+    /** Column of y coordinates ({@code null} when not bound) */
+    private float[] ys;
+    /** Row in the columns */
+    private int row;
 
     @Override
     public String getName() {
@@ -38,6 +55,11 @@ public class PositionComponent implements Component {
     @Override
     public void handle(GameObjectEvent e) {}
 
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return NO_EVENTS;
+    }
+
     @Override
     public void onAttach(GameObject owner) {
         // Remember who the component is attached to and set to recalculate
@@ -56,12 +78,51 @@ public class PositionComponent implements Component {
         Object val = overrides.getOrDefault("position", null);
         if(val instanceof String){
             String[] p = ((String) val).split(",");
-            position.set(Float.parseFloat(p[0]), Float.parseFloat(p[1]));
+            write(Float.parseFloat(p[0]), Float.parseFloat(p[1]));
+            WorldMatrixComponent.invalidate(owner);
+        }
+    }
+
+    @Override
+    public String[] getColumnNames() {
+        return COLUMN_NAMES;
+    }
+
+    @Override
+    public void bindColumns(float[][] columns, int row) {
+        xs = columns[0];
+        ys = columns[1];
+        this.row = row;
+        xs[row] = position.x;
+        ys[row] = position.y;
+    }
+
+    @Override
+    public void unbindColumns() {
+        position.set(xs[row], ys[row]);
+        xs = null;
+        ys = null;
+    }
+
+    /**
+     * Write the position into the columns when bound, otherwise into the position value
+     *
+     * @param x Position x
+     * @param y Position y
+     */
+    private void write(float x, float y){
+        if(xs != null){
+            xs[row] = x;
+            ys[row] = y;
+        }else{
+            position.set(x, y);
         }
     }
 
     @Override
     public Object toYaml(Template t) {
+        Vector2f value = getPosition(new Vector2f());
+
         // Retrieve the template default
         Template.ComponentInfo info = t.getComponents().stream()
                 .filter(i -> NAME.equals(i.name))
@@ -74,18 +135,18 @@ public class PositionComponent implements Component {
             Object val = info.fieldOverrides.getOrDefault("position", null);
             if(val != null && val instanceof String){
                 String[] p = ((String) val).split(",");
-                if(position.x() == Float.parseFloat(p[0]) && position.y() == Float.parseFloat(p[1])){
+                if(value.x() == Float.parseFloat(p[0]) && value.y() == Float.parseFloat(p[1])){
                     // Equal to the override
                     return null;
                 }
-            }else if(val == null && position.equals(DEFAULT_POSITION)){
+            }else if(val == null && value.equals(DEFAULT_POSITION)){
                 // Equal to the override
                 return null;
             }
         }
 
         // Check for equal to default value
-        if(position.equals(DEFAULT_POSITION)){
+        if(value.equals(DEFAULT_POSITION)){
             // Only declare the component
             return NAME;
         }
@@ -93,18 +154,47 @@ public class PositionComponent implements Component {
         // Build full object
         Map<String, Object> result = new HashMap<>();
         Map<String, Object> data = new HashMap<>();
-        data.put("position", String.format("%f, %f", position.x(), position.y()));
+        data.put("position", String.format("%f, %f", value.x(), value.y()));
         result.put(NAME, data);
         return result;
     }
 
     /**
-     * Get the position value
+     * Get the position x coordinate
+     *
+     * @return Position x
+     */
+    public float getX(){
+        return xs != null ? xs[row] : position.x;
+    }
+
+    /**
+     * Get the position y coordinate
+     *
+     * @return Position y
+     */
+    public float getY(){
+        return ys != null ? ys[row] : position.y;
+    }
+
+    /**
+     * Get a copy of the position value (use {@link #getX()}, {@link #getY()} or {@link #getPosition(Vector2f)} to
+     *  avoid allocating)
      *
      * @return Position value
      */
     public Vector2fc getPosition(){
-        return position;
+        return getPosition(new Vector2f());
+    }
+
+    /**
+     * Get the position value without allocating
+     *
+     * @param dest Destination
+     * @return The destination
+     */
+    public Vector2f getPosition(Vector2f dest){
+        return dest.set(getX(), getY());
     }
 
     /**
@@ -113,7 +203,17 @@ public class PositionComponent implements Component {
      * @return Position value
      */
     public Vector3fc getPosition3D(){
-        return (new Vector3f(position, 0)).toImmutable();
+        return getPosition3D(new Vector3f());
+    }
+
+    /**
+     * Get the position value in 3D without allocating
+     *
+     * @param dest Destination
+     * @return The destination
+     */
+    public Vector3f getPosition3D(Vector3f dest){
+        return dest.set(getX(), getY(), 0);
     }
 
     /**
@@ -122,8 +222,9 @@ public class PositionComponent implements Component {
      * @param newValue New position
      */
     public void setPosition(Vector2fc newValue){
-        position.set(newValue);
-        owner.distributeEvent(new PositionEvent(this));
+        write(newValue.x(), newValue.y());
+        WorldMatrixComponent.invalidate(owner);
+        owner.postEvent(changeEvent);
     }
 
     /**
@@ -132,8 +233,9 @@ public class PositionComponent implements Component {
      * @param difference Value to add
      */
     public void addPosition(Vector2fc difference){
-        position.add(difference);
-        owner.distributeEvent(new PositionEvent(this));
+        write(getX() + difference.x(), getY() + difference.y());
+        WorldMatrixComponent.invalidate(owner);
+        owner.postEvent(changeEvent);
     }
 
     /**
@@ -1,11 +1,13 @@
 package net.pilif0.open_desert.components;
 
 import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.Components;
 import net.pilif0.open_desert.ecs.GameObject;
 import net.pilif0.open_desert.ecs.GameObjectEvent;
 import net.pilif0.open_desert.ecs.Template;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -17,11 +19,15 @@ import java.util.Map;
 public class RotationComponent implements Component{
     /** Name of this component */
     public static final String NAME = "rotation";
+    /** ID of this component */
+    public static final int ID = Components.getId(NAME);
     /** Default value for rotation */
     public static final float DEFAULT_ROTATION = 0f;
 
     /** Rotation amount (degrees) */
     private float rotation = DEFAULT_ROTATION;
+    /** Change event of this component (only holds the origin, so it is reused) */
+    private final RotationEvent changeEvent = new RotationEvent(this);
     /** Component's owner */
     private GameObject owner;
 
@@ -33,6 +39,11 @@ public class RotationComponent implements Component{
     @Override
     public void handle(GameObjectEvent e) {}
 
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return NO_EVENTS;
+    }
+
     @Override
     public void onAttach(GameObject owner) {
         // Remember who the component is attached to and set to recalculate
@@ -56,6 +67,7 @@ public class RotationComponent implements Component{
             // When the value is anything else or nothing
             rotation = Float.parseFloat((String) val);
         }
+        WorldMatrixComponent.invalidate(owner);
     }
 
     @Override
@@ -108,7 +120,8 @@ public class RotationComponent implements Component{
      */
     public void setRotation(float newValue){
         rotation = newValue;
-        owner.distributeEvent(new RotationEvent(this));
+        WorldMatrixComponent.invalidate(owner);
+        owner.postEvent(changeEvent);
     }
 
     /**
@@ -118,7 +131,8 @@ public class RotationComponent implements Component{
      */
     public void addRotation(float difference){
         rotation = (rotation + difference) % 360;
-        owner.distributeEvent(new RotationEvent(this));
+        WorldMatrixComponent.invalidate(owner);
+        owner.postEvent(changeEvent);
     }
 
     /**
@@ -1,6 +1,7 @@
 package net.pilif0.open_desert.components;
 
 import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.Components;
 import net.pilif0.open_desert.ecs.GameObject;
 import net.pilif0.open_desert.ecs.GameObjectEvent;
 import net.pilif0.open_desert.ecs.Template;
@@ -10,6 +11,7 @@ import org.joml.Vector3f;
 import org.joml.Vector3fc;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,11 +23,15 @@ import java.util.Map;
 public class ScaleComponent implements Component {
     /** Name of this component */
     public static final String NAME = "scale";
+    /** ID of this component */
+    public static final int ID = Components.getId(NAME);
     /** Default value for scale */
     public static final Vector2fc DEFAULT_SCALE = new Vector2f(1, 1);
 
     /** Scale factors */
     private Vector2f scale = new Vector2f(DEFAULT_SCALE);
+    /** Change event of this component (only holds the origin, so it is reused) */
+    private final ScaleEvent changeEvent = new ScaleEvent(this);
     /** Component's owner */
     private GameObject owner;
 
@@ -37,6 +43,11 @@ public class ScaleComponent implements Component {
     @Override
     public void handle(GameObjectEvent e) {}
 
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return NO_EVENTS;
+    }
+
     @Override
     public void onAttach(GameObject owner) {
         // Remember who the component is attached to and set to recalculate
@@ -56,6 +67,7 @@ public class ScaleComponent implements Component {
         if(val instanceof String){
             String[] s = ((String) val).split(",");
             scale.set(Float.parseFloat(s[0]), Float.parseFloat(s[1]));
+            WorldMatrixComponent.invalidate(owner);
         }
     }
 
@@ -103,7 +115,7 @@ public class ScaleComponent implements Component {
      * @return Scale factors
      */
     public Vector2fc getScale(){
-        return scale.toImmutable();
+        return scale;
     }
 
     /**
@@ -112,7 +124,17 @@ public class ScaleComponent implements Component {
      * @return Scale factors
      */
     public Vector3fc getScale3D(){
-        return (new Vector3f(scale, 1)).toImmutable();
+        return getScale3D(new Vector3f());
+    }
+
+    /**
+     * Get the scale factors in 3D without allocating
+     *
+     * @param dest Destination
+     * @return The destination
+     */
+    public Vector3f getScale3D(Vector3f dest){
+        return dest.set(scale, 1);
     }
 
     /**
@@ -122,7 +144,8 @@ public class ScaleComponent implements Component {
      */
     public void setScale(Vector2fc newValue){
         scale.set(newValue);
-        owner.distributeEvent(new ScaleEvent(this));
+        WorldMatrixComponent.invalidate(owner);
+        owner.postEvent(changeEvent);
     }
 
     /**
@@ -132,7 +155,8 @@ public class ScaleComponent implements Component {
      */
     public void addScale(Vector2fc difference){
         scale.add(difference);
-        owner.distributeEvent(new ScaleEvent(this));
+        WorldMatrixComponent.invalidate(owner);
+        owner.postEvent(changeEvent);
     }
 
     /**
@@ -142,7 +166,8 @@ public class ScaleComponent implements Component {
      */
     public void mulScale(float f) {
         scale.mul(f);
-        owner.distributeEvent(new ScaleEvent(this));
+        WorldMatrixComponent.invalidate(owner);
+        owner.postEvent(changeEvent);
     }
 
     /**
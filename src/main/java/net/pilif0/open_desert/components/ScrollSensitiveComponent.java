@@ -8,6 +8,7 @@ import net.pilif0.open_desert.ecs.Template;
 import net.pilif0.open_desert.events.EventListener;
 import net.pilif0.open_desert.input.ScrollEvent;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,6 +38,11 @@ public class ScrollSensitiveComponent implements Component, EventListener<Scroll
     @Override
     public void handle(GameObjectEvent e) {}
 
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return NO_EVENTS;
+    }
+
     @Override
     public void onAttach(GameObject owner) {
         // Remember who the component is attached to and set to recalculate
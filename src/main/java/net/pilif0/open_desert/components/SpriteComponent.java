@@ -7,7 +7,9 @@ import org.joml.Vector2fc;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,6 +21,11 @@ import java.util.Map;
 public class SpriteComponent implements Component {
     /** Name of this component */
     public static final String NAME = "sprite";
+    /** ID of this component */
+    public static final int ID = Components.getId(NAME);
+    /** Types of events handled by this component */
+    private static final List<Class<? extends GameObjectEvent>> EVENT_TYPES =
+            Collections.singletonList(GameObject.CleanUpEvent.class);
     /** Default value for the texture atlas (in files) */
     public static final String DEFAULT_TEXTURE_ATLAS = "textures/default.png";
     /** Default value for the texture index */
@@ -32,6 +39,8 @@ public class SpriteComponent implements Component {
     private int index = DEFAULT_TEXTURE_INDEX;
     /** Dimensions of the sprite */
     private Vector2f dimensions = new Vector2f(DEFAULT_DIMENSIONS);
+    /** Whether this component holds a reference to its atlas (while attached) */
+    private boolean holding = false;
 
     /**
      * Construct the component with the default atlas, index and dimensions
@@ -52,13 +61,60 @@ public class SpriteComponent implements Component {
     }
 
     @Override
-    public void handle(GameObjectEvent e) {}
+    public void handle(GameObjectEvent e) {
+        if(e instanceof GameObject.CleanUpEvent){
+            // Let the atlas be evicted
+            releaseAtlas();
+        }
+    }
 
     @Override
-    public void onAttach(GameObject owner) {}
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return EVENT_TYPES;
+    }
 
     @Override
-    public void onDetach(GameObject owner) {}
+    public void onAttach(GameObject owner) {
+        // Keep the atlas from being evicted while attached
+        try {
+            atlas = TextureAtlas.acquire(atlas);
+            holding = true;
+        } catch (IOException e) {
+            throw new ComponentFieldException("Texture atlas could not be reloaded.", e);
+        }
+    }
+
+    @Override
+    public void onDetach(GameObject owner) {
+        // Let the atlas be evicted
+        releaseAtlas();
+    }
+
+    /**
+     * Release the reference to the atlas when holding one
+     */
+    private void releaseAtlas(){
+        if(holding){
+            TextureAtlas.release(atlas);
+            holding = false;
+        }
+    }
+
+    /**
+     * Replace the atlas, moving the reference to the new one when holding one
+     *
+     * @param atlas New atlas
+     * @throws IOException on a problem with reloading the new atlas
+     */
+    private void swapAtlas(TextureAtlas atlas) throws IOException{
+        if(holding){
+            TextureAtlas acquired = TextureAtlas.acquire(atlas);
+            TextureAtlas.release(this.atlas);
+            this.atlas = acquired;
+        }else{
+            this.atlas = atlas;
+        }
+    }
 
     @Override
     public void overrideFields(Map<String, Object> overrides) {
@@ -66,7 +122,7 @@ public class SpriteComponent implements Component {
         Object valAtlas = overrides.getOrDefault("atlas", null);
         if(valAtlas instanceof String) {
             try {
-                atlas = TextureAtlas.from(Paths.get((String) valAtlas));
+                swapAtlas(TextureAtlas.from(Paths.get((String) valAtlas)));
             } catch (IOException e) {
                 // Pass the exception up (causes instantiation to fail and the system to abort)
                 throw new ComponentFieldException("Texture atlas could not be created.", e);
@@ -188,6 +244,14 @@ public class SpriteComponent implements Component {
      */
     public Vector2fc getTextureDelta(){ return atlas.getDeltaCoordinates(index); }
 
+    /**
+     * Return the delta coordinates of the sprite in the texture atlas without allocating
+     *
+     * @param dest Destination
+     * @return The destination
+     */
+    public Vector2f getTextureDelta(Vector2f dest){ return atlas.getDeltaCoordinates(index, dest); }
+
     /**
      * Return the sprite index
      *
@@ -224,9 +288,14 @@ public class SpriteComponent implements Component {
      * Set the texture atlas
      *
      * @param atlas New value
+     * @throws ComponentFieldException on a problem with reloading an evicted atlas
      */
     public void setAtlas(TextureAtlas atlas) {
-        this.atlas = atlas;
+        try {
+            swapAtlas(atlas);
+        } catch (IOException e) {
+            throw new ComponentFieldException("Texture atlas could not be reloaded.", e);
+        }
     }
 
     /**
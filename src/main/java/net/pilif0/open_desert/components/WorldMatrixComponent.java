@@ -1,17 +1,24 @@
 package net.pilif0.open_desert.components;
 
 import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.Components;
 import net.pilif0.open_desert.ecs.GameObject;
 import net.pilif0.open_desert.ecs.GameObjectEvent;
 import net.pilif0.open_desert.ecs.Template;
+import net.pilif0.open_desert.geometry.Affine2f;
 import org.joml.Matrix4f;
 import org.joml.Matrix4fc;
+import org.joml.Vector2fc;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Maintains an up-to-date copy of the world matrix for the game object
+ * Maintains an up-to-date copy of the world matrix for the game object.
+ * The matrix is recalculated in place, and only after the position, rotation or scale component of the game object
+ *  marked it dirty. Changes written straight into the archetype columns need an explicit {@link #invalidate()}, which
+ *  spatial indices do for the game objects they are told moved or see moved by their update systems.
  *
  * @author Filip Smola
  * @version 1.0
@@ -19,9 +26,13 @@ import java.util.Map;
 public class WorldMatrixComponent implements Component {
     /** Name of this component */
     public static final String NAME = "world_matrix";
+    /** ID of this component */
+    public static final int ID = Components.getId(NAME);
 
     /** World matrix */
     private Matrix4f worldMatrix;
+    /** World matrix in the 2D affine form */
+    private final Affine2f affine = new Affine2f();
     /** Whether the world matrix needs to be recalculated */
     private boolean recalculate;
     /** Component's owner */
@@ -41,13 +52,11 @@ public class WorldMatrixComponent implements Component {
     }
 
     @Override
-    public void handle(GameObjectEvent e) {
-        // Set to recalculate on position, rotation or scale change
-        if((e instanceof PositionComponent.PositionEvent) ||
-                (e instanceof RotationComponent.RotationEvent) ||
-                (e instanceof ScaleComponent.ScaleEvent)){
-            recalculate = true;
-        }
+    public void handle(GameObjectEvent e) {}
+
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return NO_EVENTS;
     }
 
     @Override
@@ -87,25 +96,81 @@ public class WorldMatrixComponent implements Component {
     }
 
     /**
-     * Return the world matrix
+     * Mark the world matrix to be recalculated on the next access
+     */
+    public void invalidate(){
+        recalculate = true;
+    }
+
+    /**
+     * Mark the world matrix of a game object to be recalculated, when it has one
      *
-     * @return World matrix
+     * @param owner Game object whose transformation changed ({@code null} for none)
      */
-    public Matrix4fc getWorldMatrix(){
+    public static void invalidate(GameObject owner){
+        if(owner != null){
+            WorldMatrixComponent c = (WorldMatrixComponent) owner.getComponent(ID);
+            if(c != null){
+                c.recalculate = true;
+            }
+        }
+    }
+
+    /**
+     * Recalculate the world matrix and its affine form when dirty
+     */
+    private void update(){
         if(recalculate){
-            worldMatrix.identity();
+            float x = 0;
+            float y = 0;
             if(owner.position != null){
-                worldMatrix.translate(owner.position.getPosition3D());
-            }
-            if(owner.rotation != null) {
-                worldMatrix.rotateZ(owner.rotation.getRotation());
+                x = owner.position.getX();
+                y = owner.position.getY();
             }
-            if(owner.scale != null) {
-                worldMatrix.scale(owner.scale.getScale3D());
+            float angle = owner.rotation == null ? 0 : owner.rotation.getRotation();
+            float sx = 1;
+            float sy = 1;
+            if(owner.scale != null){
+                Vector2fc s = owner.scale.getScale();
+                sx = s.x();
+                sy = s.y();
             }
+            affine.translationRotateScale(x, y, angle, sx, sy).get(worldMatrix);
             recalculate = false;
         }
+    }
+
+    /**
+     * Return the world matrix.
+     * The matrix is recalculated in place, so the returned view stays valid and reflects later changes.
+     *
+     * @return World matrix
+     */
+    public Matrix4fc getWorldMatrix(){
+        update();
+        return worldMatrix;
+    }
 
-        return worldMatrix.toImmutable();
+    /**
+     * Store the world matrix in the 2D affine form
+     *
+     * @param dest Destination
+     * @return The destination
+     */
+    public Affine2f getAffine(Affine2f dest){
+        update();
+        return dest.set(affine);
+    }
+
+    /**
+     * Store the world matrix in the array form of the 2D affine form ({@link Affine2f#FLOATS} floats)
+     *
+     * @param dest Destination array
+     * @param offset Index of the first element
+     * @return The destination array
+     */
+    public float[] getAffine(float[] dest, int offset){
+        update();
+        return affine.get(dest, offset);
     }
 }
@@ -6,7 +6,9 @@ import net.pilif0.open_desert.ecs.GameObject;
 import net.pilif0.open_desert.ecs.GameObjectEvent;
 import net.pilif0.open_desert.ecs.Template;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,6 +22,9 @@ public class ScrollScaleControlComponent implements Component {
     public static final String NAME = "scroll_scale_control";
     /** Default scaling factor per step */
     public static final float DEFAULT_FACTOR = 1.25f;
+    /** Types of events handled by this component */
+    private static final List<Class<? extends GameObjectEvent>> EVENT_TYPES =
+            Collections.singletonList(ScrollSensitiveComponent.ScrollEvent.class);
 
     /** Component's owner */
     private GameObject owner;
@@ -41,6 +46,11 @@ public class ScrollScaleControlComponent implements Component {
         }
     }
 
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return EVENT_TYPES;
+    }
+
     @Override
     public void onAttach(GameObject owner) {
         // Remember who the component is attached to and set to recalculate
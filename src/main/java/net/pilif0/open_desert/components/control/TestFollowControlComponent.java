@@ -10,7 +10,9 @@ import net.pilif0.open_desert.input.Action;
 import org.joml.Vector2f;
 import org.joml.Vector2fc;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.lwjgl.glfw.GLFW.GLFW_MOUSE_BUTTON_MIDDLE;
@@ -28,6 +30,9 @@ public class TestFollowControlComponent implements Component {
     public static final float DEFAULT_SPEED = 100f;
     /** Default precision */
     public static final float DEFAULT_PRECISION = 1f;
+    /** Types of events handled by this component */
+    private static final List<Class<? extends GameObjectEvent>> EVENT_TYPES =
+            Arrays.asList(MouseButtonSensitiveComponent.MouseButtonEvent.class, GameObject.UpdateEvent.class);
 
     /** Component's owner */
     private GameObject owner;
@@ -72,7 +77,7 @@ public class TestFollowControlComponent implements Component {
                 if(d.length() <= precision) return;
 
                 // Scale to speed and apply delta
-                d.normalize().mul(speed * e.delta / (float) 1e9);
+                d.normalize().mul(speed * e.getDelta() / (float) 1e9);
 
                 // Apply
                 owner.position.addPosition(d);
@@ -80,6 +85,11 @@ public class TestFollowControlComponent implements Component {
         }
     }
 
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return EVENT_TYPES;
+    }
+
     @Override
     public void onAttach(GameObject owner) {
         // Remember who the component is attached to and reset the flag
@@ -8,7 +8,9 @@ import net.pilif0.open_desert.input.Action;
 import net.pilif0.open_desert.util.Severity;
 import org.lwjgl.glfw.GLFW;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.lwjgl.glfw.GLFW.GLFW_KEY_LEFT;
@@ -28,6 +30,9 @@ public class TestSpriteControlComponent implements Component {
     public static final int DEFAULT_INCREMENT_KEY = GLFW_KEY_RIGHT;
     /** Default decrement key code */
     public static final int DEFAULT_DECREMENT_KEY = GLFW_KEY_LEFT;
+    /** Types of events handled by this component */
+    private static final List<Class<? extends GameObjectEvent>> EVENT_TYPES =
+            Collections.singletonList(KeyboardSensitiveComponent.KeyboardEvent.class);
 
     /** Component's owner */
     private GameObject owner;
@@ -44,7 +49,7 @@ public class TestSpriteControlComponent implements Component {
     @Override
     public void handle(GameObjectEvent event) {
         if(event instanceof KeyboardSensitiveComponent.KeyboardEvent) {
-            SpriteComponent spriteComponent = (SpriteComponent) owner.getComponent("sprite");
+            SpriteComponent spriteComponent = (SpriteComponent) owner.getComponent(SpriteComponent.ID);
             KeyboardSensitiveComponent.KeyboardEvent e = (KeyboardSensitiveComponent.KeyboardEvent) event;
 
             // Increment segment on right arrow
@@ -62,6 +67,11 @@ public class TestSpriteControlComponent implements Component {
         }
     }
 
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return EVENT_TYPES;
+    }
+
     @Override
     public void onAttach(GameObject owner) {
         // Remember who the component is attached to and set to recalculate
@@ -8,7 +8,9 @@ import net.pilif0.open_desert.ecs.Template;
 import net.pilif0.open_desert.input.Action;
 import org.joml.Vector2f;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.lwjgl.glfw.GLFW.*;
@@ -24,6 +26,9 @@ public class WASDMovementControlComponent implements Component {
     public static final String NAME = "wasd_movement_control";
     /** Default speed value */
     public static final float DEFAULT_SPEED = 100f;
+    /** Types of events handled by this component */
+    private static final List<Class<? extends GameObjectEvent>> EVENT_TYPES =
+            Arrays.asList(KeyboardSensitiveComponent.KeyboardEvent.class, GameObject.UpdateEvent.class);
 
     /** Component's owner */
     private GameObject owner;
@@ -99,12 +104,17 @@ public class WASDMovementControlComponent implements Component {
             //Normalize, scale to speed, and apply
             if(diff.x != 0 || diff.y != 0){
                 diff.normalize();
-                diff.mul(speed * (float) (((GameObject.UpdateEvent) event).delta / 1e9));
+                diff.mul(speed * (float) (((GameObject.UpdateEvent) event).getDelta() / 1e9));
                 owner.position.addPosition(diff);
             }
         }
     }
 
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return EVENT_TYPES;
+    }
+
     @Override
     public void onAttach(GameObject owner) {
         // Remember who the component is attached to and set to recalculate
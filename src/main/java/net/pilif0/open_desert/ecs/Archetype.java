@@ -0,0 +1,277 @@
+package net.pilif0.open_desert.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Storage for all game objects that share the same set of components.
+ * The game objects are stored in fixed-size chunks of parallel arrays (struct-of-arrays), with one column of component
+ *  references per component and one float column per value declared by the columnar components.
+ * The chunks are kept dense - every chunk apart from the last one is always full.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class Archetype {
+    /** Number of game objects in one chunk */
+    public static final int CHUNK_CAPACITY = 1024;
+
+    /** Signature of the component IDs */
+    public final Signature signature;
+    /** IDs of the components (sorted) */
+    public final int[] componentIds;
+    /** Names of the components (in the order of the IDs) */
+    public final String[] componentNames;
+    /** Names of the float columns (qualified as {@code component.column}) */
+    public final String[] columnNames;
+    /** Indices of the float columns of each component (empty for non-columnar components) */
+    private final int[][] componentColumns;
+    /** Chunks of this archetype */
+    private final List<Chunk> chunks;
+    /** Number of game objects in this archetype */
+    private int size;
+
+    /**
+     * Construct an archetype from an example game object
+     *
+     * @param go Game object with the component set of the archetype
+     */
+    Archetype(GameObject go){
+        // Gather the components sorted by their IDs
+        signature = new Signature(go.getSignature());
+        Component[] components = go.getComponents();
+        Arrays.sort(components, (a, b) -> Integer.compare(Components.getId(a.getName()), Components.getId(b.getName())));
+        componentIds = new int[components.length];
+        componentNames = new String[components.length];
+        for(int i = 0; i < components.length; i++){
+            componentIds[i] = Components.getId(components[i].getName());
+            componentNames[i] = components[i].getName();
+        }
+
+        // Assign the float columns
+        List<String> columns = new ArrayList<>();
+        componentColumns = new int[components.length][];
+        for(int i = 0; i < components.length; i++){
+            if(components[i] instanceof ColumnarComponent){
+                String[] names = ((ColumnarComponent) components[i]).getColumnNames();
+                componentColumns[i] = new int[names.length];
+                for(int j = 0; j < names.length; j++){
+                    componentColumns[i][j] = columns.size();
+                    columns.add(componentNames[i] + "." + names[j]);
+                }
+            }else{
+                componentColumns[i] = new int[0];
+            }
+        }
+        columnNames = columns.toArray(new String[0]);
+
+        chunks = new ArrayList<>();
+    }
+
+    /**
+     * Add a game object to this archetype, binding its columnar components to the columns
+     *
+     * @param go Game object to add
+     */
+    void add(GameObject go){
+        // Find a chunk with space
+        Chunk chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if(chunk == null || chunk.size == CHUNK_CAPACITY){
+            chunk = new Chunk();
+            chunks.add(chunk);
+        }
+
+        // Place the game object into the next row
+        int row = chunk.size++;
+        chunk.objects[row] = go;
+        for(int i = 0; i < componentNames.length; i++){
+            chunk.components[i][row] = go.getComponent(componentIds[i]);
+        }
+        bind(chunk, row);
+        size++;
+    }
+
+    /**
+     * Remove a game object from this archetype, unbinding its columnar components.
+     * The hole is filled by the last game object of the last chunk to keep the chunks dense.
+     *
+     * @param go Game object to remove
+     */
+    void remove(GameObject go){
+        Chunk chunk = go.chunk;
+        int row = go.row;
+        unbind(chunk, row);
+        go.chunk = null;
+        go.row = -1;
+
+        // Move the last game object into the hole
+        Chunk last = chunks.get(chunks.size() - 1);
+        int lastRow = last.size - 1;
+        if(last != chunk || lastRow != row){
+            unbind(last, lastRow);
+            chunk.objects[row] = last.objects[lastRow];
+            for(int i = 0; i < componentNames.length; i++){
+                chunk.components[i][row] = last.components[i][lastRow];
+            }
+            bind(chunk, row);
+        }
+
+        // Clear the last row and drop the last chunk when empty
+        last.objects[lastRow] = null;
+        for(Component[] column : last.components) column[lastRow] = null;
+        last.size--;
+        if(last.size == 0){
+            chunks.remove(chunks.size() - 1);
+        }
+        size--;
+    }
+
+    /**
+     * Bind the game object in a row to that row, including its columnar components
+     *
+     * @param chunk Chunk of the row
+     * @param row Row index
+     */
+    private void bind(Chunk chunk, int row){
+        GameObject go = chunk.objects[row];
+        go.chunk = chunk;
+        go.row = row;
+        for(int i = 0; i < componentNames.length; i++){
+            if(componentColumns[i].length != 0){
+                ((ColumnarComponent) chunk.components[i][row]).bindColumns(chunk.componentColumns[i], row);
+            }
+        }
+    }
+
+    /**
+     * Unbind the columnar components of the game object in a row
+     *
+     * @param chunk Chunk of the row
+     * @param row Row index
+     */
+    private void unbind(Chunk chunk, int row){
+        for(int i = 0; i < componentNames.length; i++){
+            if(componentColumns[i].length != 0){
+                ((ColumnarComponent) chunk.components[i][row]).unbindColumns();
+            }
+        }
+    }
+
+    /**
+     * Return the index of a component column
+     *
+     * @param id ID of the component
+     * @return Index of the component column or {@code -1} if the archetype does not have the component
+     */
+    public int getComponentIndex(int id){
+        int i = Arrays.binarySearch(componentIds, id);
+        return i < 0 ? -1 : i;
+    }
+
+    /**
+     * Return the index of a component column
+     *
+     * @param name Name of the component
+     * @return Index of the component column or {@code -1} if the archetype does not have the component
+     */
+    public int getComponentIndex(String name){
+        int id = Components.findId(name);
+        return id < 0 ? -1 : getComponentIndex(id);
+    }
+
+    /**
+     * Return the index of a float column
+     *
+     * @param name Qualified name of the column ({@code component.column})
+     * @return Index of the float column or {@code -1} if the archetype does not have the column
+     */
+    public int getColumnIndex(String name){
+        for(int i = 0; i < columnNames.length; i++){
+            if(columnNames[i].equals(name)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether the game objects of this archetype have a component
+     *
+     * @param name Name of the component
+     * @return Whether the component is present
+     */
+    public boolean hasComponent(String name){
+        int id = Components.findId(name);
+        return id >= 0 && signature.get(id);
+    }
+
+    /**
+     * Return the chunks of this archetype
+     *
+     * @return Unmodifiable list of chunks
+     */
+    public List<Chunk> getChunks(){
+        return Collections.unmodifiableList(chunks);
+    }
+
+    /**
+     * Return the number of game objects in this archetype
+     *
+     * @return Number of game objects
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * A fixed-size block of game objects of the archetype, stored as parallel arrays.
+     * Only the first {@link #size()} rows are valid.
+     */
+    public class Chunk{
+        /** Game objects (one per row) */
+        public final GameObject[] objects;
+        /** Component references per component (in the order of the archetype component names) and row */
+        public final Component[][] components;
+        /** Float values per float column (in the order of the archetype column names) and row */
+        public final float[][] columns;
+        /** Float columns of each component (views into {@code columns}) */
+        private final float[][][] componentColumns;
+        /** Number of valid rows */
+        private int size;
+
+        /**
+         * Construct an empty chunk
+         */
+        private Chunk(){
+            objects = new GameObject[CHUNK_CAPACITY];
+            components = new Component[componentNames.length][CHUNK_CAPACITY];
+            columns = new float[columnNames.length][CHUNK_CAPACITY];
+            componentColumns = new float[componentNames.length][][];
+            for(int i = 0; i < componentNames.length; i++){
+                int[] indices = Archetype.this.componentColumns[i];
+                componentColumns[i] = new float[indices.length][];
+                for(int j = 0; j < indices.length; j++) componentColumns[i][j] = columns[indices[j]];
+            }
+        }
+
+        /**
+         * Return the number of valid rows
+         *
+         * @return Number of valid rows
+         */
+        public int size(){
+            return size;
+        }
+
+        /**
+         * Return the archetype this chunk belongs to
+         *
+         * @return Archetype of the chunk
+         */
+        public Archetype getArchetype(){
+            return Archetype.this;
+        }
+    }
+}
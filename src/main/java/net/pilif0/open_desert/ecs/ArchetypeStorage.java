@@ -0,0 +1,144 @@
+package net.pilif0.open_desert.ecs;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Stores game objects grouped by their archetypes (sets of components).
+ * Game objects with the same components share the chunked columns of one archetype, which allows systems to iterate
+ *  contiguous arrays instead of looking up the components of each game object.
+ * Adding or removing a component of a stored game object moves it to the matching archetype automatically.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class ArchetypeStorage {
+    /** Archetypes under their signatures */
+    private final Map<Signature, Archetype> archetypes = new HashMap<>();
+    /** Registered queries */
+    private final List<Query> queries = new ArrayList<>();
+    /** Number of stored game objects */
+    private int size;
+
+    /**
+     * Add a game object to the storage.
+     * Does nothing when the game object is already stored (here or in another storage).
+     *
+     * @param go Game object to add
+     * @return Whether the game object was added
+     */
+    public boolean add(GameObject go){
+        if(go.storage != null){
+            return false;
+        }
+
+        getArchetype(go).add(go);
+        go.storage = this;
+        size++;
+        return true;
+    }
+
+    /**
+     * Remove a game object from the storage
+     *
+     * @param go Game object to remove
+     * @return Whether the game object was stored here
+     */
+    public boolean remove(GameObject go){
+        if(go.storage != this){
+            return false;
+        }
+
+        go.chunk.getArchetype().remove(go);
+        go.storage = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Move a stored game object to the archetype matching its current components
+     *
+     * @param go Game object to move
+     */
+    void migrate(GameObject go){
+        go.chunk.getArchetype().remove(go);
+        getArchetype(go).add(go);
+    }
+
+    /**
+     * Get the archetype of a game object, creating it when necessary
+     *
+     * @param go Game object
+     * @return Archetype of the game object
+     */
+    private Archetype getArchetype(GameObject go){
+        Archetype result = archetypes.get(go.getSignature());
+        if(result == null){
+            result = new Archetype(go);
+            archetypes.put(result.signature, result);
+            for(Query q : queries) q.offer(result);
+        }
+        return result;
+    }
+
+    /**
+     * Register a live query for a condition.
+     * Later changes to the condition do not affect the query.
+     *
+     * @param cond Condition to satisfy
+     * @return Live query
+     */
+    public Query query(Condition cond){
+        Query result = new Query(this, cond);
+        archetypes.values().forEach(result::offer);
+        queries.add(result);
+        return result;
+    }
+
+    /**
+     * Unregister a live query, so that it no longer follows new archetypes
+     *
+     * @param q Query to unregister
+     * @return Whether the query was registered
+     */
+    public boolean unregister(Query q){
+        return queries.remove(q);
+    }
+
+    /**
+     * Perform an action for each non-empty chunk whose archetype satisfies the condition
+     *
+     * @param cond Condition to check
+     * @param action Action to perform
+     */
+    public void forEachChunk(Condition cond, Consumer<Archetype.Chunk> action){
+        for(Archetype a : archetypes.values()){
+            if(a.size() != 0 && cond.check(a)){
+                a.getChunks().forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Return all archetypes in this storage
+     *
+     * @return Unmodifiable collection of archetypes
+     */
+    public Collection<Archetype> getArchetypes(){
+        return Collections.unmodifiableCollection(archetypes.values());
+    }
+
+    /**
+     * Return the number of stored game objects
+     *
+     * @return Number of stored game objects
+     */
+    public int size(){
+        return size;
+    }
+}
@@ -0,0 +1,31 @@
+package net.pilif0.open_desert.ecs;
+
+/**
+ * Interface for components whose state can be stored in the float columns of an archetype chunk.
+ * While bound, the columns are the authoritative storage and the component acts as a view into them.
+ * While unbound (the game object is not in an archetype storage), the component keeps the state itself.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public interface ColumnarComponent extends Component {
+    /**
+     * Get the names of the float columns this component stores its state in (unique within the component)
+     *
+     * @return Column names
+     */
+    String[] getColumnNames();
+
+    /**
+     * Bind the component to its columns, copying the current state into them
+     *
+     * @param columns Columns in the order of {@link #getColumnNames()}
+     * @param row Row of the columns that belongs to this component
+     */
+    void bindColumns(float[][] columns, int row);
+
+    /**
+     * Unbind the component from its columns, copying the current state out of them
+     */
+    void unbindColumns();
+}
@@ -1,6 +1,9 @@
 package net.pilif0.open_desert.ecs;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Interface for components
@@ -9,6 +12,9 @@ import java.util.Map;
  * @version 1.0
  */
 public interface Component {
+    /** Event types of components that do not handle any events */
+    List<Class<? extends GameObjectEvent>> NO_EVENTS = Collections.emptyList();
+
     /**
      * Get the component name (unique to the component type in the system)
      *
@@ -23,6 +29,29 @@ public interface Component {
      */
     void handle(GameObjectEvent e);
 
+    /**
+     * Get the types of events to pass to {@link #handle(GameObjectEvent)} (subtypes included).
+     * The game object only invokes the components subscribed to the type of each event. The subscription is read
+     *  after the component is attached, so it must not change while attached.
+     *
+     * @return Event types or {@code null} for all events
+     */
+    default List<Class<? extends GameObjectEvent>> getEventTypes(){
+        return null;
+    }
+
+    /**
+     * Get the handler of the events of one subscribed type.
+     * The game object asks once per event type while subscribing the component, so a component handling several types
+     *  can pick a handler per type instead of testing the class of every event.
+     *
+     * @param type Event type (one of the subscribed types or their subtype)
+     * @return Handler of the events of the type ({@link #handle(GameObjectEvent)} by default)
+     */
+    default Consumer<GameObjectEvent> getHandler(Class<? extends GameObjectEvent> type){
+        return this::handle;
+    }
+
     /**
      * Handle attaching to a game object (after the fact)
      *
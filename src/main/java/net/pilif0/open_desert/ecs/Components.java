@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +16,8 @@ import java.util.Map;
 /**
  * Enables actions concerning all components.
  * Each component needs to have a nullary constructor in order to be instantiable.
+ * Each component name is assigned a dense integer ID (starting at 0) the first time it is seen, which is used for
+ *  constant-time lookups and bit set signatures instead of comparing names.
  *
  * @author Filip Smola
  * @version 1.0
@@ -22,6 +25,47 @@ import java.util.Map;
 public class Components {
     /** Map of all component declarations under the component names */
     public static final Map<String, ComponentDecl> declarations = new HashMap<>();
+    /** Map of component IDs under the component names */
+    private static final Map<String, Integer> ids = new HashMap<>();
+    /** List of component names indexed by their IDs */
+    private static final List<String> names = new ArrayList<>();
+
+    /**
+     * Return the ID of a component name, assigning the next free ID if the name has not been seen yet
+     *
+     * @param name Name of the component
+     * @return ID of the component
+     */
+    public static synchronized int getId(String name){
+        Integer id = ids.get(name);
+        if(id == null){
+            id = names.size();
+            names.add(name);
+            ids.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Return the ID of a component name without assigning a new one
+     *
+     * @param name Name of the component
+     * @return ID of the component or {@code -1} if the name has not been seen yet
+     */
+    public static synchronized int findId(String name){
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Return the component name with an ID
+     *
+     * @param id ID of the component
+     * @return Name of the component or {@code null} if the ID has not been assigned
+     */
+    public static synchronized String getName(int id){
+        return (id >= 0 && id < names.size()) ? names.get(id) : null;
+    }
 
     /**
      * Instantiates a component by name (with default fields values)
@@ -113,6 +157,8 @@ public class Components {
         public final Class<Component> attachedClass;
         /** Names of the required components (checked when instantiating) */
         public final String[] required;
+        /** ID of the component */
+        public final int id;
 
         /**
          * Construct a component declaration from all its data
@@ -125,6 +171,7 @@ public class Components {
             this.name = name;
             this.attachedClass = attachedClass;
             this.required = required;
+            this.id = getId(name);
         }
 
         /**
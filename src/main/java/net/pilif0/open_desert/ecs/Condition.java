@@ -13,6 +13,8 @@ import java.util.List;
 public class Condition {
     /** Components the game object needs to have */
     private List<String> components;
+    /** Compiled mask of the component IDs the game object needs to have */
+    private Signature mask;
 
     /**
      * Construct a condition from a number of component names
@@ -21,6 +23,7 @@ public class Condition {
      */
     public Condition(String... names){
         components = new ArrayList<String>(Arrays.asList(names));
+        compile();
     }
 
     /**
@@ -30,6 +33,7 @@ public class Condition {
      */
     public void addComponent(String name){
         components.add(name);
+        compile();
     }
 
     /**
@@ -38,7 +42,29 @@ public class Condition {
      * @param name Name of the component
      */
     public void removeComponent(String name){
-        components.add(name);
+        components.remove(name);
+        compile();
+    }
+
+    /**
+     * Compile the desired component list into the mask
+     */
+    private void compile(){
+        Signature result = new Signature();
+        for(String name : components){
+            result.set(Components.getId(name));
+        }
+        mask = result;
+    }
+
+    /**
+     * Return the compiled mask of the component IDs the game object needs to have.
+     * The returned object must not be modified.
+     *
+     * @return Compiled mask
+     */
+    public Signature getMask(){
+        return mask;
     }
 
     /**
@@ -48,23 +74,16 @@ public class Condition {
      * @return Whether the game object satisfies this condition
      */
     public boolean check(GameObject go){
-        // Check components
-        if(components.size() != 0){
-            List<String> copy = new ArrayList<>(components);
-            for(Component c : go.getComponents()){
-                copy.remove(c.getName());
-                if(copy.isEmpty()){
-                    break;
-                }
-            }
-
-            // Copy not emptied --> not all components present
-            if(!copy.isEmpty()){
-                return false;
-            }
-        }
+        return go.getSignature().containsAll(mask);
+    }
 
-        //Everything passed
-        return true;
+    /**
+     * Whether the game objects of an archetype satisfy this condition
+     *
+     * @param a Archetype to check
+     * @return Whether the game objects of the archetype satisfy this condition
+     */
+    public boolean check(Archetype a){
+        return a.signature.containsAll(mask);
     }
 }
@@ -0,0 +1,216 @@
+package net.pilif0.open_desert.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Queue of deferred game object events, distributed together on {@link #flush()}.
+ * Events are kept in a ring buffer in the order they were first posted. An event posted while another one of the same
+ *  class is pending for the same game object replaces it in place, so that a game object moved several times in a
+ *  frame only notifies its components once. Only events that notify about a change of state (like the position event)
+ *  are safe to defer this way, because only the last one of each class reaches the components.
+ * Posting and flushing are synchronised, so game objects updated in parallel may post into one queue.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class EventQueue {
+    /** Initial capacity of the ring buffer */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Target game objects of the pending events (ring buffer) */
+    private GameObject[] targets = new GameObject[INITIAL_CAPACITY];
+    /** Pending events (ring buffer) */
+    private GameObjectEvent[] events = new GameObjectEvent[INITIAL_CAPACITY];
+    /** Sequence number of the first pending event */
+    private long head;
+    /** Sequence number of the next posted event */
+    private long tail;
+
+    // Coalescing index (open addressing with linear probing, entries with a sequence number below the head are stale)
+    /** Target game objects of the index entries ({@code null} for free) */
+    private GameObject[] keyTargets = new GameObject[2 * INITIAL_CAPACITY];
+    /** Event classes of the index entries */
+    private Class<?>[] keyTypes = new Class<?>[2 * INITIAL_CAPACITY];
+    /** Sequence numbers of the events of the index entries */
+    private long[] keySequences = new long[2 * INITIAL_CAPACITY];
+    /** Number of used index entries (stale ones included) */
+    private int keyCount;
+
+    /** Number of events replaced by later ones since the creation of the queue */
+    private long coalesced;
+
+    /**
+     * Post an event for a game object, replacing a pending event of the same class for the same game object
+     *
+     * @param target Game object to distribute the event to
+     * @param e Event to distribute
+     */
+    public synchronized void post(GameObject target, GameObjectEvent e){
+        int mask = keyTargets.length - 1;
+        int i = hash(target, e.getClass()) & mask;
+        while(keyTargets[i] != null){
+            if(keyTargets[i] == target && keyTypes[i] == e.getClass()){
+                if(keySequences[i] >= head){
+                    // Pending - replace it in place
+                    events[slot(keySequences[i])] = e;
+                    coalesced++;
+                    return;
+                }
+                // Already distributed - reuse the entry
+                keySequences[i] = append(target, e);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        // New entry
+        keyTargets[i] = target;
+        keyTypes[i] = e.getClass();
+        keySequences[i] = append(target, e);
+        if(++keyCount * 2 > keyTargets.length){
+            rehash();
+        }
+    }
+
+    /**
+     * Distribute the pending events in the order they were posted, including the ones posted while flushing
+     *
+     * @return Number of events distributed
+     */
+    public int flush(){
+        int count = 0;
+        while(true){
+            GameObject target;
+            GameObjectEvent e;
+            synchronized(this){
+                if(head == tail){
+                    // Drop the stale index entries while the queue is empty
+                    if(keyCount > 0){
+                        Arrays.fill(keyTargets, null);
+                        Arrays.fill(keyTypes, null);
+                        keyCount = 0;
+                    }
+                    return count;
+                }
+                int s = slot(head++);
+                target = targets[s];
+                e = events[s];
+                targets[s] = null;
+                events[s] = null;
+            }
+
+            // Distribute outside the lock, as the components may post further events
+            target.distributeEvent(e);
+            count++;
+        }
+    }
+
+    /**
+     * Drop all pending events without distributing them
+     */
+    public synchronized void clear(){
+        Arrays.fill(targets, null);
+        Arrays.fill(events, null);
+        head = tail;
+        Arrays.fill(keyTargets, null);
+        Arrays.fill(keyTypes, null);
+        keyCount = 0;
+    }
+
+    /**
+     * Return the number of pending events
+     *
+     * @return Number of pending events
+     */
+    public synchronized int size(){
+        return (int) (tail - head);
+    }
+
+    /**
+     * Return the number of events replaced by later ones since the creation of the queue
+     *
+     * @return Number of coalesced events
+     */
+    public synchronized long getCoalescedCount(){
+        return coalesced;
+    }
+
+    /**
+     * Append an event to the ring buffer, growing it when full
+     *
+     * @param target Game object to distribute the event to
+     * @param e Event to distribute
+     * @return Sequence number of the event
+     */
+    private long append(GameObject target, GameObjectEvent e){
+        if(tail - head == targets.length){
+            grow();
+        }
+        int s = slot(tail);
+        targets[s] = target;
+        events[s] = e;
+        return tail++;
+    }
+
+    /**
+     * Return the ring buffer slot of a sequence number
+     *
+     * @param sequence Sequence number
+     * @return Slot index
+     */
+    private int slot(long sequence){
+        return (int) (sequence & (targets.length - 1));
+    }
+
+    /**
+     * Double the ring buffer, keeping the slots of the pending events consistent with their sequence numbers
+     */
+    private void grow(){
+        GameObject[] newTargets = new GameObject[2 * targets.length];
+        GameObjectEvent[] newEvents = new GameObjectEvent[2 * events.length];
+        int newMask = newTargets.length - 1;
+        for(long s = head; s < tail; s++){
+            int from = slot(s);
+            newTargets[(int) (s & newMask)] = targets[from];
+            newEvents[(int) (s & newMask)] = events[from];
+        }
+        targets = newTargets;
+        events = newEvents;
+    }
+
+    /**
+     * Rebuild the coalescing index with double the capacity, dropping the stale entries
+     */
+    private void rehash(){
+        GameObject[] oldTargets = keyTargets;
+        Class<?>[] oldTypes = keyTypes;
+        long[] oldSequences = keySequences;
+        keyTargets = new GameObject[2 * oldTargets.length];
+        keyTypes = new Class<?>[2 * oldTargets.length];
+        keySequences = new long[2 * oldTargets.length];
+        keyCount = 0;
+        int mask = keyTargets.length - 1;
+        for(int j = 0; j < oldTargets.length; j++){
+            if(oldTargets[j] != null && oldSequences[j] >= head){
+                int i = hash(oldTargets[j], oldTypes[j]) & mask;
+                while(keyTargets[i] != null) i = (i + 1) & mask;
+                keyTargets[i] = oldTargets[j];
+                keyTypes[i] = oldTypes[j];
+                keySequences[i] = oldSequences[j];
+                keyCount++;
+            }
+        }
+    }
+
+    /**
+     * Hash a game object and an event class
+     *
+     * @param target Game object
+     * @param type Event class
+     * @return Hash
+     */
+    private static int hash(GameObject target, Class<?> type){
+        int h = System.identityHashCode(target) * 31 + System.identityHashCode(type);
+        return h ^ (h >>> 16);
+    }
+}
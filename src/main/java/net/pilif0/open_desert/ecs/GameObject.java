@@ -6,6 +6,7 @@ import net.pilif0.open_desert.components.RotationComponent;
 import net.pilif0.open_desert.components.ScaleComponent;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -22,6 +23,13 @@ public class GameObject {
 
     /** List of all components (only one instance per component name) */
     private List<Component> components;
+    /** Components indexed by their IDs ({@code null} where not present) */
+    private Component[] byId = new Component[0];
+    /** Signature of the component IDs present */
+    private final Signature signature = new Signature();
+    /** Handlers of the components subscribed to each event type distributed so far (replaced on change, cleared when
+     *  the components change) */
+    private volatile Map<Class<?>, List<Consumer<GameObjectEvent>>> listeners = Collections.emptyMap();
     /** Immutable unique (within each world) object handle */
     public final int handle;
     /** Reference to the template that this game object was created from ({@code null} when created manually) */
@@ -35,6 +43,17 @@ public class GameObject {
     /** Scale component */
     public final ScaleComponent scale;
 
+    /** Queue to defer the change events of this game object into ({@code null} to distribute them immediately) */
+    private volatile EventQueue eventQueue;
+
+    // Archetype storage location (managed by the storage)
+    /** Storage this game object is in ({@code null} when not stored) */
+    ArchetypeStorage storage;
+    /** Archetype chunk this game object is in ({@code null} when not stored) */
+    Archetype.Chunk chunk;
+    /** Row of the archetype chunk this game object is in */
+    int row = -1;
+
     /**
      * Construct a new game object based on a template
      *
@@ -55,16 +74,16 @@ public class GameObject {
         }
 
         // Make sure the game object has a position
-        if(hasComponent("position")){
-            position = (PositionComponent) getComponent("position");
+        if(hasComponent(PositionComponent.ID)){
+            position = (PositionComponent) getComponent(PositionComponent.ID);
         }else{
             position = new PositionComponent();
             addComponent(position);
         }
 
         // Set the remaining members
-        rotation = (RotationComponent) getComponent("rotation");
-        scale = (ScaleComponent) getComponent("scale");
+        rotation = (RotationComponent) getComponent(RotationComponent.ID);
+        scale = (ScaleComponent) getComponent(ScaleComponent.ID);
         handle = newHandle();
     }
 
@@ -77,10 +96,11 @@ public class GameObject {
     protected GameObject(int handle, List<Component> components){
         this.handle = handle;
         this.components = components;
+        components.forEach(this::index);
         components.forEach(c -> c.onAttach(this));
-        position = (PositionComponent) getComponent("position");
-        rotation = (RotationComponent) getComponent("rotation");
-        scale = (ScaleComponent) getComponent("scale");
+        position = (PositionComponent) getComponent(PositionComponent.ID);
+        rotation = (RotationComponent) getComponent(RotationComponent.ID);
+        scale = (ScaleComponent) getComponent(ScaleComponent.ID);
         template = null;
     }
 
@@ -170,7 +190,7 @@ public class GameObject {
      */
     public void update(long delta){
         // Distribute as an event, because some components might not want to update (ex. just hold data)
-        distributeEvent(new UpdateEvent(delta));
+        distributeEvent(UpdateEvent.pooled(delta));
     }
 
     /**
@@ -189,11 +209,16 @@ public class GameObject {
      * @return Whether the list of components changed
      */
     public boolean addComponent(Component c){
-        if(hasComponent(c.getName())){
+        int id = Components.getId(c.getName());
+        if(hasComponent(id)){
             return false;
         }
         boolean result = components.add(c);
+        index(c);
         c.onAttach(this);
+        if(storage != null){
+            storage.migrate(this);
+        }
         return result;
     }
 
@@ -205,7 +230,13 @@ public class GameObject {
      */
     public boolean removeComponent(Component c){
         boolean result = components.remove(c);
+        if(result){
+            unindex(c);
+        }
         c.onDetach(this);
+        if(result && storage != null){
+            storage.migrate(this);
+        }
         return result;
     }
 
@@ -216,18 +247,37 @@ public class GameObject {
      * @return Whether this game object had this component
      */
     public boolean removeComponent(String name){
-        Iterator<Component> it = components.iterator();
-
-        while(it.hasNext()){
-            Component c = it.next();
-            if(c.getName().equals(name)){
-                c.onDetach(this);
-                it.remove();
-                return true;
-            }
+        Component c = getComponent(name);
+        return c != null && removeComponent(c);
+    }
+
+    /**
+     * Add a component to the ID index and the signature
+     *
+     * @param c Component to index
+     */
+    private void index(Component c){
+        int id = Components.getId(c.getName());
+        if(id >= byId.length){
+            byId = Arrays.copyOf(byId, Math.max(id + 1, 2 * byId.length));
         }
+        byId[id] = c;
+        signature.set(id);
+        listeners = Collections.emptyMap();
+    }
 
-        return false;
+    /**
+     * Remove a component from the ID index and the signature
+     *
+     * @param c Component to remove
+     */
+    private void unindex(Component c){
+        int id = Components.getId(c.getName());
+        if(id < byId.length && byId[id] == c){
+            byId[id] = null;
+            signature.clear(id);
+            listeners = Collections.emptyMap();
+        }
     }
 
     /**
@@ -237,10 +287,17 @@ public class GameObject {
      * @return The desired component or {@code null} if this game object did not have that component
      */
     public Component getComponent(String name){
-        return components.stream()
-                .filter(c -> c.getName().equals(name))
-                .findFirst()
-                .orElse(null);
+        return getComponent(Components.findId(name));
+    }
+
+    /**
+     * Retrieve a component from this game object based on a component ID
+     *
+     * @param id ID of the desired component
+     * @return The desired component or {@code null} if this game object did not have that component
+     */
+    public Component getComponent(int id){
+        return (id >= 0 && id < byId.length) ? byId[id] : null;
     }
 
     /**
@@ -250,8 +307,27 @@ public class GameObject {
      * @return Whether this game object has a component with the name
      */
     public boolean hasComponent(String name){
-        return components.stream()
-                .anyMatch(c -> c.getName().equals(name));
+        return hasComponent(Components.findId(name));
+    }
+
+    /**
+     * Whether this game object has a component with the provided ID
+     *
+     * @param id ID to look for
+     * @return Whether this game object has a component with the ID
+     */
+    public boolean hasComponent(int id){
+        return getComponent(id) != null;
+    }
+
+    /**
+     * Return the signature of the component IDs of this game object.
+     * The returned object is live and must not be modified.
+     *
+     * @return Signature of this game object
+     */
+    public Signature getSignature(){
+        return signature;
     }
 
     /**
@@ -282,6 +358,24 @@ public class GameObject {
         return components.toArray(new Component[components.size()]);
     }
 
+    /**
+     * Return the archetype chunk this game object is stored in
+     *
+     * @return Archetype chunk or {@code null} when the game object is not in an archetype storage
+     */
+    public Archetype.Chunk getChunk(){
+        return chunk;
+    }
+
+    /**
+     * Return the row of the archetype chunk this game object is stored in
+     *
+     * @return Row in the chunk or {@code -1} when the game object is not in an archetype storage
+     */
+    public int getRow(){
+        return row;
+    }
+
     /**
      * Generate a new handle for a game object
      *
@@ -292,20 +386,94 @@ public class GameObject {
     }
 
     /**
-     * Distribute an event among all components of this game object
+     * Distribute an event among the components of this game object subscribed to its type
      *
      * @param e Event to distribute
      */
     public void distributeEvent(GameObjectEvent e){
-        components.forEach(c -> c.handle(e));
+        List<Consumer<GameObjectEvent>> subscribed = listeners.get(e.getClass());
+        if(subscribed == null){
+            subscribed = subscribe(e.getClass());
+        }
+        for(int i = 0; i < subscribed.size(); i++){
+            subscribed.get(i).accept(e);
+        }
+    }
+
+    /**
+     * Distribute an event that notifies about a change of state, deferring it into the event queue of this game object
+     *  when it has one.
+     * Deferred events of the same class are coalesced, so only use this for events whose last instance is all the
+     *  components need (like the position event).
+     *
+     * @param e Event to post
+     */
+    public void postEvent(GameObjectEvent e){
+        EventQueue queue = eventQueue;
+        if(queue != null){
+            queue.post(this, e);
+        }else{
+            distributeEvent(e);
+        }
+    }
+
+    /**
+     * Set the queue to defer the change events of this game object into
+     *
+     * @param queue Event queue or {@code null} to distribute the events immediately
+     */
+    public void setEventQueue(EventQueue queue){
+        eventQueue = queue;
+    }
+
+    /**
+     * Return the queue the change events of this game object are deferred into
+     *
+     * @return Event queue or {@code null} when the events are distributed immediately
+     */
+    public EventQueue getEventQueue(){
+        return eventQueue;
+    }
+
+    /**
+     * Find the components subscribed to an event type and remember their handlers of the type in the listener table
+     *
+     * @param type Event type
+     * @return Handlers of the subscribed components in the order they were added
+     */
+    private List<Consumer<GameObjectEvent>> subscribe(Class<? extends GameObjectEvent> type){
+        List<Consumer<GameObjectEvent>> subscribed = new ArrayList<>();
+        for(Component c : components){
+            List<Class<? extends GameObjectEvent>> types = c.getEventTypes();
+            if(types == null){
+                subscribed.add(c.getHandler(type));
+                continue;
+            }
+            for(Class<? extends GameObjectEvent> t : types){
+                if(t.isAssignableFrom(type)){
+                    subscribed.add(c.getHandler(type));
+                    break;
+                }
+            }
+        }
+        List<Consumer<GameObjectEvent>> result = Collections.unmodifiableList(subscribed);
+
+        // Copy on write, so that concurrent distribution to this game object never sees a partial table
+        Map<Class<?>, List<Consumer<GameObjectEvent>>> updated = new IdentityHashMap<>(listeners);
+        updated.put(type, result);
+        listeners = updated;
+        return result;
     }
 
     /**
      * Event representing a game update
      */
     public static class UpdateEvent implements GameObjectEvent{
-        /** Delta time in ns */
-        public final long delta;
+        /** Reusable update events (one per thread, as game objects may be updated in parallel) */
+        private static final ThreadLocal<UpdateEvent> POOL = ThreadLocal.withInitial(() -> new UpdateEvent(0));
+
+        /** Delta time in ns (only changed by {@link #pooled(long)}) */
+        private long delta;
 
         /**
          * Construct the event from the delta time
@@ -316,6 +484,28 @@ public class GameObject {
             this.delta = delta;
         }
 
+        /**
+         * Return the reusable update event of the current thread set to a delta time.
+         * The event is only valid while it is being distributed, so components must not keep it.
+         *
+         * @param delta Delta time in ns
+         * @return Update event
+         */
+        public static UpdateEvent pooled(long delta){
+            UpdateEvent e = POOL.get();
+            e.delta = delta;
+            return e;
+        }
+
+        /**
+         * Return the delta time
+         *
+         * @return Delta time in ns
+         */
+        public long getDelta(){
+            return delta;
+        }
+
         @Override
         public Component getOrigin() {
             return null;
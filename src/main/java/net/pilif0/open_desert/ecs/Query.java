@@ -0,0 +1,109 @@
+package net.pilif0.open_desert.ecs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Live result set of a condition over the game objects of an archetype storage.
+ * The query remembers the archetypes that satisfy the condition and is notified by the storage whenever a new
+ *  archetype is created. Since game objects move between archetypes when their components change, the result follows
+ *  additions and removals of game objects and components without rechecking any game object.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class Query {
+    /** Storage the query is registered with */
+    private final ArchetypeStorage storage;
+    /** Mask of the component IDs the game objects need to have (copied from the condition on registration) */
+    private final Signature mask;
+    /** Archetypes that satisfy the condition */
+    private final List<Archetype> archetypes = new ArrayList<>();
+
+    /**
+     * Construct a query over a storage
+     *
+     * @param storage Storage to query
+     * @param cond Condition to satisfy
+     */
+    Query(ArchetypeStorage storage, Condition cond){
+        this.storage = storage;
+        this.mask = new Signature(cond.getMask());
+    }
+
+    /**
+     * Consider a newly created archetype for the result
+     *
+     * @param a Archetype to consider
+     */
+    void offer(Archetype a){
+        if(a.signature.containsAll(mask)){
+            archetypes.add(a);
+        }
+    }
+
+    /**
+     * Perform an action for each game object in the result
+     *
+     * @param action Action to perform
+     */
+    public void forEach(Consumer<GameObject> action){
+        for(int i = 0; i < archetypes.size(); i++){
+            List<Archetype.Chunk> chunks = archetypes.get(i).getChunks();
+            for(int j = 0; j < chunks.size(); j++){
+                Archetype.Chunk chunk = chunks.get(j);
+                for(int k = 0; k < chunk.size(); k++){
+                    action.accept(chunk.objects[k]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Perform an action for each non-empty chunk of the archetypes in the result
+     *
+     * @param action Action to perform
+     */
+    public void forEachChunk(Consumer<Archetype.Chunk> action){
+        for(int i = 0; i < archetypes.size(); i++){
+            List<Archetype.Chunk> chunks = archetypes.get(i).getChunks();
+            for(int j = 0; j < chunks.size(); j++){
+                action.accept(chunks.get(j));
+            }
+        }
+    }
+
+    /**
+     * Whether a game object is in the result
+     *
+     * @param go Game object to check
+     * @return Whether the game object is in the result
+     */
+    public boolean contains(GameObject go){
+        return go.storage == storage && go.getSignature().containsAll(mask);
+    }
+
+    /**
+     * Return the number of game objects in the result
+     *
+     * @return Number of game objects
+     */
+    public int size(){
+        int result = 0;
+        for(int i = 0; i < archetypes.size(); i++){
+            result += archetypes.get(i).size();
+        }
+        return result;
+    }
+
+    /**
+     * Return the archetypes that satisfy the condition (including currently empty ones)
+     *
+     * @return Unmodifiable list of archetypes
+     */
+    public List<Archetype> getArchetypes(){
+        return Collections.unmodifiableList(archetypes);
+    }
+}
@@ -0,0 +1,161 @@
+package net.pilif0.open_desert.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Set of component IDs represented as a bit set.
+ * Used as the signature of game objects and archetypes, and as the compiled mask of conditions.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class Signature {
+    /** Number of bits in one word */
+    private static final int WORD_BITS = 64;
+
+    /** Words of the bit set */
+    private long[] words;
+
+    /**
+     * Construct an empty signature
+     */
+    public Signature(){
+        words = new long[1];
+    }
+
+    /**
+     * Construct a signature by copying another one
+     *
+     * @param s Signature to copy
+     */
+    public Signature(Signature s){
+        words = Arrays.copyOf(s.words, s.words.length);
+    }
+
+    /**
+     * Add a component ID to the signature
+     *
+     * @param id Component ID
+     * @return This signature
+     */
+    public Signature set(int id){
+        int w = id / WORD_BITS;
+        if(w >= words.length){
+            words = Arrays.copyOf(words, w + 1);
+        }
+        words[w] |= 1L << (id % WORD_BITS);
+        return this;
+    }
+
+    /**
+     * Remove a component ID from the signature
+     *
+     * @param id Component ID
+     * @return This signature
+     */
+    public Signature clear(int id){
+        int w = id / WORD_BITS;
+        if(w < words.length){
+            words[w] &= ~(1L << (id % WORD_BITS));
+        }
+        return this;
+    }
+
+    /**
+     * Whether the signature contains a component ID
+     *
+     * @param id Component ID
+     * @return Whether the ID is present
+     */
+    public boolean get(int id){
+        int w = id / WORD_BITS;
+        return w < words.length && (words[w] & (1L << (id % WORD_BITS))) != 0;
+    }
+
+    /**
+     * Whether this signature contains all the component IDs of another signature
+     *
+     * @param s The other signature
+     * @return Whether all IDs of the other signature are present
+     */
+    public boolean containsAll(Signature s){
+        for(int i = 0; i < s.words.length; i++){
+            long mine = i < words.length ? words[i] : 0;
+            if((mine & s.words[i]) != s.words[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether this signature shares at least one component ID with another signature
+     *
+     * @param s The other signature
+     * @return Whether the signatures intersect
+     */
+    public boolean intersects(Signature s){
+        int n = Math.min(words.length, s.words.length);
+        for(int i = 0; i < n; i++){
+            if((words[i] & s.words[i]) != 0){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the signature contains no component IDs
+     *
+     * @return Whether the signature is empty
+     */
+    public boolean isEmpty(){
+        for(long w : words){
+            if(w != 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Signature)) return false;
+
+        Signature that = (Signature) o;
+
+        // Compare ignoring trailing empty words
+        int n = Math.max(words.length, that.words.length);
+        for(int i = 0; i < n; i++){
+            long a = i < words.length ? words[i] : 0;
+            long b = i < that.words.length ? that.words[i] : 0;
+            if(a != b) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // Ignore trailing empty words to stay consistent with equals
+        int end = words.length;
+        while(end > 0 && words[end - 1] == 0) end--;
+        int result = 1;
+        for(int i = 0; i < end; i++){
+            result = 31 * result + Long.hashCode(words[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        for(int i = 0; i < words.length * WORD_BITS; i++){
+            if(get(i)){
+                if(result.length() > 1) result.append(", ");
+                result.append(i);
+            }
+        }
+        return result.append("}").toString();
+    }
+}
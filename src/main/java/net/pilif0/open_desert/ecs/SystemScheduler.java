@@ -0,0 +1,222 @@
+package net.pilif0.open_desert.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs update systems over the archetype chunks of a storage.
+ * The systems are grouped into stages in the order they were added - a system is placed into the first stage after
+ *  all stages holding a system it conflicts with, so conflicting systems always run in the order they were added.
+ * In the parallel mode the chunks of all systems in a stage are updated concurrently on a fork/join pool, in the
+ *  sequential mode everything runs on the calling thread in a deterministic order.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SystemScheduler {
+    /** Storage to run the systems over */
+    private final ArchetypeStorage storage;
+    /** Pool to run the parallel stages in */
+    private final ForkJoinPool pool;
+    /** Stages of systems */
+    private final List<List<UpdateSystem>> stages = new ArrayList<>();
+    /** Queries of the systems in each stage (parallel to {@code stages}) */
+    private final List<List<Query>> stageQueries = new ArrayList<>();
+    /** Execution mode */
+    private Mode mode = Mode.PARALLEL;
+
+    // Reused per-stage task lists
+    /** Systems of the tasks */
+    private UpdateSystem[] taskSystems = new UpdateSystem[16];
+    /** Chunks of the tasks */
+    private Archetype.Chunk[] taskChunks = new Archetype.Chunk[16];
+    /** Number of tasks */
+    private int taskCount;
+
+    /**
+     * Construct a scheduler over a storage using the common fork/join pool
+     *
+     * @param storage Storage to run the systems over
+     */
+    public SystemScheduler(ArchetypeStorage storage){
+        this(storage, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construct a scheduler over a storage
+     *
+     * @param storage Storage to run the systems over
+     * @param pool Pool to run the parallel stages in
+     */
+    public SystemScheduler(ArchetypeStorage storage, ForkJoinPool pool){
+        this.storage = storage;
+        this.pool = pool;
+    }
+
+    /**
+     * Add a system, placing it after all stages with systems it conflicts with
+     *
+     * @param s System to add
+     */
+    public void add(UpdateSystem s){
+        // Find the first stage after the last conflicting one
+        int stage = 0;
+        for(int i = stages.size() - 1; i >= 0; i--){
+            boolean conflict = false;
+            for(UpdateSystem other : stages.get(i)){
+                if(s.conflicts(other)){
+                    conflict = true;
+                    break;
+                }
+            }
+            if(conflict){
+                stage = i + 1;
+                break;
+            }
+        }
+
+        // Place the system
+        if(stage == stages.size()){
+            stages.add(new ArrayList<>());
+            stageQueries.add(new ArrayList<>());
+        }
+        stages.get(stage).add(s);
+        stageQueries.get(stage).add(storage.query(s.getCondition()));
+    }
+
+    /**
+     * Run all systems once
+     *
+     * @param delta Delta time in ns
+     */
+    public void update(long delta){
+        for(int i = 0; i < stages.size(); i++){
+            // Gather the tasks of the stage
+            taskCount = 0;
+            List<UpdateSystem> systems = stages.get(i);
+            List<Query> queries = stageQueries.get(i);
+            for(int j = 0; j < systems.size(); j++){
+                UpdateSystem s = systems.get(j);
+                queries.get(j).forEachChunk(c -> addTask(s, c));
+            }
+
+            // Run them
+            if(mode == Mode.SEQUENTIAL || taskCount <= 1){
+                for(int j = 0; j < taskCount; j++){
+                    taskSystems[j].update(taskChunks[j], delta);
+                }
+            }else{
+                pool.invoke(new ChunkTask(taskSystems, taskChunks, 0, taskCount, delta));
+            }
+
+            // Release the references to the chunks
+            Arrays.fill(taskSystems, 0, taskCount, null);
+            Arrays.fill(taskChunks, 0, taskCount, null);
+        }
+    }
+
+    /**
+     * Add a task to the current stage
+     *
+     * @param s System to run
+     * @param c Chunk to run it on
+     */
+    private void addTask(UpdateSystem s, Archetype.Chunk c){
+        if(taskCount == taskSystems.length){
+            taskSystems = Arrays.copyOf(taskSystems, 2 * taskCount);
+            taskChunks = Arrays.copyOf(taskChunks, 2 * taskCount);
+        }
+        taskSystems[taskCount] = s;
+        taskChunks[taskCount] = c;
+        taskCount++;
+    }
+
+    /**
+     * Return the stages of systems
+     *
+     * @return Unmodifiable list of stages
+     */
+    public List<List<UpdateSystem>> getStages(){
+        List<List<UpdateSystem>> result = new ArrayList<>();
+        stages.forEach(s -> result.add(Collections.unmodifiableList(s)));
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Return the execution mode
+     *
+     * @return Execution mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Set the execution mode
+     *
+     * @param mode New execution mode
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Execution modes of the scheduler
+     */
+    public enum Mode{
+        /** Chunks of each stage are updated concurrently */
+        PARALLEL,
+        /** Everything is updated on the calling thread in a deterministic order */
+        SEQUENTIAL
+    }
+
+    /**
+     * Fork/join task updating a range of the stage tasks
+     */
+    private static class ChunkTask extends RecursiveAction{
+        /** Serialisation version */
+        private static final long serialVersionUID = 1L;
+        /** Systems of the tasks */
+        private final UpdateSystem[] systems;
+        /** Chunks of the tasks */
+        private final Archetype.Chunk[] chunks;
+        /** First task (inclusive) */
+        private final int from;
+        /** Last task (exclusive) */
+        private final int to;
+        /** Delta time in ns */
+        private final long delta;
+
+        /**
+         * Construct the task for a range
+         *
+         * @param systems Systems of the tasks
+         * @param chunks Chunks of the tasks
+         * @param from First task (inclusive)
+         * @param to Last task (exclusive)
+         * @param delta Delta time in ns
+         */
+        ChunkTask(UpdateSystem[] systems, Archetype.Chunk[] chunks, int from, int to, long delta){
+            this.systems = systems;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.delta = delta;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1){
+                systems[from].update(chunks[from], delta);
+            }else{
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(systems, chunks, from, mid, delta),
+                        new ChunkTask(systems, chunks, mid, to, delta));
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package net.pilif0.open_desert.ecs;
+
+/**
+ * Update logic that runs over the archetype chunks of the game objects that satisfy its condition.
+ * Each system declares the components it reads and writes, which allows the scheduler to run systems without
+ *  conflicting access at the same time. A system may only touch the components of the rows of the chunk it is given,
+ *  because different chunks of the same system can be updated in parallel.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public interface UpdateSystem {
+    /**
+     * Return the condition the game objects need to satisfy to be updated by this system
+     *
+     * @return Condition to satisfy
+     */
+    Condition getCondition();
+
+    /**
+     * Return the IDs of the components this system reads
+     *
+     * @return Signature of the read components
+     */
+    Signature getReads();
+
+    /**
+     * Return the IDs of the components this system writes
+     *
+     * @return Signature of the written components
+     */
+    Signature getWrites();
+
+    /**
+     * Update the game objects in a chunk
+     *
+     * @param chunk Chunk to update (all its rows satisfy the condition)
+     * @param delta Delta time in ns
+     */
+    void update(Archetype.Chunk chunk, long delta);
+
+    /**
+     * Whether this system conflicts with another one (one writes a component the other reads or writes)
+     *
+     * @param s The other system
+     * @return Whether the systems conflict
+     */
+    default boolean conflicts(UpdateSystem s){
+        return getWrites().intersects(s.getReads()) || getWrites().intersects(s.getWrites()) ||
+                s.getWrites().intersects(getReads());
+    }
+}
@@ -55,9 +55,6 @@ public class ColorEntity extends Entity implements Renderable {
 
         //Render the shape
         getShape().render();
-
-        //Restore the shader
-        ShaderProgram.unbind();
     }
 
     /**
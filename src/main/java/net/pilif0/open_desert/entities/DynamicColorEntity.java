@@ -61,9 +61,6 @@ public class DynamicColorEntity extends Entity implements Renderable {
 
         //Render the shape
         getShape().render();
-
-        //Restore the shader
-        ShaderProgram.unbind();
     }
 
     /**
@@ -6,11 +6,6 @@ import net.pilif0.open_desert.graphics.*;
 import net.pilif0.open_desert.graphics.shapes.SpriteShape;
 import org.joml.Vector2fc;
 
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-
 /**
  * Represents the objects in the world, i.e. transformed shapes.
  * This implementation uses a texture atlas.
@@ -74,17 +69,10 @@ public class SpriteEntity extends Entity implements Renderable {
         program.setUniform("textureDelta", textureDelta);
 
         //Bind the texture
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, textureAtlas.ID);
+        GLState.bindTexture(0, textureAtlas.ID);
 
         //Render the shape
         getShape().render();
-
-        //Unbind the texture from the target
-        glBindTexture(GL_TEXTURE_2D, 0);
-
-        //Restore the shader
-        ShaderProgram.unbind();
     }
 
     /**
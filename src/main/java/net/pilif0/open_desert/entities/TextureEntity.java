@@ -5,11 +5,6 @@ import net.pilif0.open_desert.geometry.Transformation;
 import net.pilif0.open_desert.graphics.*;
 import net.pilif0.open_desert.graphics.shapes.TextureShape;
 
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-
 /**
  * Represents the objects in the world, i.e. transformed shapes.
  * This implementation uses a texture.
@@ -63,17 +58,10 @@ public class TextureEntity extends Entity implements Renderable {
         program.setUniform("textureSampler", 0);
 
         //Bind the texture
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, texture.getID());
+        GLState.bindTexture(0, texture.getID());
 
         //Render the shape
         getShape().render();
-
-        //Unbind the texture from the target
-        glBindTexture(GL_TEXTURE_2D, 0);
-
-        //Restore the shader
-        ShaderProgram.unbind();
     }
 
     /**
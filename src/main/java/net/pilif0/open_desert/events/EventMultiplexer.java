@@ -1,24 +1,160 @@
 package net.pilif0.open_desert.events;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An event multiplexer that distributes an event to a list of listeners.
- * If the event is ever consumed, the distribution stops.
+ * The listener list is copy-on-write, so listeners may be registered or removed at any time (even by a listener
+ *  during the distribution, which still goes to the listeners present when it started) from any thread.
+ * By default the events are distributed on the calling thread. In the asynchronous mode they are queued into a bounded
+ *  queue distributed by worker threads instead, so slow listeners cannot stall the caller (for example the GLFW input
+ *  callbacks). When the queue is full, the event is dropped and counted rather than blocking the caller.
  *
  * @author Filip Smola
  * @version 1.0
  */
 public class EventMultiplexer<T extends Event> implements EventListener<T> {
     /** The listeners to distribute to */
-    private List<EventListener<T>> listeners = new ArrayList<>();
+    private final List<EventListener<T>> listeners = new CopyOnWriteArrayList<>();
+    /** The executor of the asynchronous mode ({@code null} when synchronous) */
+    private volatile ThreadPoolExecutor executor;
+    /** The number of events accepted for asynchronous distribution */
+    private final AtomicLong submitted = new AtomicLong();
+    /** The number of events dropped because the asynchronous queue was full */
+    private final AtomicLong dropped = new AtomicLong();
+    /** The highest number of events waiting in the asynchronous queue */
+    private final AtomicInteger peakPending = new AtomicInteger();
 
     @Override
     public void handle(T event) {
-        //Distribute the event to every listener (sequentially)
-        listeners.forEach(l -> l.handle(event));
+        ThreadPoolExecutor e = executor;
+        if(e == null){
+            distribute(event);
+            return;
+        }
+
+        //Queue the event without blocking
+        try {
+            e.execute(() -> distribute(event));
+            submitted.incrementAndGet();
+            int pending = e.getQueue().size();
+            peakPending.accumulateAndGet(pending, Math::max);
+        } catch (RejectedExecutionException ex) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Distributes the event to every listener (sequentially, on the current thread)
+     *
+     * @param event The event to distribute
+     */
+    private void distribute(T event){
+        for(EventListener<T> l : listeners){
+            l.handle(event);
+        }
+    }
+
+    /**
+     * Switches to the asynchronous mode, distributing the events on worker threads.
+     * With more than one worker the events may be handled concurrently and out of order, so use a single worker when
+     *  the order matters (like for key presses and releases).
+     *
+     * @param workers The number of worker threads
+     * @param capacity The capacity of the event queue
+     */
+    public synchronized void setAsynchronous(int workers, int capacity){
+        setSynchronous();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), r -> {
+                    Thread t = new Thread(r, "Event multiplexer worker");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Switches to the synchronous mode, letting the workers finish the already queued events
+     */
+    public synchronized void setSynchronous(){
+        ThreadPoolExecutor e = executor;
+        if(e != null){
+            executor = null;
+            e.shutdown();
+        }
+    }
+
+    /**
+     * Waits for the queued events to be distributed (only meaningful in the asynchronous mode)
+     *
+     * @param timeout The maximal time to wait in ms
+     * @return Whether all queued events were distributed in time
+     * @throws InterruptedException When interrupted while waiting
+     */
+    public boolean awaitQueued(long timeout) throws InterruptedException {
+        ThreadPoolExecutor e = executor;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while(e != null && e.getCompletedTaskCount() < e.getTaskCount()){
+            if(System.nanoTime() > deadline){
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the events are distributed asynchronously
+     *
+     * @return Whether in the asynchronous mode
+     */
+    public boolean isAsynchronous(){
+        return executor != null;
+    }
+
+    /**
+     * Returns the number of events accepted for asynchronous distribution
+     *
+     * @return The number of accepted events
+     */
+    public long getSubmittedCount(){
+        return submitted.get();
+    }
+
+    /**
+     * Returns the number of events dropped because the asynchronous queue was full
+     *
+     * @return The number of dropped events
+     */
+    public long getDroppedCount(){
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of events currently waiting in the asynchronous queue
+     *
+     * @return The number of waiting events ({@code 0} when synchronous)
+     */
+    public int getPendingCount(){
+        ThreadPoolExecutor e = executor;
+        return e == null ? 0 : e.getQueue().size();
+    }
+
+    /**
+     * Returns the highest number of events that waited in the asynchronous queue
+     *
+     * @return The peak number of waiting events
+     */
+    public int getPeakPendingCount(){
+        return peakPending.get();
     }
 
     /**
@@ -0,0 +1,246 @@
+package net.pilif0.open_desert.geometry;
+
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+
+/**
+ * Represents a mutable affine transformation in two dimensions as the six non-trivial elements of a 3x3 matrix (in
+ *  column-major order like JOML).
+ * A point {@code (x, y)} is transformed into {@code (m00 * x + m10 * y + m20, m01 * x + m11 * y + m21)}.
+ * All operations write into this instance or an explicit destination, so they never allocate.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class Affine2f {
+    /** Number of floats in the array form */
+    public static final int FLOATS = 6;
+
+    /** Element in column 0, row 0 */
+    public float m00;
+    /** Element in column 0, row 1 */
+    public float m01;
+    /** Element in column 1, row 0 */
+    public float m10;
+    /** Element in column 1, row 1 */
+    public float m11;
+    /** Element in column 2, row 0 (translation along x) */
+    public float m20;
+    /** Element in column 2, row 1 (translation along y) */
+    public float m21;
+
+    /**
+     * Constructs the identity transformation
+     */
+    public Affine2f(){
+        identity();
+    }
+
+    /**
+     * Constructs the transformation by copying another one
+     *
+     * @param a The transformation to copy
+     */
+    public Affine2f(Affine2f a){
+        set(a);
+    }
+
+    /**
+     * Sets this to the identity transformation
+     *
+     * @return This
+     */
+    public Affine2f identity(){
+        m00 = 1;
+        m01 = 0;
+        m10 = 0;
+        m11 = 1;
+        m20 = 0;
+        m21 = 0;
+        return this;
+    }
+
+    /**
+     * Sets this to a copy of another transformation
+     *
+     * @param a The transformation to copy
+     * @return This
+     */
+    public Affine2f set(Affine2f a){
+        m00 = a.m00;
+        m01 = a.m01;
+        m10 = a.m10;
+        m11 = a.m11;
+        m20 = a.m20;
+        m21 = a.m21;
+        return this;
+    }
+
+    /**
+     * Sets this from the array form
+     *
+     * @param src Source array
+     * @param offset Index of the first element
+     * @return This
+     */
+    public Affine2f set(float[] src, int offset){
+        m00 = src[offset];
+        m01 = src[offset + 1];
+        m10 = src[offset + 2];
+        m11 = src[offset + 3];
+        m20 = src[offset + 4];
+        m21 = src[offset + 5];
+        return this;
+    }
+
+    /**
+     * Sets this to a translation, then rotation around the origin, then scaling (applied to points in reverse order)
+     *
+     * @param tx The translation along x
+     * @param ty The translation along y
+     * @param angle The rotation (in radians, counter-clockwise)
+     * @param sx The scale along x
+     * @param sy The scale along y
+     * @return This
+     */
+    public Affine2f translationRotateScale(float tx, float ty, float angle, float sx, float sy){
+        float sin = (float) Math.sin(angle);
+        float cos = (float) Math.cos(angle);
+        m00 = cos * sx;
+        m01 = sin * sx;
+        m10 = -sin * sy;
+        m11 = cos * sy;
+        m20 = tx;
+        m21 = ty;
+        return this;
+    }
+
+    /**
+     * Multiplies this by another transformation on the right (the other one is applied first) and stores the result
+     *
+     * @param right The transformation to multiply by
+     * @param dest The destination (may be this or {@code right})
+     * @return The destination
+     */
+    public Affine2f mul(Affine2f right, Affine2f dest){
+        float n00 = m00 * right.m00 + m10 * right.m01;
+        float n01 = m01 * right.m00 + m11 * right.m01;
+        float n10 = m00 * right.m10 + m10 * right.m11;
+        float n11 = m01 * right.m10 + m11 * right.m11;
+        float n20 = m00 * right.m20 + m10 * right.m21 + m20;
+        float n21 = m01 * right.m20 + m11 * right.m21 + m21;
+        dest.m00 = n00;
+        dest.m01 = n01;
+        dest.m10 = n10;
+        dest.m11 = n11;
+        dest.m20 = n20;
+        dest.m21 = n21;
+        return dest;
+    }
+
+    /**
+     * Inverts this transformation and stores the result
+     *
+     * @param dest The destination (may be this)
+     * @return The destination
+     */
+    public Affine2f invert(Affine2f dest){
+        float inv = 1 / (m00 * m11 - m01 * m10);
+        float n00 = m11 * inv;
+        float n01 = -m01 * inv;
+        float n10 = -m10 * inv;
+        float n11 = m00 * inv;
+        float n20 = -(n00 * m20 + n10 * m21);
+        float n21 = -(n01 * m20 + n11 * m21);
+        dest.m00 = n00;
+        dest.m01 = n01;
+        dest.m10 = n10;
+        dest.m11 = n11;
+        dest.m20 = n20;
+        dest.m21 = n21;
+        return dest;
+    }
+
+    /**
+     * Transforms a point (including the translation)
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param dest The destination
+     * @return The destination
+     */
+    public Vector2f transformPosition(float x, float y, Vector2f dest){
+        return dest.set(m00 * x + m10 * y + m20, m01 * x + m11 * y + m21);
+    }
+
+    /**
+     * Transforms a direction (without the translation)
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param dest The destination
+     * @return The destination
+     */
+    public Vector2f transformDirection(float x, float y, Vector2f dest){
+        return dest.set(m00 * x + m10 * y, m01 * x + m11 * y);
+    }
+
+    /**
+     * Stores this as a 4x4 matrix acting on the xy plane
+     *
+     * @param dest The destination
+     * @return The destination
+     */
+    public Matrix4f get(Matrix4f dest){
+        return dest.set(
+                m00, m01, 0, 0,
+                m10, m11, 0, 0,
+                0, 0, 1, 0,
+                m20, m21, 0, 1);
+    }
+
+    /**
+     * Stores this in the array form
+     *
+     * @param dest The destination array
+     * @param offset Index of the first element
+     * @return The destination array
+     */
+    public float[] get(float[] dest, int offset){
+        dest[offset] = m00;
+        dest[offset + 1] = m01;
+        dest[offset + 2] = m10;
+        dest[offset + 3] = m11;
+        dest[offset + 4] = m20;
+        dest[offset + 5] = m21;
+        return dest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Affine2f)) return false;
+
+        Affine2f that = (Affine2f) o;
+
+        return Float.compare(m00, that.m00) == 0 && Float.compare(m01, that.m01) == 0 &&
+                Float.compare(m10, that.m10) == 0 && Float.compare(m11, that.m11) == 0 &&
+                Float.compare(m20, that.m20) == 0 && Float.compare(m21, that.m21) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(m00);
+        result = 31 * result + Float.floatToIntBits(m01);
+        result = 31 * result + Float.floatToIntBits(m10);
+        result = 31 * result + Float.floatToIntBits(m11);
+        result = 31 * result + Float.floatToIntBits(m20);
+        result = 31 * result + Float.floatToIntBits(m21);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%f %f %f; %f %f %f]", m00, m10, m20, m01, m11, m21);
+    }
+}
@@ -65,6 +65,20 @@ public class Transformation {
         regenerateMatrix();
     }
 
+    /**
+     * Sets this transformation to a copy of another one
+     *
+     * @param t The transformation to copy
+     * @return This transformation
+     */
+    public Transformation set(Transformation t){
+        translation.set(t.translation);
+        scale.set(t.scale);
+        rotation = t.rotation;
+        transformed = true;
+        return this;
+    }
+
     /**
      * Translates the subject of this transformation by the vector
      *
@@ -134,7 +148,7 @@ public class Transformation {
      * @return The translation
      */
     public Vector2fc getTranslation(){
-        return this.translation.toImmutable();
+        return this.translation;
     }
 
     /**
@@ -155,7 +169,7 @@ public class Transformation {
      * @return The scale
      */
     public Vector2fc getScale(){
-        return this.scale.toImmutable();
+        return this.scale;
     }
 
     /**
@@ -0,0 +1,145 @@
+package net.pilif0.open_desert.geometry;
+
+/**
+ * Operations on ranges of two dimensional vectors stored as separate arrays of coordinates (structure of arrays, like
+ *  the archetype storage columns).
+ * Every operation works on the rows {@code from} (inclusive) to {@code to} (exclusive) in place or into destination
+ *  arrays, so it never allocates and the loops stay simple enough for the JIT to vectorise.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public final class VectorBatch {
+    /**
+     * Not to be instantiated
+     */
+    private VectorBatch(){}
+
+    /**
+     * Adds a vector to each row
+     *
+     * @param xs The x coordinates
+     * @param ys The y coordinates
+     * @param dx The x coordinate to add
+     * @param dy The y coordinate to add
+     * @param from The first row (inclusive)
+     * @param to The last row (exclusive)
+     */
+    public static void add(float[] xs, float[] ys, float dx, float dy, int from, int to){
+        for(int i = from; i < to; i++){
+            xs[i] += dx;
+            ys[i] += dy;
+        }
+    }
+
+    /**
+     * Adds a scaled vector of each row to the row (for example velocity times the delta time to the position)
+     *
+     * @param xs The x coordinates
+     * @param ys The y coordinates
+     * @param vxs The x coordinates of the vectors to add
+     * @param vys The y coordinates of the vectors to add
+     * @param factor The factor to scale the added vectors by
+     * @param from The first row (inclusive)
+     * @param to The last row (exclusive)
+     */
+    public static void addScaled(float[] xs, float[] ys, float[] vxs, float[] vys, float factor, int from, int to){
+        for(int i = from; i < to; i++){
+            xs[i] += vxs[i] * factor;
+            ys[i] += vys[i] * factor;
+        }
+    }
+
+    /**
+     * Scales each row
+     *
+     * @param xs The x coordinates
+     * @param ys The y coordinates
+     * @param factor The factor to scale by
+     * @param from The first row (inclusive)
+     * @param to The last row (exclusive)
+     */
+    public static void scale(float[] xs, float[] ys, float factor, int from, int to){
+        for(int i = from; i < to; i++){
+            xs[i] *= factor;
+            ys[i] *= factor;
+        }
+    }
+
+    /**
+     * Normalises each row (zero vectors stay zero)
+     *
+     * @param xs The x coordinates
+     * @param ys The y coordinates
+     * @param from The first row (inclusive)
+     * @param to The last row (exclusive)
+     */
+    public static void normalize(float[] xs, float[] ys, int from, int to){
+        for(int i = from; i < to; i++){
+            float lengthSq = xs[i] * xs[i] + ys[i] * ys[i];
+            float inv = lengthSq == 0 ? 0 : (float) (1 / Math.sqrt(lengthSq));
+            xs[i] *= inv;
+            ys[i] *= inv;
+        }
+    }
+
+    /**
+     * Transforms each row as a point by an affine transformation
+     *
+     * @param m The transformation
+     * @param xs The x coordinates
+     * @param ys The y coordinates
+     * @param destX The destination x coordinates (may be {@code xs})
+     * @param destY The destination y coordinates (may be {@code ys})
+     * @param from The first row (inclusive)
+     * @param to The last row (exclusive)
+     */
+    public static void transform(Affine2f m, float[] xs, float[] ys, float[] destX, float[] destY, int from, int to){
+        float m00 = m.m00;
+        float m01 = m.m01;
+        float m10 = m.m10;
+        float m11 = m.m11;
+        float m20 = m.m20;
+        float m21 = m.m21;
+        for(int i = from; i < to; i++){
+            float x = xs[i];
+            float y = ys[i];
+            destX[i] = m00 * x + m10 * y + m20;
+            destY[i] = m01 * x + m11 * y + m21;
+        }
+    }
+
+    /**
+     * Composes the affine transformation (translation, then rotation, then scaling) of each row into the array form,
+     *  {@link Affine2f#FLOATS} floats per row starting at {@code dest[row * FLOATS]}
+     *
+     * @param xs The translations along x
+     * @param ys The translations along y
+     * @param angles The rotations in radians ({@code null} for none)
+     * @param sxs The scales along x ({@code null} for none)
+     * @param sys The scales along y ({@code null} for none)
+     * @param dest The destination array
+     * @param from The first row (inclusive)
+     * @param to The last row (exclusive)
+     */
+    public static void translationRotateScale(float[] xs, float[] ys, float[] angles, float[] sxs, float[] sys,
+                                              float[] dest, int from, int to){
+        for(int i = from; i < to; i++){
+            float sin = 0;
+            float cos = 1;
+            if(angles != null){
+                sin = (float) Math.sin(angles[i]);
+                cos = (float) Math.cos(angles[i]);
+            }
+            float sx = sxs == null ? 1 : sxs[i];
+            float sy = sys == null ? 1 : sys[i];
+            int o = i * Affine2f.FLOATS;
+            dest[o] = cos * sx;
+            dest[o + 1] = sin * sx;
+            dest[o + 2] = -sin * sy;
+            dest[o + 3] = cos * sy;
+            dest[o + 4] = xs[i];
+            dest[o + 5] = ys[i];
+        }
+    }
+}
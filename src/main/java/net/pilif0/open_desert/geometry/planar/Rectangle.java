@@ -71,10 +71,10 @@ public class Rectangle {
      */
     public Vector2fc getCorner(Corner c){
         switch(c){
-            case BOT_LEFT: return origin.toImmutable();
-            case BOT_RIGHT: return origin.add(dimensions.x, 0, new Vector2f()).toImmutable();
-            case TOP_LEFT: return origin.add(0, dimensions.y, new Vector2f()).toImmutable();
-            case TOP_RIGHT: return origin.add(dimensions, new Vector2f()).toImmutable();
+            case BOT_LEFT: return origin;
+            case BOT_RIGHT: return origin.add(dimensions.x, 0, new Vector2f());
+            case TOP_LEFT: return origin.add(0, dimensions.y, new Vector2f());
+            case TOP_RIGHT: return origin.add(dimensions, new Vector2f());
             default: return null;
         }
     }
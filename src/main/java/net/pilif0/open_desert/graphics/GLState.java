@@ -0,0 +1,225 @@
+package net.pilif0.open_desert.graphics;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL11.glDeleteTextures;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL20.glDeleteProgram;
+import static org.lwjgl.opengl.GL20.glUseProgram;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
+
+/**
+ * Cache of the OpenGL binding state (program, vertex array, active texture unit and 2D texture per unit).
+ * State changes requested through this class are only issued when they differ from the cached state, so renderers can
+ *  bind what they need without unbinding afterwards.
+ * All binds and deletes of these objects must go through this class (or be followed by {@link #invalidate()}) for the
+ *  cache to stay valid. Must only be used from the OpenGL thread.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class GLState {
+    /** Number of texture units tracked */
+    public static final int TEXTURE_UNITS = 32;
+    /** Value of unknown state */
+    private static final int UNKNOWN = -1;
+
+    /** Current program */
+    private static int program = UNKNOWN;
+    /** Current vertex array object */
+    private static int vertexArray = UNKNOWN;
+    /** Current active texture unit (index from 0) */
+    private static int activeUnit = UNKNOWN;
+    /** Current 2D texture of each unit */
+    private static final int[] textures = new int[TEXTURE_UNITS];
+    /** The thread owning the OpenGL context ({@code null} when not known yet) */
+    private static volatile Thread thread;
+
+    // Counters
+    /** State changes issued this frame */
+    private static int issued = 0;
+    /** State changes elided this frame */
+    private static int elided = 0;
+    /** State changes issued last frame */
+    private static int lastIssued = 0;
+    /** State changes elided last frame */
+    private static int lastElided = 0;
+
+    static {
+        Arrays.fill(textures, UNKNOWN);
+    }
+
+    /**
+     * Use a program
+     *
+     * @param id ID of the program ({@code 0} for none)
+     */
+    public static void useProgram(int id){
+        if(program == id){
+            elided++;
+        }else{
+            glUseProgram(id);
+            program = id;
+            issued++;
+        }
+    }
+
+    /**
+     * Bind a vertex array object
+     *
+     * @param id ID of the VAO ({@code 0} for none)
+     */
+    public static void bindVertexArray(int id){
+        if(vertexArray == id){
+            elided++;
+        }else{
+            glBindVertexArray(id);
+            vertexArray = id;
+            issued++;
+        }
+    }
+
+    /**
+     * Make a texture unit active
+     *
+     * @param unit Index of the texture unit (from 0)
+     */
+    public static void activeTexture(int unit){
+        if(activeUnit == unit){
+            elided++;
+        }else{
+            glActiveTexture(GL_TEXTURE0 + unit);
+            activeUnit = unit;
+            issued++;
+        }
+    }
+
+    /**
+     * Bind a 2D texture to a texture unit (making the unit active when the texture changes)
+     *
+     * @param unit Index of the texture unit (from 0)
+     * @param id ID of the texture ({@code 0} for none)
+     */
+    public static void bindTexture(int unit, int id){
+        if(textures[unit] == id){
+            elided++;
+        }else{
+            activeTexture(unit);
+            glBindTexture(GL_TEXTURE_2D, id);
+            textures[unit] = id;
+            issued++;
+        }
+    }
+
+    /**
+     * Bind a 2D texture to the active texture unit (unit 0 when the active unit is not known)
+     *
+     * @param id ID of the texture ({@code 0} for none)
+     */
+    public static void bindTexture(int id){
+        bindTexture(activeUnit == UNKNOWN ? 0 : activeUnit, id);
+    }
+
+    /**
+     * Delete a program, forgetting it when in use
+     *
+     * @param id ID of the program
+     */
+    public static void deleteProgram(int id){
+        if(program == id){
+            useProgram(0);
+        }
+        glDeleteProgram(id);
+    }
+
+    /**
+     * Delete a vertex array object, forgetting it when bound
+     *
+     * @param id ID of the VAO
+     */
+    public static void deleteVertexArray(int id){
+        glDeleteVertexArrays(id);
+        if(vertexArray == id){
+            // Deleting a bound VAO reverts the binding to 0
+            vertexArray = 0;
+        }
+    }
+
+    /**
+     * Delete a texture, forgetting it in the units it is bound to
+     *
+     * @param id ID of the texture
+     */
+    public static void deleteTexture(int id){
+        glDeleteTextures(id);
+        for(int i = 0; i < TEXTURE_UNITS; i++){
+            if(textures[i] == id){
+                // Deleting a bound texture reverts the binding to 0
+                textures[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Forget all cached state (for example after state was changed outside of this class)
+     */
+    public static void invalidate(){
+        program = UNKNOWN;
+        vertexArray = UNKNOWN;
+        activeUnit = UNKNOWN;
+        Arrays.fill(textures, UNKNOWN);
+    }
+
+    /**
+     * Remember the current thread as the one owning the OpenGL context
+     */
+    public static void claimThread(){
+        thread = Thread.currentThread();
+    }
+
+    /**
+     * Fail when not called from the thread owning the OpenGL context (passes while the thread is not known yet)
+     *
+     * @param operation Name of the operation, for the message
+     * @throws IllegalStateException When called from another thread
+     */
+    public static void checkThread(String operation){
+        Thread t = thread;
+        if(t != null && t != Thread.currentThread()){
+            throw new IllegalStateException(operation + " must be called from the OpenGL thread, not from " +
+                    Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Finish the frame, remembering and resetting the counters
+     */
+    public static void endFrame(){
+        lastIssued = issued;
+        lastElided = elided;
+        issued = 0;
+        elided = 0;
+    }
+
+    /**
+     * Return the number of state changes issued in the last finished frame
+     *
+     * @return Number of issued state changes
+     */
+    public static int getIssued() {
+        return lastIssued;
+    }
+
+    /**
+     * Return the number of state changes elided in the last finished frame
+     *
+     * @return Number of elided state changes
+     */
+    public static int getElided() {
+        return lastElided;
+    }
+}
@@ -1,9 +1,13 @@
 package net.pilif0.open_desert.graphics;
 
 import de.matthiasmann.twl.utils.PNGDecoder;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -20,6 +24,8 @@ import static org.lwjgl.opengl.GL30.glGenerateMipmap;
 public class PNGTexture implements Texture{
     /** The default filtering method */
     public static final int DEFAULT_FILTERING_METHOD = GL_NEAREST_MIPMAP_NEAREST;
+    /** Colour of the placeholder shown while loading asynchronously (RGBA) */
+    public static final int PLACEHOLDER_COLOR = 0x80_80_80_ff;
 
     /** The texture ID */
     public final int ID;
@@ -29,6 +35,12 @@ public class PNGTexture implements Texture{
     public final int height;
     /** Path to texture */
     public final Path path;
+    /** The filtering method (GL constant) */
+    private final int filterMethod;
+    /** Whether the image has been uploaded */
+    private volatile boolean loaded = false;
+    /** Whether the texture has been cleaned up */
+    private volatile boolean deleted = false;
 
     /**
      * Constructs the texture from the PNG file, applying the default filtering method
@@ -48,27 +60,109 @@ public class PNGTexture implements Texture{
      * @throws IOException on a problem with reading the file
      */
     public PNGTexture(Path path, int filterMethod) throws IOException{
-        //Read the file into a buffer
-        PNGDecoder decoder = new PNGDecoder(Files.newInputStream(path.toAbsolutePath(), StandardOpenOption.READ));
-        ByteBuffer buffer = ByteBuffer.allocateDirect(4 * decoder.getWidth() * decoder.getHeight());
-        decoder.decode(buffer, decoder.getWidth() * 4, PNGDecoder.Format.RGBA);
-        buffer.flip();
+        this(path, filterMethod, false);
+    }
+
+    /**
+     * Constructs the texture from the PNG file.
+     * When asynchronous, only the header is read here - the texture holds a 1x1 placeholder until the image is decoded
+     *  by the {@link TextureLoader} and uploaded on the OpenGL thread.
+     *
+     * @param path The path to the PNG file
+     * @param filterMethod The filtering method (GL constant)
+     * @param async Whether to decode and upload the image asynchronously
+     * @throws IOException on a problem with reading the file (header only when asynchronous)
+     */
+    public PNGTexture(Path path, int filterMethod, boolean async) throws IOException{
+        //Read the header
+        InputStream in = Files.newInputStream(path.toAbsolutePath(), StandardOpenOption.READ);
+        PNGDecoder decoder;
+        try {
+            decoder = new PNGDecoder(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
 
         //Set the data members
         width = decoder.getWidth();
         height = decoder.getHeight();
         this.path = path;
+        this.filterMethod = filterMethod;
+        ID = glGenTextures();
+
+        if(async){
+            //Show the placeholder until the image arrives
+            uploadPlaceholder();
+            TextureLoader.submit(this, decoder, in);
+        }else{
+            //Decode and upload right away
+            ByteBuffer buffer;
+            try {
+                buffer = decode(decoder);
+            } finally {
+                in.close();
+            }
+            upload(buffer);
+            MemoryUtil.memFree(buffer);
+        }
+    }
+
+    /**
+     * Decodes the image into a new direct buffer (freed by the caller through {@link MemoryUtil#memFree})
+     *
+     * @param decoder Decoder after reading the header
+     * @return Buffer with the RGBA pixels
+     * @throws IOException on a problem with reading the file
+     */
+    static ByteBuffer decode(PNGDecoder decoder) throws IOException{
+        ByteBuffer buffer = MemoryUtil.memAlloc(4 * decoder.getWidth() * decoder.getHeight());
+        try {
+            decoder.decode(buffer, decoder.getWidth() * 4, PNGDecoder.Format.RGBA);
+        } catch (IOException e) {
+            MemoryUtil.memFree(buffer);
+            throw e;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Uploads a 1x1 placeholder (without mipmaps, so the filtering is nearest until the image is uploaded)
+     */
+    private void uploadPlaceholder(){
+        try(MemoryStack stack = MemoryStack.stackPush()){
+            ByteBuffer pixel = stack.malloc(4).order(ByteOrder.BIG_ENDIAN);
+            pixel.putInt(0, PLACEHOLDER_COLOR);
+
+            GLState.bindTexture(ID);
+            glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, 1, 1, 0, GL_RGBA, GL_UNSIGNED_BYTE, pixel);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        }
+    }
+
+    /**
+     * Uploads the decoded image to the GPU (on the OpenGL thread).
+     * Does nothing when the texture has been cleaned up in the meantime.
+     *
+     * @param buffer Buffer with the RGBA pixels
+     */
+    void upload(ByteBuffer buffer){
+        if(deleted){
+            return;
+        }
 
         //Upload the texture to the GPU
-        ID = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, ID);
+        GLState.bindTexture(ID);
         glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
         glTexImage2D(
                 GL_TEXTURE_2D,
                 0,
                 GL_RGBA,
-                decoder.getWidth(),
-                decoder.getHeight(),
+                width,
+                height,
                 0,
                 GL_RGBA,
                 GL_UNSIGNED_BYTE,
@@ -79,7 +173,26 @@ public class PNGTexture implements Texture{
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filterMethod);
 
         //Unbind the texture
-        glBindTexture(GL_TEXTURE_2D, 0);
+        GLState.bindTexture(0);
+        loaded = true;
+    }
+
+    /**
+     * Returns whether the image has been uploaded (otherwise the placeholder is shown)
+     *
+     * @return Whether the image is uploaded
+     */
+    public boolean isLoaded(){
+        return loaded;
+    }
+
+    /**
+     * Returns the estimated GPU memory taken by the texture (RGBA8 with a full mipmap chain)
+     *
+     * @return Estimated size (in bytes)
+     */
+    public long getMemorySize(){
+        return (long) width * height * 4 * 4 / 3;
     }
 
     @Override
@@ -91,6 +204,7 @@ public class PNGTexture implements Texture{
      * Cleans up the texture from the GPU
      */
     public void cleanUp(){
-        glDeleteTextures(ID);
+        deleted = true;
+        GLState.deleteTexture(ID);
     }
 }
@@ -22,6 +22,12 @@ public class PerpendicularCamera implements Camera {
     private Matrix4f matrix;
     /** Flag that indicates whether the camera was transformed and the matrix should be regenerated */
     private boolean transformed;
+    /** Scratch inverse of the projection matrix */
+    private final Matrix4f inverse = new Matrix4f();
+    /** Scratch corner with minimal coordinates of the visible volume */
+    private final Vector3f visibleMin = new Vector3f();
+    /** Scratch corner with maximal coordinates of the visible volume */
+    private final Vector3f visibleMax = new Vector3f();
 
     /**
      * Construct the camera from its position and dimensions
@@ -52,7 +58,7 @@ public class PerpendicularCamera implements Camera {
      * @return The position
      */
     public Vector2fc getPosition() {
-        return position.toImmutable();
+        return position;
     }
 
     /**
@@ -71,7 +77,7 @@ public class PerpendicularCamera implements Camera {
      * @return The dimensions
      */
     public Vector2ic getDimensions() {
-        return dimensions.toImmutable();
+        return dimensions;
     }
 
     /**
@@ -86,7 +92,20 @@ public class PerpendicularCamera implements Camera {
 
     @Override
     public Matrix4fc getMatrix() {
-        return matrix.toImmutable();
+        return matrix;
+    }
+
+    /**
+     * Calculates the visible world rectangle by transforming the clip space cube back through the inverse matrix.
+     * Reflects the state at the last {@link #update()}.
+     *
+     * @param min Destination for the corner with minimal coordinates
+     * @param max Destination for the corner with maximal coordinates
+     */
+    public void getVisibleArea(Vector2f min, Vector2f max){
+        matrix.invertOrtho(inverse).frustumAabb(visibleMin, visibleMax);
+        min.set(visibleMin.x, visibleMin.y);
+        max.set(visibleMax.x, visibleMax.y);
     }
 
     @Override
@@ -99,7 +118,7 @@ public class PerpendicularCamera implements Camera {
     @Override
     public Vector2fc toWorldSpace(Vector2fc s) {
         // Just add the camera position
-        return s.add(getPosition(), new Vector2f()).toImmutable();
+        return s.add(position, new Vector2f());
     }
 
     /**
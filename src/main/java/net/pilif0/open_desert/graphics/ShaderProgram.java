@@ -5,15 +5,13 @@ import net.pilif0.open_desert.util.Severity;
 import org.joml.Matrix4fc;
 import org.joml.Vector2fc;
 import org.joml.Vector4fc;
-import org.lwjgl.system.MemoryStack;
 
 import java.io.IOException;
-import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import static org.lwjgl.opengl.GL20.*;
 
@@ -43,6 +41,8 @@ public class ShaderProgram {
     private int fragmentID = 0;
     /** The uniforms of the shader program */
     private Map<String, Integer> uniforms;
+    /** The typed handles of the uniforms (one per uniform) */
+    private Map<String, Uniform> handles;
 
     static{
         //Prepare temporary buffer variable
@@ -150,8 +150,9 @@ public class ShaderProgram {
             throw new GraphicsException("Could not create shader program");
         }
 
-        //Initialise the uniforms map
+        //Initialise the uniforms maps
         uniforms = new HashMap<>();
+        handles = new HashMap<>();
     }
 
     /**
@@ -222,12 +223,12 @@ public class ShaderProgram {
     /**
      * Binds the shader program
      */
-    public void bind(){ glUseProgram(programID); }
+    public void bind(){ GLState.useProgram(programID); }
 
     /**
      * Unbinds the shader program
      */
-    public static void unbind(){ glUseProgram(0); }
+    public static void unbind(){ GLState.useProgram(0); }
 
     /**
      * Cleans up after the program (unbinds, detaches and deletes)
@@ -248,7 +249,7 @@ public class ShaderProgram {
             }
 
             //Delete the program
-            glDeleteProgram(programID);
+            GLState.deleteProgram(programID);
         }
     }
 
@@ -271,59 +272,114 @@ public class ShaderProgram {
     }
 
     /**
-     * Sets the uniform value
+     * Returns the handle of a uniform, creating the uniform entry and the handle when necessary
+     *
+     * @param name The name of the uniform
+     * @param type The type of the handle
+     * @param factory Constructor of the handle from the name and location
+     * @param <T> The type of the handle
+     * @return The handle
+     * @throws GraphicsException When the uniform does not exist or already has a handle of a different type
+     */
+    private <T extends Uniform> T getUniform(String name, Class<T> type, BiFunction<String, Integer, T> factory){
+        Uniform result = handles.get(name);
+
+        if(result == null){
+            //Create the handle
+            if(!uniforms.containsKey(name)){
+                createUniform(name);
+            }
+            result = factory.apply(name, uniforms.get(name));
+            handles.put(name, result);
+        }else if(!type.isInstance(result)){
+            throw new GraphicsException("Uniform " + name + " is not a " + type.getSimpleName());
+        }
+
+        return type.cast(result);
+    }
+
+    /**
+     * Returns the handle of a {@code mat4} uniform
+     *
+     * @param name The name of the uniform
+     * @return The handle
+     */
+    public UniformMat4 getUniformMat4(String name){
+        return getUniform(name, UniformMat4.class, UniformMat4::new);
+    }
+
+    /**
+     * Returns the handle of a {@code vec2} uniform
+     *
+     * @param name The name of the uniform
+     * @return The handle
+     */
+    public UniformVec2 getUniformVec2(String name){
+        return getUniform(name, UniformVec2.class, UniformVec2::new);
+    }
+
+    /**
+     * Returns the handle of a {@code vec4} uniform
+     *
+     * @param name The name of the uniform
+     * @return The handle
+     */
+    public UniformVec4 getUniformVec4(String name){
+        return getUniform(name, UniformVec4.class, UniformVec4::new);
+    }
+
+    /**
+     * Returns the handle of an {@code int} (or sampler) uniform
+     *
+     * @param name The name of the uniform
+     * @return The handle
+     */
+    public UniformInt getUniformInt(String name){
+        return getUniform(name, UniformInt.class, UniformInt::new);
+    }
+
+    /**
+     * Sets the uniform value.
+     * Prefer keeping the handle from {@link #getUniformMat4(String)} to avoid the name lookup.
      *
      * @param name The uniform name
      * @param value The uniform value
      */
     public void setUniform(String name, Matrix4fc value){
-        try(MemoryStack stack = MemoryStack.stackPush()){
-            FloatBuffer buffer = stack.mallocFloat(16);
-            value.get(buffer);
-            glUniformMatrix4fv(uniforms.get(name), false, buffer);
-        }
+        getUniformMat4(name).set(value);
     }
 
     /**
-     * Sets the uniform value
+     * Sets the uniform value.
+     * Prefer keeping the handle from {@link #getUniformVec4(String)} to avoid the name lookup.
      *
      * @param name The uniform name
      * @param value The uniform value
      */
     public void setUniform(String name, Vector4fc value){
-        try(MemoryStack stack = MemoryStack.stackPush()){
-            FloatBuffer buffer = stack.mallocFloat(4);
-            value.get(buffer);
-            glUniform4fv(uniforms.get(name), buffer);
-        }
+        getUniformVec4(name).set(value);
     }
 
     /**
-     * Sets the uniform value
+     * Sets the uniform value.
+     * Prefer keeping the handle from {@link #getUniformInt(String)} to avoid the name lookup.
      *
      * @param name The uniform name
      * @param value The uniform value
      */
     public void setUniform(String name, int value){
-        try(MemoryStack stack = MemoryStack.stackPush()){
-            IntBuffer buffer = stack.mallocInt(1);
-            buffer.put(value).flip();
-            glUniform1iv(uniforms.get(name), buffer);
-        }
+        getUniformInt(name).set(value);
     }
 
     /**
-     * Sets the uniform value
+     * Sets the uniform value.
+     * Prefer keeping the handle from {@link #getUniformVec2(String)} to avoid the name lookup.
      *
      * @param name The uniform name
      * @param value The uniform value
      */
     public void setUniform(String name, Vector2fc value) {
-        try(MemoryStack stack = MemoryStack.stackPush()){
-            FloatBuffer buffer = stack.mallocFloat(2);
-            value.get(buffer);
-            glUniform2fv(uniforms.get(name), buffer);
-        }
+        getUniformVec2(name).set(value);
     }
 
     /**
@@ -1,5 +1,6 @@
 package net.pilif0.open_desert.graphics;
 
+import net.pilif0.open_desert.util.AssetCache;
 import org.joml.Vector2f;
 import org.joml.Vector2fc;
 import org.joml.Vector2i;
@@ -7,8 +8,6 @@ import org.joml.Vector2ic;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Represents a texture that is segmented into smaller rectangles (of equal size).
@@ -78,7 +77,21 @@ public class TextureAtlas extends PNGTexture {
      * @throws IOException on a problem with reading the file
      */
     public TextureAtlas(Path path, int segmentWidth, int segmentHeight, int filteringMethod) throws IOException{
-        super(path, filteringMethod);
+        this(path, segmentWidth, segmentHeight, filteringMethod, false);
+    }
+
+    /**
+     * Constructs the texture atlas from the PNG file, optionally loading the image asynchronously
+     *
+     * @param path The path to the PNG file
+     * @param segmentWidth The width of the segment (in pixels of the picture)
+     * @param segmentHeight The height of the segment (in pixels of the picture)
+     * @param filteringMethod The filtering method (GL constant)
+     * @param async Whether to decode and upload the image asynchronously
+     * @throws IOException on a problem with reading the file (header only when asynchronous)
+     */
+    public TextureAtlas(Path path, int segmentWidth, int segmentHeight, int filteringMethod, boolean async) throws IOException{
+        super(path, filteringMethod, async);
         segmentSize = new Vector2f(((float) segmentWidth) / ((float) width), ((float) segmentHeight) / ((float) height));
         cols = width / segmentWidth;
         rows = height / segmentHeight;
@@ -104,43 +117,159 @@ public class TextureAtlas extends PNGTexture {
      * @return The coordinate shift required
      */
     public Vector2fc getDeltaCoordinates(int i){
+        return getDeltaCoordinates(i, new Vector2f());
+    }
+
+    /**
+     * Calculates the coordinate shift required to move from the 0th segment to the ith segment without allocating
+     *
+     * @param i The number of the target segment
+     * @param dest The destination
+     * @return The destination
+     */
+    public Vector2f getDeltaCoordinates(int i, Vector2f dest){
         int col = i % cols;
         int row = i / cols;
-        Vector2f result = (new Vector2f()).set(segmentSize).mul(col, row);
-        return result;
+        return dest.set(segmentSize).mul(col, row);
     }
 
     // Optimisation to avoid multiple equal texture atlas objects
+    /** Default GPU memory budget of the atlas cache (in bytes) */
+    public static final long DEFAULT_CACHE_BUDGET = 256L * 1024 * 1024;
     /** Atlas for each file requested through {@code from(Path)} */
-    private static Map<Path, TextureAtlas> atlases = new HashMap<>();
+    private static final AssetCache<Path, TextureAtlas> atlases =
+            new AssetCache<>(DEFAULT_CACHE_BUDGET, PNGTexture::getMemorySize, PNGTexture::cleanUp);
     /** Default segment size */
     // TODO: replace this with a way to set segment size dynamically (in the component, file name, ...)
     public static final Vector2ic DEFAULT_SEGMENT_SIZE = (new Vector2i(64, 64)).toImmutable();
 
+    /** Whether this atlas was created through {@code from(Path)} */
+    private boolean cached = false;
+
     /**
      * Return the texture atlas from the PNG file, applying the default filtering method and using the default segment
      *  size.
-     * Constructs only one instance per file.
+     * Constructs only one instance per file. The image is loaded asynchronously, showing a placeholder until uploaded.
+     * The returned atlas is not referenced, use {@link #acquire(TextureAtlas)} to keep it from being evicted.
+     * Must be called from the OpenGL thread, as a miss creates the texture.
      *
      * @param path The path to the PNG file
      * @throws IOException on a problem with reading the file
+     * @throws IllegalStateException when called from another thread than the OpenGL one
      */
     public static TextureAtlas from(Path path) throws IOException{
-        TextureAtlas result = atlases.get(path);
+        GLState.checkThread("Loading a texture atlas");
+        return atlases.get(path, p -> {
+            TextureAtlas result = new TextureAtlas(p, DEFAULT_SEGMENT_SIZE.x(), DEFAULT_SEGMENT_SIZE.y(),
+                    PNGTexture.DEFAULT_FILTERING_METHOD, true);
+            result.cached = true;
+            return result;
+        });
+    }
 
-        if(result == null){
-            result = new TextureAtlas(path, DEFAULT_SEGMENT_SIZE.x(), DEFAULT_SEGMENT_SIZE.y());
-            atlases.put(path, result);
+    /**
+     * Add a reference to a texture atlas, protecting it from eviction.
+     * When the atlas was already evicted, it is loaded again and the new instance is referenced and returned.
+     * Atlases not created through {@code from(Path)} are returned unchanged.
+     * Must be called from the OpenGL thread, as an evicted atlas is created again.
+     *
+     * @param atlas The atlas to reference
+     * @return The referenced atlas (the one to use from now on)
+     * @throws IOException on a problem with reading the file when loading the atlas again
+     * @throws IllegalStateException when called from another thread than the OpenGL one
+     */
+    public static TextureAtlas acquire(TextureAtlas atlas) throws IOException{
+        if(!atlas.cached){
+            return atlas;
         }
+        GLState.checkThread("Acquiring a texture atlas");
 
+        TextureAtlas result = atlas;
+        while(!atlases.retain(result.path, result)){
+            result = from(result.path);
+        }
         return result;
     }
 
+    /**
+     * Remove a reference from a texture atlas, allowing it to be evicted once unreferenced
+     *
+     * @param atlas The atlas to release
+     */
+    public static void release(TextureAtlas atlas){
+        if(atlas.cached){
+            atlases.release(atlas.path, atlas);
+        }
+    }
+
+    /**
+     * Evict least recently used unreferenced atlases until the cache fits its budget.
+     * Must be called from the OpenGL thread.
+     *
+     * @return Number of evicted atlases
+     */
+    public static int trim(){
+        return atlases.trim();
+    }
+
+    /**
+     * Return the GPU memory budget of the atlas cache
+     *
+     * @return Memory budget (in bytes)
+     */
+    public static long getCacheBudget(){
+        return atlases.getBudget();
+    }
+
+    /**
+     * Set the GPU memory budget of the atlas cache (takes effect on the next trim)
+     *
+     * @param budget New memory budget (in bytes)
+     */
+    public static void setCacheBudget(long budget){
+        atlases.setBudget(budget);
+    }
+
+    /**
+     * Return the estimated GPU memory taken by the cached atlases
+     *
+     * @return Memory usage (in bytes)
+     */
+    public static long getCacheSize(){
+        return atlases.getSize();
+    }
+
+    /**
+     * Return the number of requests served from the atlas cache
+     *
+     * @return Number of hits
+     */
+    public static long getCacheHits(){
+        return atlases.getHits();
+    }
+
+    /**
+     * Return the number of requests that loaded an atlas
+     *
+     * @return Number of misses
+     */
+    public static long getCacheMisses(){
+        return atlases.getMisses();
+    }
+
+    /**
+     * Return the number of atlases evicted from the cache
+     *
+     * @return Number of evictions
+     */
+    public static long getCacheEvictions(){
+        return atlases.getEvictions();
+    }
+
     /**
      * Clean up all the atlases remembered
      */
     public static void cleanAll(){
-        atlases.values().forEach(x -> x.cleanUp());
         atlases.clear();
     }
 }
@@ -0,0 +1,226 @@
+package net.pilif0.open_desert.graphics;
+
+import de.matthiasmann.twl.utils.PNGDecoder;
+import net.pilif0.open_desert.Launcher;
+import net.pilif0.open_desert.util.Severity;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous texture loading pipeline.
+ * Images are decoded into direct buffers on a pool of worker threads, and the finished buffers are queued for upload.
+ * The uploads are drained on the OpenGL thread by {@link #processUploads(long)} within a time budget per frame.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class TextureLoader {
+    /** Default upload time budget per frame (in ns) */
+    public static final long DEFAULT_UPLOAD_BUDGET = 2_000_000;
+
+    /** Worker pool decoding the images */
+    private static final ExecutorService workers = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            r -> {
+                Thread t = new Thread(r, "Texture Loader");
+                t.setDaemon(true);
+                return t;
+            });
+    /** Maximal time to wait for the running decodes when cleaning up (in ms) */
+    private static final long SHUTDOWN_TIMEOUT = 5000;
+    /** Uploads waiting for the OpenGL thread */
+    private static final Queue<Upload> uploads = new ConcurrentLinkedQueue<>();
+    /** Number of textures submitted and not yet uploaded */
+    private static final AtomicInteger pending = new AtomicInteger();
+    /** Whether the loader was cleaned up (late decodes are then discarded instead of uploaded) */
+    private static volatile boolean closed;
+
+    /**
+     * Submit a texture for decoding and upload
+     *
+     * @param texture Texture to load into
+     * @param decoder Decoder after reading the header
+     * @param in Stream of the decoder (closed after decoding)
+     */
+    static void submit(PNGTexture texture, PNGDecoder decoder, InputStream in){
+        pending.incrementAndGet();
+        workers.execute(new Decode(texture, decoder, in));
+    }
+
+    /**
+     * Upload decoded textures until the queue is empty or the time budget is used up (on the OpenGL thread).
+     * At least one waiting upload is always processed.
+     *
+     * @param budget Time budget (in ns)
+     * @return Number of uploads processed
+     */
+    public static int processUploads(long budget){
+        long start = System.nanoTime();
+        int count = 0;
+        Upload upload;
+        while((upload = uploads.poll()) != null){
+            upload.run();
+            count++;
+            if(System.nanoTime() - start >= budget){
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Return the number of textures submitted and not yet uploaded
+     *
+     * @return Number of pending textures
+     */
+    public static int getPending(){
+        return pending.get();
+    }
+
+    /**
+     * Stop the workers and release the waiting decodes and uploads without uploading them (the textures may already
+     *  be deleted)
+     */
+    public static void cleanUp(){
+        closed = true;
+
+        // Close the streams of the decodes that never started
+        for(Runnable r : workers.shutdownNow()){
+            ((Decode) r).discard();
+        }
+
+        // Let the running decodes finish
+        try {
+            if(!workers.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)){
+                Launcher.getLog().log(Severity.WARNING, "Texture Loader", "Decodes still running after clean up");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        discardUploads();
+    }
+
+    /**
+     * Free the buffers of all waiting uploads
+     */
+    private static void discardUploads(){
+        Upload upload;
+        while((upload = uploads.poll()) != null){
+            upload.discard();
+        }
+    }
+
+    /**
+     * Decoding of one texture on a worker
+     */
+    private static class Decode implements Runnable{
+        /** Texture to load into */
+        private final PNGTexture texture;
+        /** Decoder after reading the header */
+        private final PNGDecoder decoder;
+        /** Stream of the decoder */
+        private final InputStream in;
+
+        /**
+         * Construct the decode
+         *
+         * @param texture Texture to load into
+         * @param decoder Decoder after reading the header
+         * @param in Stream of the decoder
+         */
+        Decode(PNGTexture texture, PNGDecoder decoder, InputStream in){
+            this.texture = texture;
+            this.decoder = decoder;
+            this.in = in;
+        }
+
+        @Override
+        public void run() {
+            // Decode the image
+            ByteBuffer buffer = null;
+            try {
+                buffer = PNGTexture.decode(decoder);
+            } catch (IOException e) {
+                // Keep the placeholder
+                Launcher.getLog().log("Texture Loader", e);
+            } finally {
+                close();
+            }
+
+            // Queue the upload, discarding it when the loader was cleaned up meanwhile
+            uploads.add(new Upload(texture, buffer));
+            if(closed){
+                discardUploads();
+            }
+        }
+
+        /**
+         * Release the decode without running it
+         */
+        void discard(){
+            close();
+            pending.decrementAndGet();
+        }
+
+        /**
+         * Close the stream
+         */
+        private void close(){
+            try {
+                in.close();
+            } catch (IOException e) {
+                Launcher.getLog().log("Texture Loader", e);
+            }
+        }
+    }
+
+    /**
+     * Upload of one decoded texture on the OpenGL thread
+     */
+    private static class Upload{
+        /** Texture to load into */
+        private final PNGTexture texture;
+        /** Decoded pixels ({@code null} when the decoding failed) */
+        private final ByteBuffer buffer;
+
+        /**
+         * Construct the upload
+         *
+         * @param texture Texture to load into
+         * @param buffer Decoded pixels ({@code null} when the decoding failed)
+         */
+        Upload(PNGTexture texture, ByteBuffer buffer){
+            this.texture = texture;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Upload the pixels and free them
+         */
+        void run(){
+            try {
+                if(buffer != null) texture.upload(buffer);
+            } finally {
+                discard();
+            }
+        }
+
+        /**
+         * Free the pixels without uploading them
+         */
+        void discard(){
+            if(buffer != null) MemoryUtil.memFree(buffer);
+            pending.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.pilif0.open_desert.graphics;
+
+/**
+ * Handle of one uniform of a shader program, obtained once after the program is linked.
+ * Typed subclasses remember the last uploaded value and skip uploads of an equal value, because uniform values persist
+ *  in the program object between binds.
+ * Values may only be set while the owning program is bound.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public abstract class Uniform {
+    /** Name of the uniform */
+    public final String name;
+    /** Location of the uniform in the program */
+    protected final int location;
+    /** Whether a value has been uploaded yet */
+    protected boolean uploaded = false;
+
+    /**
+     * Construct the handle
+     *
+     * @param name Name of the uniform
+     * @param location Location of the uniform in the program
+     */
+    protected Uniform(String name, int location){
+        this.name = name;
+        this.location = location;
+    }
+
+    /**
+     * Forget the last uploaded value, so that the next set uploads unconditionally
+     */
+    public void invalidate(){
+        uploaded = false;
+    }
+
+    /**
+     * Return the location of the uniform in the program
+     *
+     * @return Location of the uniform
+     */
+    public int getLocation() {
+        return location;
+    }
+}
@@ -0,0 +1,39 @@
+package net.pilif0.open_desert.graphics;
+
+import static org.lwjgl.opengl.GL20.glUniform1i;
+
+/**
+ * Handle of an {@code int} (or sampler) uniform
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class UniformInt extends Uniform {
+    /** Last uploaded value */
+    private int value;
+
+    /**
+     * Construct the handle
+     *
+     * @param name Name of the uniform
+     * @param location Location of the uniform in the program
+     */
+    UniformInt(String name, int location){
+        super(name, location);
+    }
+
+    /**
+     * Set the value (the program has to be bound)
+     *
+     * @param value New value
+     */
+    public void set(int value){
+        if(uploaded && this.value == value){
+            return;
+        }
+
+        this.value = value;
+        glUniform1i(location, value);
+        uploaded = true;
+    }
+}
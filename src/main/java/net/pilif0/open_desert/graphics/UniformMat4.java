@@ -0,0 +1,49 @@
+package net.pilif0.open_desert.graphics;
+
+import org.joml.Matrix4fc;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL20.glUniformMatrix4fv;
+
+/**
+ * Handle of a {@code mat4} uniform
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class UniformMat4 extends Uniform {
+    /** Last uploaded value */
+    private float[] value = new float[16];
+    /** Scratch space for the new value */
+    private float[] scratch = new float[16];
+
+    /**
+     * Construct the handle
+     *
+     * @param name Name of the uniform
+     * @param location Location of the uniform in the program
+     */
+    UniformMat4(String name, int location){
+        super(name, location);
+    }
+
+    /**
+     * Set the value (the program has to be bound)
+     *
+     * @param m New value
+     */
+    public void set(Matrix4fc m){
+        m.get(scratch);
+        if(uploaded && Arrays.equals(scratch, value)){
+            return;
+        }
+
+        // Swap the arrays to remember the value
+        float[] temp = value;
+        value = scratch;
+        scratch = temp;
+        glUniformMatrix4fv(location, false, value);
+        uploaded = true;
+    }
+}
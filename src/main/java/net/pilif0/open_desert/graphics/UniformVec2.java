@@ -0,0 +1,54 @@
+package net.pilif0.open_desert.graphics;
+
+import org.joml.Vector2fc;
+
+import static org.lwjgl.opengl.GL20.glUniform2f;
+
+/**
+ * Handle of a {@code vec2} uniform
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class UniformVec2 extends Uniform {
+    /** Last uploaded x */
+    private float x;
+    /** Last uploaded y */
+    private float y;
+
+    /**
+     * Construct the handle
+     *
+     * @param name Name of the uniform
+     * @param location Location of the uniform in the program
+     */
+    UniformVec2(String name, int location){
+        super(name, location);
+    }
+
+    /**
+     * Set the value (the program has to be bound)
+     *
+     * @param x New x
+     * @param y New y
+     */
+    public void set(float x, float y){
+        if(uploaded && this.x == x && this.y == y){
+            return;
+        }
+
+        this.x = x;
+        this.y = y;
+        glUniform2f(location, x, y);
+        uploaded = true;
+    }
+
+    /**
+     * Set the value (the program has to be bound)
+     *
+     * @param v New value
+     */
+    public void set(Vector2fc v){
+        set(v.x(), v.y());
+    }
+}
@@ -0,0 +1,62 @@
+package net.pilif0.open_desert.graphics;
+
+import org.joml.Vector4fc;
+
+import static org.lwjgl.opengl.GL20.glUniform4f;
+
+/**
+ * Handle of a {@code vec4} uniform
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class UniformVec4 extends Uniform {
+    /** Last uploaded x */
+    private float x;
+    /** Last uploaded y */
+    private float y;
+    /** Last uploaded z */
+    private float z;
+    /** Last uploaded w */
+    private float w;
+
+    /**
+     * Construct the handle
+     *
+     * @param name Name of the uniform
+     * @param location Location of the uniform in the program
+     */
+    UniformVec4(String name, int location){
+        super(name, location);
+    }
+
+    /**
+     * Set the value (the program has to be bound)
+     *
+     * @param x New x
+     * @param y New y
+     * @param z New z
+     * @param w New w
+     */
+    public void set(float x, float y, float z, float w){
+        if(uploaded && this.x == x && this.y == y && this.z == z && this.w == w){
+            return;
+        }
+
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        glUniform4f(location, x, y, z, w);
+        uploaded = true;
+    }
+
+    /**
+     * Set the value (the program has to be bound)
+     *
+     * @param v New value
+     */
+    public void set(Vector4fc v){
+        set(v.x(), v.y(), v.z(), v.w());
+    }
+}
@@ -0,0 +1,103 @@
+package net.pilif0.open_desert.graphics.render;
+
+import net.pilif0.open_desert.ecs.Condition;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.graphics.PerpendicularCamera;
+import net.pilif0.open_desert.world.SpatialIndex;
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the game objects visible through a camera from a spatial index of the world (such as the world tree).
+ * The visible world rectangle is derived from the camera matrix and grown by a margin on each side. Game objects with
+ *  a bounds component are matched by their box, so the margin is only needed for game objects without one (whose
+ *  position can be just off screen while their sprite reaches into it). Only the parts of the index intersecting the
+ *  rectangle are traversed (in parallel when the index supports it).
+ * The visible set is reused between frames.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class Culler {
+    /** Condition the visible game objects have to satisfy ({@code null} for none) */
+    private final Condition condition;
+    /** Margin added to each side of the visible rectangle */
+    private float margin;
+    /** Visible game objects of the last cull */
+    private final List<GameObject> visible = new ArrayList<>();
+    /** Unmodifiable view of the visible game objects */
+    private final List<GameObject> visibleView = Collections.unmodifiableList(visible);
+    /** Corner of the visible rectangle with minimal coordinates */
+    private final Vector2f min = new Vector2f();
+    /** Corner of the visible rectangle with maximal coordinates */
+    private final Vector2f max = new Vector2f();
+
+    /**
+     * Construct the culler
+     *
+     * @param condition Condition the visible game objects have to satisfy ({@code null} for none)
+     * @param margin Margin added to each side of the visible rectangle (at least the largest half-extent of a sprite
+     *                without bounds)
+     */
+    public Culler(Condition condition, float margin){
+        this.condition = condition;
+        this.margin = margin;
+    }
+
+    /**
+     * Collect the game objects visible through the camera, replacing the previous visible set
+     *
+     * @param world World to cull
+     * @param camera Camera to cull against
+     * @return Visible game objects (unmodifiable, valid until the next cull)
+     */
+    public List<GameObject> cull(SpatialIndex world, PerpendicularCamera camera){
+        camera.getVisibleArea(min, max);
+        return cull(world, min, max);
+    }
+
+    /**
+     * Collect the game objects in a world rectangle, replacing the previous visible set
+     *
+     * @param world World to cull
+     * @param min Corner of the rectangle with minimal coordinates
+     * @param max Corner of the rectangle with maximal coordinates
+     * @return Visible game objects (unmodifiable, valid until the next cull)
+     */
+    public List<GameObject> cull(SpatialIndex world, Vector2fc min, Vector2fc max){
+        visible.clear();
+        world.collectRect(min.x() - margin, min.y() - margin, max.x() + margin, max.y() + margin, condition, visible);
+        return visibleView;
+    }
+
+    /**
+     * Return the visible game objects of the last cull
+     *
+     * @return Visible game objects (unmodifiable)
+     */
+    public List<GameObject> getVisible(){
+        return visibleView;
+    }
+
+    /**
+     * Return the margin added to each side of the visible rectangle
+     *
+     * @return Margin
+     */
+    public float getMargin() {
+        return margin;
+    }
+
+    /**
+     * Set the margin added to each side of the visible rectangle
+     *
+     * @param margin New value
+     */
+    public void setMargin(float margin) {
+        this.margin = margin;
+    }
+}
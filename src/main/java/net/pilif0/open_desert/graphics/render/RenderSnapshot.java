@@ -0,0 +1,167 @@
+package net.pilif0.open_desert.graphics.render;
+
+import net.pilif0.open_desert.geometry.Transformation;
+import net.pilif0.open_desert.graphics.PerpendicularCamera;
+import net.pilif0.open_desert.util.Color;
+import org.joml.Vector2f;
+import org.joml.Vector2i;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The render state of one frame, captured at the end of an update so it can be rendered while the next update runs.
+ * Holds a copy of the camera, of the built sprite batch (instance data and draw calls), and of the transformations
+ *  and colours of the entities rendered individually, in the order they were captured. A game keeps two snapshots,
+ *  one written by the update thread and one read by the render thread, and swaps them between the frames. All
+ *  arrays and draw call objects are reused between captures.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class RenderSnapshot {
+    /** Colour of the entities without one */
+    private static final Color WHITE = new Color(0xff_ff_ff_ff);
+
+    /** The camera */
+    public final PerpendicularCamera camera = new PerpendicularCamera(new Vector2f(), new Vector2i(1, 1));
+    /** The interpolation alpha of the frame */
+    public float alpha = 1;
+
+    /** Instance data of the sprites */
+    private float[] instances = new float[0];
+    /** Number of valid floats in the instance data */
+    private int instanceFloats;
+    /** Draw calls of the sprites */
+    private final List<SpriteBatch.DrawCall> drawCalls = new ArrayList<>();
+    /** Unmodifiable view of the draw calls */
+    private final List<SpriteBatch.DrawCall> drawCallsView = Collections.unmodifiableList(drawCalls);
+    /** Draw call objects reused between captures */
+    private final List<SpriteBatch.DrawCall> drawCallPool = new ArrayList<>();
+    /** Entity states (only the first {@code entityCount} are valid, the rest are reused between captures) */
+    private final List<EntityState> entities = new ArrayList<>();
+    /** Number of captured entity states */
+    private int entityCount;
+
+    /**
+     * Copy the camera
+     *
+     * @param source Camera to copy
+     */
+    public void capture(PerpendicularCamera source){
+        camera.setPosition(source.getPosition());
+        camera.setDimensions(source.getDimensions());
+        camera.update();
+    }
+
+    /**
+     * Copy the last build of a sprite batch
+     *
+     * @param batch Batch to copy (built)
+     */
+    public void capture(SpriteBatch batch){
+        instanceFloats = batch.getInstanceFloatCount();
+        if(instances.length < instanceFloats){
+            instances = new float[instanceFloats];
+        }
+        System.arraycopy(batch.getInstances(), 0, instances, 0, instanceFloats);
+
+        drawCalls.clear();
+        for(SpriteBatch.DrawCall source : batch.getDrawCalls()){
+            if(drawCalls.size() == drawCallPool.size()){
+                drawCallPool.add(new SpriteBatch.DrawCall());
+            }
+            SpriteBatch.DrawCall call = drawCallPool.get(drawCalls.size());
+            call.set(source.textureID, source.segmentSize, source.first, source.count);
+            drawCalls.add(call);
+        }
+    }
+
+    /**
+     * Copy the state of an entity
+     *
+     * @param transformation Transformation of the entity
+     * @param color Colour of the entity ({@code null} when it has none)
+     * @return Index of the captured state
+     */
+    public int capture(Transformation transformation, Color color){
+        if(entityCount == entities.size()){
+            entities.add(new EntityState());
+        }
+        EntityState state = entities.get(entityCount);
+        state.transformation.set(transformation);
+        state.color.set(color != null ? color : WHITE);
+        return entityCount++;
+    }
+
+    /**
+     * Discard the captured sprites and entity states
+     */
+    public void clear(){
+        instanceFloats = 0;
+        drawCalls.clear();
+        entityCount = 0;
+    }
+
+    /**
+     * Return a captured entity state
+     *
+     * @param index Index of the state (in the order of capture)
+     * @return The entity state
+     * @throws IndexOutOfBoundsException When no state was captured under the index
+     */
+    public EntityState getEntity(int index){
+        if(index < 0 || index >= entityCount){
+            throw new IndexOutOfBoundsException("No entity state " + index + " of " + entityCount);
+        }
+        return entities.get(index);
+    }
+
+    /**
+     * Return the number of captured entity states
+     *
+     * @return Number of entity states
+     */
+    public int getEntityCount(){
+        return entityCount;
+    }
+
+    /**
+     * Return the captured sprite instance data.
+     * Only the first {@link #getInstanceFloatCount()} floats are valid.
+     *
+     * @return Instance data
+     */
+    public float[] getInstances(){
+        return instances;
+    }
+
+    /**
+     * Return the number of valid floats in the captured sprite instance data
+     *
+     * @return Number of valid floats
+     */
+    public int getInstanceFloatCount(){
+        return instanceFloats;
+    }
+
+    /**
+     * Return the captured sprite draw calls
+     *
+     * @return Unmodifiable list of draw calls
+     */
+    public List<SpriteBatch.DrawCall> getDrawCalls(){
+        return drawCallsView;
+    }
+
+    /**
+     * Copy of the render state of an entity
+     */
+    public static class EntityState{
+        /** The transformation */
+        public final Transformation transformation = new Transformation();
+        /** The colour (white when the entity has none) */
+        public final Color color = new Color(0xff_ff_ff_ff);
+    }
+}
@@ -0,0 +1,485 @@
+package net.pilif0.open_desert.graphics.render;
+
+import net.pilif0.open_desert.Launcher;
+import net.pilif0.open_desert.components.SpriteComponent;
+import net.pilif0.open_desert.components.WorldMatrixComponent;
+import net.pilif0.open_desert.ecs.Archetype;
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.geometry.Affine2f;
+import net.pilif0.open_desert.graphics.GLState;
+import net.pilif0.open_desert.graphics.ShaderProgram;
+import net.pilif0.open_desert.graphics.UniformInt;
+import net.pilif0.open_desert.graphics.UniformMat4;
+import net.pilif0.open_desert.graphics.UniformVec2;
+import org.joml.Matrix4fc;
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL31.glDrawElementsInstanced;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+
+/**
+ * Renders sprites in batches, issuing one instanced draw per texture atlas.
+ * Sprites are first collected on the CPU into per-atlas groups of instance data, which are then concatenated into one
+ *  instance buffer with a list of draw calls. Only {@link #flush(Matrix4fc)}, {@link #render(RenderSnapshot)} and
+ *  {@link #cleanUp()} touch OpenGL, the GPU objects are created lazily on the first draw.
+ * A built batch can also be captured into a {@link RenderSnapshot} off the GL thread and rendered later with
+ *  {@link #render(RenderSnapshot)} of another batch owned by the GL thread.
+ * Instance layout: world matrix in the 2D affine form (6 floats, see {@link Affine2f}), sprite dimensions (2 floats),
+ *  texture delta (2 floats).
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SpriteBatch {
+    /** Number of floats per instance */
+    public static final int INSTANCE_FLOATS = Affine2f.FLOATS + 4;
+    /** Number of bytes per instance */
+    private static final int INSTANCE_BYTES = INSTANCE_FLOATS * 4;
+
+    /** Groups of instances (only the first {@code groupCount} are in use) */
+    private final List<Group> groups = new ArrayList<>();
+    /** Number of groups in use */
+    private int groupCount;
+    /** Group the last sprite was added to */
+    private Group lastGroup;
+    /** Concatenated instance data of the last build */
+    private float[] instances = new float[0];
+    /** Number of floats in the instance data of the last build */
+    private int instanceFloats;
+    /** Scratch texture delta of the sprite being added */
+    private final Vector2f textureDelta = new Vector2f();
+    /** Draw calls of the last build */
+    private final List<DrawCall> drawCalls = new ArrayList<>();
+    /** Unmodifiable view of the draw calls */
+    private final List<DrawCall> drawCallsView = Collections.unmodifiableList(drawCalls);
+    /** Draw call objects reused between builds */
+    private final List<DrawCall> drawCallPool = new ArrayList<>();
+
+    // OpenGL objects (created on first flush)
+    /** Shader of the batch */
+    private ShaderProgram shader;
+    /** Projection matrix uniform */
+    private UniformMat4 projectionUniform;
+    /** Texture dimensions (segment size) uniform */
+    private UniformVec2 textureDimensionsUniform;
+    /** Texture sampler uniform */
+    private UniformInt textureSamplerUniform;
+    /** ID of the vertex array object */
+    private int vaoID;
+    /** ID of the instance VBO */
+    private int instanceVboID;
+    /** Staging buffer for the instance data */
+    private FloatBuffer buffer;
+
+    /**
+     * Add a sprite to the batch.
+     * Only the part of the world matrix acting on the xy plane is used.
+     *
+     * @param textureID ID of the texture atlas
+     * @param segmentSize Segment size of the texture atlas
+     * @param worldMatrix World matrix of the sprite
+     * @param dimensions Dimensions of the sprite
+     * @param textureDelta Texture delta of the sprite
+     */
+    public void add(int textureID, Vector2fc segmentSize, Matrix4fc worldMatrix, Vector2fc dimensions, Vector2fc textureDelta){
+        Group g = reserve(textureID, segmentSize);
+        int offset = g.count * INSTANCE_FLOATS;
+        g.data[offset] = worldMatrix.m00();
+        g.data[offset + 1] = worldMatrix.m01();
+        g.data[offset + 2] = worldMatrix.m10();
+        g.data[offset + 3] = worldMatrix.m11();
+        g.data[offset + 4] = worldMatrix.m30();
+        g.data[offset + 5] = worldMatrix.m31();
+        finish(g, dimensions, textureDelta);
+    }
+
+    /**
+     * Add a sprite to the batch from its components
+     *
+     * @param worldMatrix World matrix component of the game object
+     * @param sprite Sprite component of the game object
+     */
+    public void add(WorldMatrixComponent worldMatrix, SpriteComponent sprite){
+        Group g = reserve(sprite.getTextureID(), sprite.getAtlas().segmentSize);
+        worldMatrix.getAffine(g.data, g.count * INSTANCE_FLOATS);
+        finish(g, sprite.getDimensions(), sprite.getTextureDelta(textureDelta));
+    }
+
+    /**
+     * Find the group for a texture atlas and make room in it for one more instance
+     *
+     * @param textureID ID of the texture atlas
+     * @param segmentSize Segment size of the texture atlas
+     * @return Group of the atlas
+     */
+    private Group reserve(int textureID, Vector2fc segmentSize){
+        Group g = getGroup(textureID, segmentSize);
+        g.ensureCapacity(g.count + 1);
+        return g;
+    }
+
+    /**
+     * Write the rest of the instance after its world matrix and count it
+     *
+     * @param g Group of the instance
+     * @param dimensions Dimensions of the sprite
+     * @param textureDelta Texture delta of the sprite
+     */
+    private static void finish(Group g, Vector2fc dimensions, Vector2fc textureDelta){
+        int offset = g.count * INSTANCE_FLOATS + Affine2f.FLOATS;
+        g.data[offset] = dimensions.x();
+        g.data[offset + 1] = dimensions.y();
+        g.data[offset + 2] = textureDelta.x();
+        g.data[offset + 3] = textureDelta.y();
+        g.count++;
+    }
+
+    /**
+     * Add a game object to the batch
+     *
+     * @param go Game object to add (needs the sprite and world matrix components)
+     */
+    public void add(GameObject go){
+        add((WorldMatrixComponent) go.getComponent(WorldMatrixComponent.ID), (SpriteComponent) go.getComponent(SpriteComponent.ID));
+    }
+
+    /**
+     * Add all game objects in an archetype chunk to the batch, reading the components straight from the chunk columns
+     *
+     * @param chunk Chunk to add (its archetype needs the sprite and world matrix components)
+     */
+    public void add(Archetype.Chunk chunk){
+        Archetype archetype = chunk.getArchetype();
+        Component[] worldMatrices = chunk.components[archetype.getComponentIndex(WorldMatrixComponent.ID)];
+        Component[] sprites = chunk.components[archetype.getComponentIndex(SpriteComponent.ID)];
+        for(int i = 0; i < chunk.size(); i++){
+            add((WorldMatrixComponent) worldMatrices[i], (SpriteComponent) sprites[i]);
+        }
+    }
+
+    /**
+     * Find the group for a texture atlas, starting a new one when necessary
+     *
+     * @param textureID ID of the texture atlas
+     * @param segmentSize Segment size of the texture atlas
+     * @return Group of the atlas
+     */
+    private Group getGroup(int textureID, Vector2fc segmentSize){
+        // Consecutive sprites tend to share the atlas
+        if(lastGroup != null && lastGroup.matches(textureID, segmentSize)){
+            return lastGroup;
+        }
+
+        for(int i = 0; i < groupCount; i++){
+            Group g = groups.get(i);
+            if(g.matches(textureID, segmentSize)){
+                lastGroup = g;
+                return g;
+            }
+        }
+
+        // Reuse a group from a previous frame when possible
+        if(groupCount == groups.size()){
+            groups.add(new Group());
+        }
+        Group g = groups.get(groupCount++);
+        g.textureID = textureID;
+        g.segmentSize.set(segmentSize);
+        g.count = 0;
+        lastGroup = g;
+        return g;
+    }
+
+    /**
+     * Concatenate the groups into the instance data and build the draw call list
+     */
+    public void build(){
+        // Count the instances
+        int total = 0;
+        for(int i = 0; i < groupCount; i++) total += groups.get(i).count;
+        instanceFloats = total * INSTANCE_FLOATS;
+        if(instances.length < instanceFloats){
+            instances = new float[instanceFloats];
+        }
+
+        // Copy the groups in order of first appearance
+        drawCalls.clear();
+        int first = 0;
+        for(int i = 0; i < groupCount; i++){
+            Group g = groups.get(i);
+            if(g.count == 0) continue;
+            System.arraycopy(g.data, 0, instances, first * INSTANCE_FLOATS, g.count * INSTANCE_FLOATS);
+            if(drawCalls.size() == drawCallPool.size()){
+                drawCallPool.add(new DrawCall());
+            }
+            DrawCall call = drawCallPool.get(drawCalls.size());
+            call.set(g.textureID, g.segmentSize, first, g.count);
+            drawCalls.add(call);
+            first += g.count;
+        }
+    }
+
+    /**
+     * Discard all sprites added since the last clear
+     */
+    public void clear(){
+        for(int i = 0; i < groupCount; i++) groups.get(i).count = 0;
+        groupCount = 0;
+        lastGroup = null;
+    }
+
+    /**
+     * Build the batch, render it, and clear it
+     *
+     * @param projectionMatrix Projection matrix to use
+     */
+    public void flush(Matrix4fc projectionMatrix){
+        build();
+        clear();
+        draw(instances, instanceFloats, drawCalls, projectionMatrix);
+    }
+
+    /**
+     * Render the sprites captured in a snapshot, using only the GPU objects of this batch (not the sprites added to it).
+     * Use a batch owned by the GL thread, not the one being built on the update thread at the same time.
+     *
+     * @param snapshot Snapshot to render
+     */
+    public void render(RenderSnapshot snapshot){
+        draw(snapshot.getInstances(), snapshot.getInstanceFloatCount(), snapshot.getDrawCalls(), snapshot.camera.getMatrix());
+    }
+
+    /**
+     * Upload instance data and issue its draw calls
+     *
+     * @param instances Instance data
+     * @param instanceFloats Number of valid floats in the instance data
+     * @param drawCalls Draw calls of the instance data
+     * @param projectionMatrix Projection matrix to use
+     */
+    private void draw(float[] instances, int instanceFloats, List<DrawCall> drawCalls, Matrix4fc projectionMatrix){
+        if(drawCalls.isEmpty()){
+            return;
+        }
+        if(shader == null){
+            init(instanceFloats);
+        }
+
+        // Upload the instance data
+        int instanceCount = instanceFloats / INSTANCE_FLOATS;
+        if(buffer.capacity() < instanceFloats){
+            buffer = MemoryUtil.memRealloc(buffer, Math.max(instanceFloats, 2 * buffer.capacity()));
+        }
+        buffer.clear();
+        buffer.put(instances, 0, instanceFloats).flip();
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboID);
+        glBufferData(GL_ARRAY_BUFFER, (long) buffer.capacity() * 4, GL_STREAM_DRAW);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, buffer);
+
+        // Prepare the shader
+        shader.bind();
+        projectionUniform.set(projectionMatrix);
+        textureSamplerUniform.set(0);
+        GLState.bindVertexArray(vaoID);
+
+        // Issue one draw per atlas
+        for(int i = 0; i < drawCalls.size(); i++){
+            DrawCall call = drawCalls.get(i);
+            textureDimensionsUniform.set(call.segmentSize);
+            GLState.bindTexture(0, call.textureID);
+            pointInstanceAttributes((long) call.first * INSTANCE_BYTES);
+            glDrawElementsInstanced(GL_TRIANGLES, SpriteRenderer.SHAPE.getVertexCount(), GL_UNSIGNED_INT, 0, call.count);
+        }
+
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        //Log OpenGL errors
+        Launcher.getLog().logOpenGLError("Sprite Batch", "when rendering " + instanceCount + " instances");
+    }
+
+    /**
+     * Point the instance attributes at the instance VBO (needs the VAO and the instance VBO bound)
+     *
+     * @param offset Byte offset of the first instance
+     */
+    private static void pointInstanceAttributes(long offset){
+        // Linear part of the world matrix
+        glVertexAttribPointer(1, 4, GL_FLOAT, false, INSTANCE_BYTES, offset);
+        // Translation and sprite dimensions
+        glVertexAttribPointer(2, 4, GL_FLOAT, false, INSTANCE_BYTES, offset + 16);
+        // Texture delta
+        glVertexAttribPointer(3, 2, GL_FLOAT, false, INSTANCE_BYTES, offset + 32);
+    }
+
+    /**
+     * Create the shader, the VAO and the instance VBO
+     *
+     * @param floats Number of floats the staging buffer should hold initially
+     */
+    private void init(int floats){
+        // Initialise the shader
+        shader = new ShaderProgram();
+        try {
+            String vertexCode = new String(Files.readAllBytes(Paths.get("shaders/component/SpriteInstanced.vs")));
+            String fragmentCode = new String(Files.readAllBytes(Paths.get("shaders/component/SpriteInstanced.fs")));
+
+            shader.attachVertexShader(vertexCode);
+            shader.attachFragmentShader(fragmentCode);
+            shader.link();
+        } catch (IOException e) {
+            Launcher.getLog().log("IO", e);
+        }
+        projectionUniform = shader.getUniformMat4("projectionMatrix");
+        textureDimensionsUniform = shader.getUniformVec2("textureDimensions");
+        textureSamplerUniform = shader.getUniformInt("textureSampler");
+
+        // Share the quad of the sprite renderer
+        vaoID = glGenVertexArrays();
+        GLState.bindVertexArray(vaoID);
+        glBindBuffer(GL_ARRAY_BUFFER, SpriteRenderer.SHAPE.getVboID());
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, 2 * 4, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, SpriteRenderer.SHAPE.getIdxVboID());
+
+        // Per-instance attributes
+        instanceVboID = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboID);
+        for(int i = 1; i <= 3; i++){
+            glEnableVertexAttribArray(i);
+            glVertexAttribDivisor(i, 1);
+        }
+        pointInstanceAttributes(0);
+        buffer = MemoryUtil.memAllocFloat(Math.max(floats, 64 * INSTANCE_FLOATS));
+
+        // Unbind
+        GLState.bindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        //Log OpenGL errors
+        Launcher.getLog().logOpenGLError("Sprite Batch", "when creating");
+    }
+
+    /**
+     * Return the instance data of the last build.
+     * Only the first {@link #getInstanceFloatCount()} floats are valid.
+     *
+     * @return Instance data
+     */
+    public float[] getInstances(){
+        return instances;
+    }
+
+    /**
+     * Return the number of valid floats in the instance data of the last build
+     *
+     * @return Number of valid floats
+     */
+    public int getInstanceFloatCount(){
+        return instanceFloats;
+    }
+
+    /**
+     * Return the draw calls of the last build
+     *
+     * @return Unmodifiable list of draw calls (the draw calls are reused, so they are valid until the next build)
+     */
+    public List<DrawCall> getDrawCalls(){
+        return drawCallsView;
+    }
+
+    /**
+     * Clean up after the batch
+     */
+    public void cleanUp(){
+        if(shader != null){
+            glDeleteBuffers(instanceVboID);
+            GLState.deleteVertexArray(vaoID);
+            shader.cleanUp();
+            MemoryUtil.memFree(buffer);
+            shader = null;
+        }
+    }
+
+    /**
+     * Instances collected for one texture atlas
+     */
+    private static class Group{
+        /** ID of the texture atlas */
+        int textureID;
+        /** Segment size of the texture atlas */
+        final Vector2f segmentSize = new Vector2f();
+        /** Instance data */
+        float[] data = new float[16 * INSTANCE_FLOATS];
+        /** Number of instances */
+        int count;
+
+        /**
+         * Whether this group is for a texture atlas
+         *
+         * @param textureID ID of the texture atlas
+         * @param segmentSize Segment size of the texture atlas
+         * @return Whether the group matches
+         */
+        boolean matches(int textureID, Vector2fc segmentSize){
+            return this.textureID == textureID && this.segmentSize.x == segmentSize.x() &&
+                    this.segmentSize.y == segmentSize.y();
+        }
+
+        /**
+         * Make sure the data can hold a number of instances
+         *
+         * @param instances Number of instances
+         */
+        void ensureCapacity(int instances){
+            if(data.length < instances * INSTANCE_FLOATS){
+                data = Arrays.copyOf(data, Math.max(instances * INSTANCE_FLOATS, 2 * data.length));
+            }
+        }
+    }
+
+    /**
+     * One instanced draw of a range of instances sharing a texture atlas
+     */
+    public static class DrawCall{
+        /** ID of the texture atlas */
+        public int textureID;
+        /** Segment size of the texture atlas */
+        public final Vector2f segmentSize = new Vector2f();
+        /** Index of the first instance */
+        public int first;
+        /** Number of instances */
+        public int count;
+
+        /**
+         * Set the draw call
+         *
+         * @param textureID ID of the texture atlas
+         * @param segmentSize Segment size of the texture atlas
+         * @param first Index of the first instance
+         * @param count Number of instances
+         */
+        void set(int textureID, Vector2fc segmentSize, int first, int count){
+            this.textureID = textureID;
+            this.segmentSize.set(segmentSize);
+            this.first = first;
+            this.count = count;
+        }
+    }
+}
@@ -3,21 +3,23 @@ package net.pilif0.open_desert.graphics.render;
 import net.pilif0.open_desert.Launcher;
 import net.pilif0.open_desert.components.SpriteComponent;
 import net.pilif0.open_desert.components.WorldMatrixComponent;
+import net.pilif0.open_desert.ecs.Archetype;
+import net.pilif0.open_desert.ecs.Component;
 import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.graphics.GLState;
 import net.pilif0.open_desert.graphics.ShaderProgram;
+import net.pilif0.open_desert.graphics.UniformInt;
+import net.pilif0.open_desert.graphics.UniformMat4;
+import net.pilif0.open_desert.graphics.UniformVec2;
 import net.pilif0.open_desert.graphics.shapes.AbstractShape;
 import net.pilif0.open_desert.graphics.shapes.Shape;
 import org.joml.Matrix4fc;
+import org.joml.Vector2f;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-
 /**
  * Renders game objects onto the screen as sprites
  *
@@ -30,6 +32,21 @@ public class SpriteRenderer{
     /** Dedicated shape for sprite rendering (unit square centered on origin) */
     public static AbstractShape SHAPE;
 
+    /** Sprite dimensions uniform */
+    private static final UniformVec2 SPRITE_DIMENSIONS;
+    /** Texture dimensions (segment size) uniform */
+    private static final UniformVec2 TEXTURE_DIMENSIONS;
+    /** Projection matrix uniform */
+    private static final UniformMat4 PROJECTION_MATRIX;
+    /** World matrix uniform */
+    private static final UniformMat4 WORLD_MATRIX;
+    /** Texture sampler uniform */
+    private static final UniformInt TEXTURE_SAMPLER;
+    /** Texture delta (offset of the segment) uniform */
+    private static final UniformVec2 TEXTURE_DELTA;
+    /** Scratch texture delta of the sprite being rendered */
+    private static final Vector2f textureDelta = new Vector2f();
+
     static {
         // Initialise the shader
         SHADER = new ShaderProgram();
@@ -43,45 +60,78 @@ public class SpriteRenderer{
         } catch (IOException e) {
             Launcher.getLog().log("IO", e);
         }
-        SHADER.createUniform("spriteDimensions");
-        SHADER.createUniform("textureDimensions");
-        SHADER.createUniform("projectionMatrix");
-        SHADER.createUniform("worldMatrix");
-        SHADER.createUniform("textureSampler");
-        SHADER.createUniform("textureDelta");
+        SPRITE_DIMENSIONS = SHADER.getUniformVec2("spriteDimensions");
+        TEXTURE_DIMENSIONS = SHADER.getUniformVec2("textureDimensions");
+        PROJECTION_MATRIX = SHADER.getUniformMat4("projectionMatrix");
+        WORLD_MATRIX = SHADER.getUniformMat4("worldMatrix");
+        TEXTURE_SAMPLER = SHADER.getUniformInt("textureSampler");
+        TEXTURE_DELTA = SHADER.getUniformVec2("textureDelta");
 
         // Initialise the shape
         SHAPE = Shape.parse(Paths.get("shapes/component/Sprite.shape"));
     }
 
+    /**
+     * Render a game object as a sprite
+     *
+     * @param projectionMatrix Projection matrix to use
+     * @param go Game object to render (needs the sprite and world matrix components)
+     */
     public static void render(Matrix4fc projectionMatrix, GameObject go) {
         // Retrieve transformation from the appropriate components (position, rotation, scale)
-        Matrix4fc worldMatrix = ((WorldMatrixComponent) go.getComponent("world_matrix")).getWorldMatrix();
+        WorldMatrixComponent worldMatrix = (WorldMatrixComponent) go.getComponent(WorldMatrixComponent.ID);
 
         // Retrieve the sprite information component
-        SpriteComponent spriteComponent = (SpriteComponent) go.getComponent("sprite");
+        SpriteComponent spriteComponent = (SpriteComponent) go.getComponent(SpriteComponent.ID);
+
+        render(projectionMatrix, worldMatrix, spriteComponent);
+    }
+
+    /**
+     * Render all game objects in an archetype chunk as sprites, reading the components straight from the chunk columns
+     *
+     * @param projectionMatrix Projection matrix to use
+     * @param chunk Chunk to render (its archetype needs the sprite and world matrix components)
+     */
+    public static void render(Matrix4fc projectionMatrix, Archetype.Chunk chunk) {
+        // Find the component columns
+        Archetype archetype = chunk.getArchetype();
+        Component[] worldMatrices = chunk.components[archetype.getComponentIndex(WorldMatrixComponent.ID)];
+        Component[] sprites = chunk.components[archetype.getComponentIndex(SpriteComponent.ID)];
+
+        // Render each row
+        for(int i = 0; i < chunk.size(); i++){
+            render(projectionMatrix, (WorldMatrixComponent) worldMatrices[i], (SpriteComponent) sprites[i]);
+        }
+    }
+
+    /**
+     * Render a sprite from its components
+     *
+     * @param projectionMatrix Projection matrix to use
+     * @param worldMatrixComponent World matrix component of the game object
+     * @param spriteComponent Sprite component of the game object
+     */
+    private static void render(Matrix4fc projectionMatrix, WorldMatrixComponent worldMatrixComponent, SpriteComponent spriteComponent) {
+        // Retrieve transformation from the appropriate components (position, rotation, scale)
+        Matrix4fc worldMatrix = worldMatrixComponent.getWorldMatrix();
 
         // Bind the shader
         SHADER.bind();
 
         // Set the uniforms
-        SHADER.setUniform("spriteDimensions", spriteComponent.getDimensions());
-        SHADER.setUniform("textureDimensions", spriteComponent.getAtlas().segmentSize);
-        SHADER.setUniform("projectionMatrix", projectionMatrix);
-        SHADER.setUniform("worldMatrix", worldMatrix);
-        SHADER.setUniform("textureSampler", 0);
-        SHADER.setUniform("textureDelta", spriteComponent.getTextureDelta());
+        SPRITE_DIMENSIONS.set(spriteComponent.getDimensions());
+        TEXTURE_DIMENSIONS.set(spriteComponent.getAtlas().segmentSize);
+        PROJECTION_MATRIX.set(projectionMatrix);
+        WORLD_MATRIX.set(worldMatrix);
+        TEXTURE_SAMPLER.set(0);
+        TEXTURE_DELTA.set(spriteComponent.getTextureDelta(textureDelta));
 
         // Retrieve and bind the texture
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, spriteComponent.getTextureID());
+        GLState.bindTexture(0, spriteComponent.getTextureID());
 
         // Render the model (rectangle of certain width and height)
         SHAPE.render();
-
-        // Unbind texture and program
-        glBindTexture(GL_TEXTURE_2D, 0);
-        ShaderProgram.unbind();
     }
 
     /**
@@ -1,9 +1,10 @@
 package net.pilif0.open_desert.graphics.shapes;
 
+import net.pilif0.open_desert.graphics.GLState;
+
 import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
 import static org.lwjgl.opengl.GL11.glDrawElements;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
 
 /**
  * Represents a template for all different shape types
@@ -25,14 +26,11 @@ public abstract class AbstractShape {
      * Renders the shape
      */
     public void render(){
-        //Bind the VAO
-        glBindVertexArray(vaoID);
+        //Bind the VAO (left bound, the GL state cache elides rebinding it)
+        GLState.bindVertexArray(vaoID);
 
         //Draw
         glDrawElements(GL_TRIANGLES, vertexCount, GL_UNSIGNED_INT, 0);
-
-        //Restore
-        glBindVertexArray(0);
     }
 
     /**
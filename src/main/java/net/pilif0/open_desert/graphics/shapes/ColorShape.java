@@ -1,6 +1,7 @@
 package net.pilif0.open_desert.graphics.shapes;
 
 import net.pilif0.open_desert.Launcher;
+import net.pilif0.open_desert.graphics.GLState;
 import net.pilif0.open_desert.graphics.vertices.ColorVertex;
 import org.lwjgl.system.MemoryStack;
 import org.w3c.dom.Document;
@@ -74,7 +75,7 @@ public class ColorShape extends AbstractShape{
 
         //Prepare VAO
         vaoID = glGenVertexArrays();
-        glBindVertexArray(vaoID);
+        GLState.bindVertexArray(vaoID);
         glEnableVertexAttribArray(0);
         glEnableVertexAttribArray(1);
 
@@ -105,7 +106,7 @@ public class ColorShape extends AbstractShape{
 
         //Unbind
         glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glBindVertexArray(0);
+        GLState.bindVertexArray(0);
 
         //Log OpenGL errors
         Launcher.getLog().logOpenGLError("ColorShape", "when creating");
@@ -124,8 +125,7 @@ public class ColorShape extends AbstractShape{
         glDeleteBuffers(idxVboID);
 
         // Delete the VAO
-        glBindVertexArray(0);
-        glDeleteVertexArrays(vaoID);
+        GLState.deleteVertexArray(vaoID);
     }
 
     /**
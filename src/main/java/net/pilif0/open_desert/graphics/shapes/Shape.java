@@ -1,6 +1,7 @@
 package net.pilif0.open_desert.graphics.shapes;
 
 import net.pilif0.open_desert.Launcher;
+import net.pilif0.open_desert.graphics.GLState;
 import net.pilif0.open_desert.graphics.vertices.Vertex;
 import org.lwjgl.system.MemoryStack;
 import org.w3c.dom.Document;
@@ -19,8 +20,6 @@ import static org.lwjgl.opengl.GL15.glDeleteBuffers;
 import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
 import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
 import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
-import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
 import static org.lwjgl.opengl.GL30.glGenVertexArrays;
 
 /**
@@ -71,7 +70,7 @@ public class Shape extends AbstractShape{
 
         //Prepare VAO
         vaoID = glGenVertexArrays();
-        glBindVertexArray(vaoID);
+        GLState.bindVertexArray(vaoID);
         glEnableVertexAttribArray(0);
         glEnableVertexAttribArray(1);
 
@@ -101,7 +100,7 @@ public class Shape extends AbstractShape{
 
         //Unbind
         glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glBindVertexArray(0);
+        GLState.bindVertexArray(0);
 
         //Log OpenGL errors
         Launcher.getLog().logOpenGLError("Shape", "when creating");
@@ -119,8 +118,7 @@ public class Shape extends AbstractShape{
         glDeleteBuffers(idxVboID);
 
         // Delete the VAO
-        glBindVertexArray(0);
-        glDeleteVertexArrays(vaoID);
+        GLState.deleteVertexArray(vaoID);
     }
 
     /**
@@ -0,0 +1,227 @@
+package net.pilif0.open_desert.graphics.text;
+
+import net.pilif0.open_desert.Launcher;
+import net.pilif0.open_desert.graphics.GLState;
+import org.joml.Vector2fc;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+
+/**
+ * Mesh of the glyph quads of a whole text, drawn with a single call.
+ * The quads are built on the CPU with the texture delta of each glyph baked into its texture coordinates, and the GPU
+ *  buffers are created lazily on the first upload.
+ * Vertex layout (interleaved): 2D position, texture coordinate. Attributes: 0 - 2D position, 1 - texture coordinate.
+ * Positions are relative to the top left corner of the text, with one line of text {@code fontSize} high.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class GlyphMesh {
+    /** Number of floats per vertex */
+    public static final int VERTEX_FLOATS = 4;
+    /** Number of indices per glyph */
+    public static final int GLYPH_INDICES = 6;
+
+    /** Vertex data (only the first {@code 4 * glyphs} vertices are valid) */
+    private float[] vertices = new float[0];
+    /** Index data (only the first {@code 6 * glyphs} indices are valid) */
+    private int[] indices = new int[0];
+    /** Number of glyphs */
+    private int glyphs;
+
+    // OpenGL objects (created on first upload)
+    /** ID of the vertex array object */
+    private int vaoID;
+    /** ID of the vertex VBO */
+    private int vboID;
+    /** ID of the index VBO */
+    private int idxVboID;
+    /** Number of indices uploaded */
+    private int uploadedIndices;
+
+    /**
+     * Build the glyph quads of a text.
+     * New lines move to the start of the next line and produce no glyph.
+     *
+     * @param content Content of the text
+     * @param fontSize Size of the font (side of one glyph)
+     * @param segmentSize Segment size of the font texture atlas
+     * @param deltas Source of the texture delta of each character
+     */
+    public void build(CharSequence content, float fontSize, Vector2fc segmentSize, DeltaFunction deltas){
+        // Make space for all characters
+        int length = content.length();
+        if(vertices.length < length * 4 * VERTEX_FLOATS){
+            vertices = new float[length * 4 * VERTEX_FLOATS];
+            indices = new int[length * GLYPH_INDICES];
+        }
+
+        glyphs = 0;
+        int col = 0;
+        int row = 0;
+        for(int i = 0; i < length; i++){
+            //Retrieve the character
+            char c = content.charAt(i);
+
+            //Handle new line
+            if(c == '\n'){
+                col = 0;
+                row++;
+                continue;
+            }
+
+            //Quad of the character (corners in the order of the original character square)
+            Vector2fc delta = deltas.delta(c);
+            float left = col * fontSize;
+            float top = (row + 0.5f) * fontSize;
+            int v = glyphs * 4 * VERTEX_FLOATS;
+            putVertex(v, left, top, delta.x(), delta.y());
+            putVertex(v + VERTEX_FLOATS, left + fontSize, top, delta.x() + segmentSize.x(), delta.y());
+            putVertex(v + 2 * VERTEX_FLOATS, left + fontSize, top + fontSize, delta.x() + segmentSize.x(), delta.y() + segmentSize.y());
+            putVertex(v + 3 * VERTEX_FLOATS, left, top + fontSize, delta.x(), delta.y() + segmentSize.y());
+
+            //Two triangles
+            int base = glyphs * 4;
+            int idx = glyphs * GLYPH_INDICES;
+            indices[idx] = base;
+            indices[idx + 1] = base + 1;
+            indices[idx + 2] = base + 2;
+            indices[idx + 3] = base;
+            indices[idx + 4] = base + 3;
+            indices[idx + 5] = base + 2;
+
+            glyphs++;
+            col++;
+        }
+    }
+
+    /**
+     * Write one vertex
+     *
+     * @param offset Offset into the vertex data
+     * @param x Position x
+     * @param y Position y
+     * @param u Texture coordinate x
+     * @param v Texture coordinate y
+     */
+    private void putVertex(int offset, float x, float y, float u, float v){
+        vertices[offset] = x;
+        vertices[offset + 1] = y;
+        vertices[offset + 2] = u;
+        vertices[offset + 3] = v;
+    }
+
+    /**
+     * Upload the last build to the GPU, creating the buffers when necessary
+     */
+    public void upload(){
+        if(vaoID == 0){
+            vaoID = glGenVertexArrays();
+            GLState.bindVertexArray(vaoID);
+            glEnableVertexAttribArray(0);
+            glEnableVertexAttribArray(1);
+            vboID = glGenBuffers();
+            glBindBuffer(GL_ARRAY_BUFFER, vboID);
+            glVertexAttribPointer(0, 2, GL_FLOAT, false, VERTEX_FLOATS * 4, 0);
+            glVertexAttribPointer(1, 2, GL_FLOAT, false, VERTEX_FLOATS * 4, 2 * 4);
+            idxVboID = glGenBuffers();
+            glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, idxVboID);
+        }else{
+            GLState.bindVertexArray(vaoID);
+            glBindBuffer(GL_ARRAY_BUFFER, vboID);
+        }
+
+        //Vertices
+        FloatBuffer vertexBuffer = MemoryUtil.memAllocFloat(Math.max(1, glyphs * 4 * VERTEX_FLOATS));
+        vertexBuffer.put(vertices, 0, glyphs * 4 * VERTEX_FLOATS).flip();
+        glBufferData(GL_ARRAY_BUFFER, vertexBuffer, GL_STATIC_DRAW);
+        MemoryUtil.memFree(vertexBuffer);
+
+        //Indices (the index buffer binding is part of the VAO)
+        IntBuffer indexBuffer = MemoryUtil.memAllocInt(Math.max(1, glyphs * GLYPH_INDICES));
+        indexBuffer.put(indices, 0, glyphs * GLYPH_INDICES).flip();
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indexBuffer, GL_STATIC_DRAW);
+        MemoryUtil.memFree(indexBuffer);
+        uploadedIndices = glyphs * GLYPH_INDICES;
+
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        //Log OpenGL errors
+        Launcher.getLog().logOpenGLError("Glyph Mesh", "when uploading");
+    }
+
+    /**
+     * Draw the uploaded mesh with a single call (the program and texture have to be bound)
+     */
+    public void render(){
+        if(uploadedIndices == 0){
+            return;
+        }
+        GLState.bindVertexArray(vaoID);
+        glDrawElements(GL_TRIANGLES, uploadedIndices, GL_UNSIGNED_INT, 0);
+    }
+
+    /**
+     * Return the vertex data of the last build.
+     * Only the first {@code 4 * VERTEX_FLOATS * getGlyphCount()} floats are valid.
+     *
+     * @return Vertex data
+     */
+    public float[] getVertices(){
+        return vertices;
+    }
+
+    /**
+     * Return the index data of the last build
+     *
+     * @return Copy of the valid indices
+     */
+    public int[] getIndices(){
+        return Arrays.copyOf(indices, glyphs * GLYPH_INDICES);
+    }
+
+    /**
+     * Return the number of glyphs in the last build
+     *
+     * @return Number of glyphs
+     */
+    public int getGlyphCount(){
+        return glyphs;
+    }
+
+    /**
+     * Clean up the GPU buffers
+     */
+    public void cleanUp(){
+        if(vaoID != 0){
+            glDeleteBuffers(vboID);
+            glDeleteBuffers(idxVboID);
+            GLState.deleteVertexArray(vaoID);
+            vaoID = 0;
+            uploadedIndices = 0;
+        }
+    }
+
+    /**
+     * Source of the texture delta of a character
+     */
+    @FunctionalInterface
+    public interface DeltaFunction{
+        /**
+         * Return the texture delta of a character
+         *
+         * @param c Character
+         * @return Texture delta
+         */
+        Vector2fc delta(char c);
+    }
+}
@@ -2,17 +2,11 @@ package net.pilif0.open_desert.graphics.text;
 
 import net.pilif0.open_desert.entities.Entity;
 import net.pilif0.open_desert.geometry.Transformation;
+import net.pilif0.open_desert.graphics.GLState;
 import net.pilif0.open_desert.graphics.PerpendicularCamera;
 import net.pilif0.open_desert.graphics.Renderable;
 import net.pilif0.open_desert.graphics.ShaderProgram;
 import net.pilif0.open_desert.graphics.Shaders;
-import net.pilif0.open_desert.graphics.shapes.Shapes;
-import org.joml.Vector2f;
-
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
 
 /**
  * Represents a text.
@@ -28,10 +22,11 @@ public class Text extends Entity implements Renderable{
     protected Font font;
     /** The size of the font */
     protected int fontSize;
-    /** Vector pointing down the height of one character */
-    protected Vector2f stepDown;
-    /** Vector pointing right the width of one character */
-    protected Vector2f stepRight;
+    /** Mesh of the glyphs */
+    protected final GlyphMesh mesh = new GlyphMesh();
+    /** Whether the mesh needs to be rebuilt */
+    protected boolean dirty = true;
+
     /**
      * Constructs a text from its content, font size, and font
      *
@@ -42,68 +37,41 @@ public class Text extends Entity implements Renderable{
     public Text(String content, Font font, int fontSize){
         this.content = content;
         this.fontSize = fontSize;
-        stepDown = new Vector2f(0, fontSize);
-        stepRight = new Vector2f(fontSize, 0);
         this.font = font;
     }
 
     @Override
     public void render(PerpendicularCamera camera, Transformation parentTransformation) {
+        //Rebuild the mesh when the content, font size or font changed
+        if(dirty){
+            mesh.build(content, fontSize, font.segmentSize, c -> font.getDeltaCoordinates(getSegment(c)));
+            mesh.upload();
+            dirty = false;
+        }
+
         //Retrieve the shader
         ShaderProgram program = Shaders.get(ShaderProgram.SPRITE_SHADER);
 
         //Bind the shader
         program.bind();
 
-        //Set the uniforms
+        //Set the uniforms (the texture deltas are baked into the mesh)
         program.setUniform("projectionMatrix", camera.getMatrix());
+        program.setUniform("worldMatrix", getTransformation().getMatrix());
         program.setUniform("parentMatrix", parentTransformation.getMatrix());
         program.setUniform("textureSampler", 0);
+        program.getUniformVec2("textureDelta").set(0, 0);
 
         //Bind the texture
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, font.ID);
-
-        //Render each character
-        int col = 0;
-        Transformation pointer = new Transformation(getTransformation())
-                .scaleMul(new Vector2f(fontSize))
-                .translate(stepDown)
-                .translate(stepRight.mul(0.5f, new Vector2f()));
-        for(int i = 0; i < content.length(); i++){
-            //Retrieve the character
-            char c = content.charAt(i);
-
-            //Handle new line
-            if(c == '\n'){
-                //Move the pointer col times to the left and one times down
-                pointer.translate(stepRight.mul((-1) * col, new Vector2f()))
-                    .translate(stepDown);
-
-                //Reset col counter and increment row counter
-                col = 0;
-                continue;
-            }
-
-            //Set the texture segment
-            program.setUniform("textureDelta", font.getDeltaCoordinates(getSegment(c)));
-
-            //Set the world matrix (the text transformation plus character displacement)
-            program.setUniform("worldMatrix", pointer.getMatrix());
-
-            //Render the character
-            Shapes.CHARACTER_SQUARE.render();
-
-            //Increase the counters
-            col++;
-            pointer.translate(stepRight);
-        }
+        GLState.bindTexture(0, font.ID);
 
-        //Unbind the texture from the target
-        glBindTexture(GL_TEXTURE_2D, 0);
+        //Render all characters at once
+        mesh.render();
+    }
 
-        //Restore the shader
-        ShaderProgram.unbind();
+    @Override
+    public void cleanUp() {
+        mesh.cleanUp();
     }
 
     /**
@@ -132,7 +100,10 @@ public class Text extends Entity implements Renderable{
      * @param content The new value
      */
     public void setContent(String content) {
-        this.content = content;
+        if(!content.equals(this.content)){
+            this.content = content;
+            dirty = true;
+        }
     }
 
     /**
@@ -151,6 +122,7 @@ public class Text extends Entity implements Renderable{
      */
     public void setFont(Font font) {
         this.font = font;
+        dirty = true;
     }
 
     /**
@@ -168,8 +140,9 @@ public class Text extends Entity implements Renderable{
      * @param fontSize The new value
      */
     public void setFontSize(int fontSize) {
-        this.fontSize = fontSize;
-        stepDown = new Vector2f(0, fontSize);
-        stepRight = new Vector2f(fontSize, 0);
+        if(fontSize != this.fontSize){
+            this.fontSize = fontSize;
+            dirty = true;
+        }
     }
 }
@@ -9,15 +9,16 @@ import org.joml.Vector3fc;
 import org.lwjgl.glfw.GLFWKeyCallbackI;
 import org.lwjgl.glfw.GLFWMouseButtonCallbackI;
 import org.lwjgl.glfw.GLFWScrollCallbackI;
-import org.lwjgl.system.MemoryStack;
 
 import java.lang.ref.WeakReference;
-import java.nio.DoubleBuffer;
 
 import static org.lwjgl.glfw.GLFW.*;
 
 /**
- * Manages the input of a window
+ * Manages the input of a window.
+ * The key, mouse button and cursor states are cached from the GLFW callbacks (which run on the main thread while
+ *  polling the events), so they can be queried from any thread - for example by the update worker of the pipelined
+ *  loop, which never runs at the same time as the polling.
  *
  * @author Filip Smola
  * @version 1.0
@@ -31,6 +32,12 @@ public class InputManager {
     private final ScrollCallback scrollCallback;
     /** A reference to the window this manager is attached to */
     private final WeakReference<Window> window;
+    /** Whether each key is pressed (indexed by the GLFW key code) */
+    private final boolean[] keys = new boolean[GLFW_KEY_LAST + 1];
+    /** Whether each mouse button is pressed */
+    private final boolean[] buttons = new boolean[GLFW_MOUSE_BUTTON_LAST + 1];
+    /** The cursor position */
+    private final Vector2f cursor = new Vector2f();
 
     /**
      * Constructs the input manager
@@ -43,9 +50,20 @@ public class InputManager {
         mouseButtonCallback = new MouseButtonCallback();
         scrollCallback = new ScrollCallback();
 
-        //Assign the callbacks
-        glfwSetKeyCallback(w.handle, keyCallback);
-        glfwSetMouseButtonCallback(w.handle, mouseButtonCallback);
+        //Assign the callbacks, caching the state before distributing the events
+        glfwSetKeyCallback(w.handle, (handle, key, scancode, action, mods) -> {
+            if(key >= 0 && key < keys.length){
+                keys[key] = action != GLFW_RELEASE;
+            }
+            keyCallback.invoke(handle, key, scancode, action, mods);
+        });
+        glfwSetMouseButtonCallback(w.handle, (handle, button, action, mods) -> {
+            if(button >= 0 && button < buttons.length){
+                buttons[button] = action != GLFW_RELEASE;
+            }
+            mouseButtonCallback.invoke(handle, button, action, mods);
+        });
+        glfwSetCursorPosCallback(w.handle, (handle, x, y) -> cursor.set((float) x, (float) y));
         glfwSetScrollCallback(w.handle, scrollCallback);
     }
 
@@ -56,12 +74,7 @@ public class InputManager {
      * @return Whether the key is pressed
      */
     public boolean isKeyDown(int keyCode){
-        try {
-            return glfwGetKey(window.get().handle, keyCode) == GLFW_PRESS;
-        }catch(NullPointerException e){
-            //If the window is null, the key is not pressed
-            return false;
-        }
+        return keyCode >= 0 && keyCode < keys.length && keys[keyCode];
     }
 
     /**
@@ -71,12 +84,7 @@ public class InputManager {
      * @return Whether the button is pressed
      */
     public boolean isMouseButtonDown(int button){
-        try {
-            return glfwGetMouseButton(window.get().handle, button) == GLFW_PRESS;
-        }catch(NullPointerException e){
-            //If the window is null, the button is not pressed
-            return false;
-        }
+        return button >= 0 && button < buttons.length && buttons[button];
     }
 
     /**
@@ -85,24 +93,7 @@ public class InputManager {
      * @return The mouse position
      */
     public Vector2fc getMousePosition(){
-        Vector2f result = new Vector2f();
-
-        try(MemoryStack stack = MemoryStack.stackPush()){
-            DoubleBuffer x = stack.mallocDouble(1);
-            DoubleBuffer y = stack.mallocDouble(1);
-
-            try{
-                glfwGetCursorPos(window.get().handle, x, y);
-            }catch(NullPointerException e){
-                //If the window is null, the cursor is at (0,0)
-                x.put(0);
-                y.put(0);
-            }
-
-            result.set((float) x.get(), (float) y.get());
-        }
-
-        return result;
+        return new Vector2f(cursor);
     }
 
     /**
@@ -1,8 +1,10 @@
 package net.pilif0.open_desert.state;
 
+import net.pilif0.open_desert.ecs.EventQueue;
 import net.pilif0.open_desert.events.Event;
 import net.pilif0.open_desert.events.EventMultiplexer;
 import net.pilif0.open_desert.graphics.Camera;
+import net.pilif0.open_desert.graphics.render.RenderSnapshot;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -21,6 +23,9 @@ public abstract class GameState {
 
     /** The event multiplexer for the state events */
     public final EventMultiplexer<GameStateEvent> eventMultiplexer = new EventMultiplexer<>();
+    /** The queue of deferred game object events, flushed after every update (and by the worlds it is given to before
+     *  they relocate) */
+    public final EventQueue gameObjectEvents = new EventQueue();
     /** The unique ID of this state */
     public final int ID;
 
@@ -53,10 +58,11 @@ public abstract class GameState {
     protected abstract void onEnter();
 
     /**
-     * Updates the state (fires an event)
+     * Updates the state, distributes the deferred game object events and fires an event
      */
     public void update(){
         onUpdate();
+        gameObjectEvents.flush();
         eventMultiplexer.handle(new GameStateEvent(GameStateEvent.Type.UPDATE));
     }
 
@@ -78,6 +84,51 @@ public abstract class GameState {
      */
     protected abstract void onRender();
 
+    /**
+     * Returns whether the state supports the pipelined loop, where the update (and {@link #snapshot(RenderSnapshot)})
+     *  runs on a worker thread while the previous snapshot is rendered with {@link #render(RenderSnapshot)}.
+     * A state returning {@code true} must not touch OpenGL or the window in its update and snapshot, and must render
+     *  only from the snapshot.
+     *
+     * @return Whether the state supports the pipelined loop
+     */
+    public boolean isPipelined(){
+        return false;
+    }
+
+    /**
+     * Captures the render state after the update
+     *
+     * @param snapshot The snapshot to write
+     */
+    public void snapshot(RenderSnapshot snapshot){
+        onSnapshot(snapshot);
+    }
+
+    /**
+     * Called when capturing the render state, the default captures nothing
+     *
+     * @param snapshot The snapshot to write
+     */
+    protected void onSnapshot(RenderSnapshot snapshot){}
+
+    /**
+     * Renders the state from a snapshot (fires an event)
+     *
+     * @param snapshot The snapshot to render
+     */
+    public void render(RenderSnapshot snapshot){
+        onRender(snapshot);
+        eventMultiplexer.handle(new GameStateEvent(GameStateEvent.Type.RENDER));
+    }
+
+    /**
+     * Called when rendering the state from a snapshot, before firing the event. The default renders nothing.
+     *
+     * @param snapshot The snapshot to render
+     */
+    protected void onRender(RenderSnapshot snapshot){}
+
     /**
      * Exits the state (fires an event)
      */
@@ -96,6 +147,7 @@ public abstract class GameState {
      */
     public void cleanUp(){
         onCleanUp();
+        gameObjectEvents.clear();
         eventMultiplexer.handle(new GameStateEvent(GameStateEvent.Type.CLEANUP));
     }
 
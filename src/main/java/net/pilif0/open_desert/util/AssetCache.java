@@ -0,0 +1,259 @@
+package net.pilif0.open_desert.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe cache of assets with reference counting and a memory budget.
+ * Assets are kept in least-recently-used order. When the total size exceeds the budget, {@link #trim()} disposes of
+ *  the least recently used assets that are not referenced. Assets are only ever disposed of in {@link #trim()} and
+ *  {@link #clear()}, so the owner can call those from the thread the assets belong to.
+ * The loader of {@link #get(Object, Loader)} runs on the calling thread while holding the cache lock, so assets bound
+ *  to a thread (like OpenGL objects) must also be requested from that thread only.
+ *
+ * @param <K> Key type
+ * @param <V> Asset type
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class AssetCache<K, V> {
+    /** Entries in access order */
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Size of an asset (in bytes) */
+    private final ToLongFunction<V> sizeOf;
+    /** Disposal of an evicted asset */
+    private final Consumer<V> dispose;
+    /** Memory budget (in bytes) */
+    private long budget;
+    /** Total size of the cached assets (in bytes) */
+    private long size = 0;
+
+    // Statistics
+    /** Number of requests served from the cache */
+    private long hits = 0;
+    /** Number of requests that loaded the asset */
+    private long misses = 0;
+    /** Number of evicted assets */
+    private long evictions = 0;
+
+    /**
+     * Construct an empty cache
+     *
+     * @param budget Memory budget (in bytes)
+     * @param sizeOf Size of an asset (in bytes)
+     * @param dispose Disposal of an evicted asset
+     */
+    public AssetCache(long budget, ToLongFunction<V> sizeOf, Consumer<V> dispose){
+        this.budget = budget;
+        this.sizeOf = sizeOf;
+        this.dispose = dispose;
+    }
+
+    /**
+     * Return the asset under a key, loading it on a miss (the loader runs on the calling thread under the cache lock)
+     *
+     * @param key Key of the asset
+     * @param loader Loader of the asset
+     * @return The asset
+     * @throws IOException When the loader fails
+     */
+    public synchronized V get(K key, Loader<K, V> loader) throws IOException{
+        Entry<V> entry = entries.get(key);
+        if(entry != null){
+            hits++;
+            return entry.value;
+        }
+
+        misses++;
+        V value = loader.load(key);
+        entries.put(key, new Entry<>(value));
+        size += sizeOf.applyAsLong(value);
+        return value;
+    }
+
+    /**
+     * Add a reference to a cached asset
+     *
+     * @param key Key of the asset
+     * @param value The asset
+     * @return Whether the asset is (still) cached under the key, otherwise no reference is added
+     */
+    public synchronized boolean retain(K key, V value){
+        Entry<V> entry = entries.get(key);
+        if(entry == null || entry.value != value){
+            return false;
+        }
+        entry.references++;
+        return true;
+    }
+
+    /**
+     * Remove a reference from a cached asset (the asset stays cached until evicted)
+     *
+     * @param key Key of the asset
+     * @param value The asset
+     */
+    public synchronized void release(K key, V value){
+        Entry<V> entry = entries.get(key);
+        if(entry != null && entry.value == value && entry.references > 0){
+            entry.references--;
+        }
+    }
+
+    /**
+     * Dispose of the least recently used unreferenced assets until the total size fits the budget
+     *
+     * @return Number of evicted assets
+     */
+    public int trim(){
+        // Collect the victims under the lock and dispose of them outside of it
+        List<V> victims = new ArrayList<>();
+        synchronized (this){
+            Iterator<Entry<V>> it = entries.values().iterator();
+            while(size > budget && it.hasNext()){
+                Entry<V> entry = it.next();
+                if(entry.references == 0){
+                    it.remove();
+                    size -= sizeOf.applyAsLong(entry.value);
+                    evictions++;
+                    victims.add(entry.value);
+                }
+            }
+        }
+        victims.forEach(dispose);
+        return victims.size();
+    }
+
+    /**
+     * Dispose of all assets regardless of references
+     */
+    public void clear(){
+        List<V> victims = new ArrayList<>();
+        synchronized (this){
+            entries.values().forEach(e -> victims.add(e.value));
+            entries.clear();
+            size = 0;
+        }
+        victims.forEach(dispose);
+    }
+
+    /**
+     * Return the number of references to the asset under a key
+     *
+     * @param key Key of the asset
+     * @return Number of references ({@code 0} when not cached)
+     */
+    public synchronized int getReferences(K key){
+        Entry<V> entry = entries.get(key);
+        return entry == null ? 0 : entry.references;
+    }
+
+    /**
+     * Whether an asset is cached under a key (does not count as an access)
+     *
+     * @param key Key of the asset
+     * @return Whether the key is cached
+     */
+    public synchronized boolean contains(K key){
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Return the memory budget
+     *
+     * @return Memory budget (in bytes)
+     */
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Set the memory budget (takes effect on the next trim)
+     *
+     * @param budget New memory budget (in bytes)
+     */
+    public synchronized void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Return the total size of the cached assets
+     *
+     * @return Total size (in bytes)
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Return the number of requests served from the cache
+     *
+     * @return Number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Return the number of requests that loaded the asset
+     *
+     * @return Number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Return the number of evicted assets
+     *
+     * @return Number of evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Loader of an asset
+     *
+     * @param <K> Key type
+     * @param <V> Asset type
+     */
+    @FunctionalInterface
+    public interface Loader<K, V>{
+        /**
+         * Load the asset under a key
+         *
+         * @param key Key of the asset
+         * @return The asset
+         * @throws IOException When the asset cannot be loaded
+         */
+        V load(K key) throws IOException;
+    }
+
+    /**
+     * Cached asset with its reference count
+     *
+     * @param <V> Asset type
+     */
+    private static class Entry<V>{
+        /** The asset */
+        final V value;
+        /** Number of references */
+        int references = 0;
+
+        /**
+         * Construct an unreferenced entry
+         *
+         * @param value The asset
+         */
+        Entry(V value){
+            this.value = value;
+        }
+    }
+}
@@ -73,6 +73,15 @@ public class Color {
         this.color = color;
     }
 
+    /**
+     * Sets the colour to a copy of another one
+     *
+     * @param other The colour to copy
+     */
+    public void set(Color other){
+        color = other.color;
+    }
+
     /**
      * Returns the integer representation of the colour
      * 
@@ -43,8 +43,28 @@ public class Delta {
         //Update delta
         long now = System.nanoTime();
         delta = now - last;
+        count(now);
+    }
+
+    /**
+     * Marks an update of a known length (such as a fixed time step).
+     * Sets delta to the length, and updates last and upsTime values and calculates UPS if needed.
+     *
+     * @param length The length of the update (in ns)
+     */
+    public void update(long length){
+        delta = length;
+        count(System.nanoTime());
+    }
+
+    /**
+     * Counts an update for the UPS
+     *
+     * @param now The current time (in ns)
+     */
+    private void count(long now){
+        upsTime += now - last;
         last = now;
-        upsTime += delta;
         upsCounter++;
 
         //Update UPS
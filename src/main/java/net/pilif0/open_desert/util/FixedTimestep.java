@@ -0,0 +1,116 @@
+package net.pilif0.open_desert.util;
+
+/**
+ * Accumulates elapsed time into fixed time steps, decoupling the simulation rate from the frame rate.
+ * Every frame {@link #advance()} returns the number of steps to simulate. The time left over (less than one step) is
+ *  carried to the next frame and exposed as the interpolation alpha between the last two simulated states. The number
+ *  of steps per frame is clamped, so that a long frame (for example a hitch or a debugger pause) drops the excess time
+ *  instead of spiralling into ever longer catch-ups.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class FixedTimestep {
+    /** Default maximal number of steps per frame */
+    public static final int DEFAULT_MAX_STEPS = 5;
+
+    /** Length of a step (in ns) */
+    private final long step;
+    /** Maximal number of steps per frame */
+    private final int maxSteps;
+    /** Elapsed time not yet simulated (in ns) */
+    private long accumulator;
+    /** Time of the last advance (in ns) */
+    private long last;
+    /** Elapsed time dropped by the clamping (in ns) */
+    private long dropped;
+
+    /**
+     * Constructs the time step from its rate
+     *
+     * @param rate Number of steps per second
+     * @param maxSteps Maximal number of steps per frame
+     */
+    public FixedTimestep(int rate, int maxSteps){
+        if(rate <= 0 || maxSteps <= 0){
+            throw new IllegalArgumentException("The rate and the maximal number of steps have to be positive");
+        }
+        this.step = Delta.SECOND / rate;
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Starts measuring the elapsed time from now
+     */
+    public void start(){
+        accumulator = 0;
+        last = System.nanoTime();
+    }
+
+    /**
+     * Accumulates the time elapsed since the last advance (or start) and returns the number of steps to simulate
+     *
+     * @return Number of steps to simulate
+     */
+    public int advance(){
+        long now = System.nanoTime();
+        long elapsed = now - last;
+        last = now;
+        return advance(elapsed);
+    }
+
+    /**
+     * Accumulates elapsed time and returns the number of steps to simulate
+     *
+     * @param elapsed Elapsed time (in ns)
+     * @return Number of steps to simulate
+     */
+    public int advance(long elapsed){
+        accumulator += elapsed;
+        long steps = accumulator / step;
+        if(steps > maxSteps){
+            // Drop the whole steps over the limit, keeping the fraction for the interpolation
+            dropped += (steps - maxSteps) * step;
+            steps = maxSteps;
+        }
+        accumulator -= steps * step;
+        accumulator %= step;
+        return (int) steps;
+    }
+
+    /**
+     * Returns the interpolation alpha - the fraction of a step elapsed since the last simulated step
+     *
+     * @return Alpha in {@code [0, 1)}
+     */
+    public float getAlpha(){
+        return (float) accumulator / step;
+    }
+
+    /**
+     * Returns the length of a step (in ns)
+     *
+     * @return Length of a step
+     */
+    public long getStep(){
+        return step;
+    }
+
+    /**
+     * Returns the maximal number of steps per frame
+     *
+     * @return Maximal number of steps
+     */
+    public int getMaxSteps(){
+        return maxSteps;
+    }
+
+    /**
+     * Returns the total elapsed time dropped by the clamping (in ns)
+     *
+     * @return Dropped time
+     */
+    public long getDroppedTime(){
+        return dropped;
+    }
+}
@@ -213,7 +213,7 @@ public class Window {
      * @return The window position
      */
     public Vector2fc getPosition(){
-        return position.toImmutable();
+        return position;
     }
 
     /**
@@ -232,7 +232,7 @@ public class Window {
      * @return The window size
      */
     public Vector2ic getSize(){
-        return size.toImmutable();
+        return size;
     }
 
     /**
@@ -251,7 +251,7 @@ public class Window {
      *
      * @return The window resolution
      */
-    public Vector2ic getResolution(){ return resolution.toImmutable(); }
+    public Vector2ic getResolution(){ return resolution; }
 
     /**
      * Changes teh window resolution
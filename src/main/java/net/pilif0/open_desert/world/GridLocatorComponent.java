@@ -0,0 +1,114 @@
+package net.pilif0.open_desert.world;
+
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.Components;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.ecs.GameObjectEvent;
+import net.pilif0.open_desert.ecs.Template;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Runtime component attached by a spatial hash grid to each game object it contains.
+ * Remembers the slot of the game object in the grid and queues the game object for relocation whenever its position
+ *  (or, with a bounds component, its extent) changes.
+ * Not declared for templates and never serialised.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class GridLocatorComponent implements Component {
+    /** Name of this component */
+    public static final String NAME = "grid_locator";
+    /** ID of this component */
+    public static final int ID = Components.getId(NAME);
+
+    /** Grid the game object is in */
+    final SpatialHashGrid grid;
+    /** Slot of the game object in the grid ({@code -1} when not in the grid) */
+    int slot = -1;
+    /** Whether the game object is queued for relocation */
+    boolean queued;
+    /** Component's owner */
+    private GameObject owner;
+    /** Handler of the position changes */
+    private final Consumer<GameObjectEvent> positionHandler = e -> queue();
+    /** Handler of the rotation, scale and bounds changes (which only move game objects indexed by their extent) */
+    private final Consumer<GameObjectEvent> extentHandler = e -> {
+        if(TreeLocatorComponent.indexesExtent(owner)){
+            queue();
+        }
+    };
+
+    /**
+     * Construct the locator for a grid
+     *
+     * @param grid Grid the game object is in
+     */
+    GridLocatorComponent(SpatialHashGrid grid){
+        this.grid = grid;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void handle(GameObjectEvent e) {
+        getHandler(e.getClass()).accept(e);
+    }
+
+    @Override
+    public Consumer<GameObjectEvent> getHandler(Class<? extends GameObjectEvent> type) {
+        return PositionComponent.PositionEvent.class.isAssignableFrom(type) ? positionHandler : extentHandler;
+    }
+
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return TreeLocatorComponent.EVENT_TYPES;
+    }
+
+    /**
+     * Queue the game object for relocation (once until the next relocation)
+     */
+    void queue(){
+        if(!queued && owner != null){
+            queued = true;
+            grid.queueMoved(owner);
+        }
+    }
+
+    @Override
+    public void onAttach(GameObject owner) {
+        // Remember who the component is attached to
+        this.owner = owner;
+    }
+
+    @Override
+    public void onDetach(GameObject owner) {
+        // Forget the owner
+        this.owner = null;
+    }
+
+    @Override
+    public void overrideFields(Map<String, Object> overrides) {}
+
+    @Override
+    public Object toYaml(Template t) {
+        // Runtime state only
+        return null;
+    }
+
+    /**
+     * Return the slot of the game object in the grid
+     *
+     * @return Slot or {@code -1} when not in the grid
+     */
+    public int getSlot() {
+        return slot;
+    }
+}
@@ -0,0 +1,87 @@
+package net.pilif0.open_desert.world;
+
+import net.pilif0.open_desert.ecs.Condition;
+import net.pilif0.open_desert.ecs.GameObject;
+
+/**
+ * State of a k-nearest neighbour search in a spatial index.
+ * Keeps the game objects found so far ordered from the closest, so the search can prune everything farther than the
+ *  current k-th one.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+class NearestSearch {
+    /** Point x coordinate */
+    float x;
+    /** Point y coordinate */
+    float y;
+    /** Condition to satisfy ({@code null} for none) */
+    Condition cond;
+    /** Game objects found so far, ordered from the closest */
+    GameObject[] dest;
+    /** Squared distances of the game objects found so far */
+    float[] dist = new float[0];
+    /** Number of game objects found so far */
+    int count;
+
+    /**
+     * Start a new search
+     *
+     * @param x Point x coordinate
+     * @param y Point y coordinate
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param dest Destination array
+     */
+    void begin(float x, float y, Condition cond, GameObject[] dest){
+        this.x = x;
+        this.y = y;
+        this.cond = cond;
+        this.dest = dest;
+        if(dist.length < dest.length){
+            dist = new float[dest.length];
+        }
+        count = 0;
+    }
+
+    /**
+     * Finish the search, forgetting the destination and condition
+     *
+     * @return Number of game objects found
+     */
+    int end(){
+        dest = null;
+        cond = null;
+        return count;
+    }
+
+    /**
+     * Whether a squared distance can still improve the result
+     *
+     * @param d Squared distance
+     * @return Whether the distance is lower than the current k-th one (or fewer than k were found)
+     */
+    boolean accepts(float d){
+        return count < dest.length || d < dist[count - 1];
+    }
+
+    /**
+     * Offer a game object to the result, keeping it ordered
+     *
+     * @param go Game object
+     * @param d Squared distance of the game object
+     */
+    void offer(GameObject go, float d){
+        if(!accepts(d)){
+            return;
+        }
+        int i = count < dest.length ? count++ : count - 1;
+        while(i > 0 && dist[i - 1] > d){
+            dest[i] = dest[i - 1];
+            dist[i] = dist[i - 1];
+            i--;
+        }
+        dest[i] = go;
+        dist[i] = d;
+    }
+}
@@ -0,0 +1,564 @@
+package net.pilif0.open_desert.world;
+
+import net.pilif0.open_desert.components.BoundsComponent;
+import net.pilif0.open_desert.components.WorldMatrixComponent;
+import net.pilif0.open_desert.ecs.Condition;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.ecs.GameObjectEvent;
+import org.joml.Vector2fc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Spatial index hashing game objects into the cells of an unbounded uniform grid by their position.
+ * Each game object occupies a slot in primitive arrays that also hold a copy of its position, half-extents and cell, and
+ *  the slots of each hash bucket form a doubly linked list of slot indices. Queries only walk the buckets of the
+ *  covered cells and test the copied boxes, without touching the game objects until they match.
+ * Like the loose world tree, the grid remembers the largest half-extents it has seen and grows queries by them, so
+ *  game objects with large boxes are found wherever they overlap the query.
+ * Works best for worlds of roughly uniform density with a cell size close to the typical query size. Queries see
+ *  the positions as of the last relocation.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SpatialHashGrid implements SpatialIndex {
+    /** Initial number of slots and buckets */
+    public static final int INITIAL_CAPACITY = 64;
+
+    /** Length of one side of a cell */
+    private final float cellSize;
+    /** Inverse of the cell size */
+    private final float inverse;
+
+    // Slots (one per game object, freed slots are reused)
+    /** Game object in each slot ({@code null} for free slots) */
+    private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+    /** Position x coordinate in each slot */
+    private float[] posX = new float[INITIAL_CAPACITY];
+    /** Position y coordinate in each slot */
+    private float[] posY = new float[INITIAL_CAPACITY];
+    /** Half-extent along x in each slot ({@code 0} without bounds) */
+    private float[] extX = new float[INITIAL_CAPACITY];
+    /** Half-extent along y in each slot ({@code 0} without bounds) */
+    private float[] extY = new float[INITIAL_CAPACITY];
+    /** Cell x coordinate of each slot */
+    private int[] cellX = new int[INITIAL_CAPACITY];
+    /** Cell y coordinate of each slot */
+    private int[] cellY = new int[INITIAL_CAPACITY];
+    /** Next slot in the same bucket, or the next free slot for free slots ({@code -1} for none) */
+    private int[] next = new int[INITIAL_CAPACITY];
+    /** Previous slot in the same bucket ({@code -1} for none) */
+    private int[] prev = new int[INITIAL_CAPACITY];
+    /** First slot of each bucket ({@code -1} for none) */
+    private int[] heads = new int[INITIAL_CAPACITY];
+    /** Number of slots ever used */
+    private int used;
+    /** First free slot ({@code -1} for none) */
+    private int free = -1;
+    /** Number of game objects in the grid */
+    private int count;
+
+    // Loose bounds of the contents (only grow until the next rehash)
+    /** Largest half-extent along x */
+    private float maxExtX;
+    /** Largest half-extent along y */
+    private float maxExtY;
+    /** Minimal occupied cell x coordinate */
+    private int minCellX = Integer.MAX_VALUE;
+    /** Minimal occupied cell y coordinate */
+    private int minCellY = Integer.MAX_VALUE;
+    /** Maximal occupied cell x coordinate */
+    private int maxCellX = Integer.MIN_VALUE;
+    /** Maximal occupied cell y coordinate */
+    private int maxCellY = Integer.MIN_VALUE;
+
+    /** Game objects whose position changed since the last relocation */
+    private final List<GameObject> moved = new ArrayList<>();
+    /** Reused state of the nearest neighbour search */
+    private final NearestSearch nearest = new NearestSearch();
+
+    /**
+     * Construct an empty grid
+     *
+     * @param cellSize Length of one side of a cell
+     */
+    public SpatialHashGrid(float cellSize){
+        this.cellSize = cellSize;
+        this.inverse = 1 / cellSize;
+        Arrays.fill(heads, -1);
+    }
+
+    @Override
+    public void add(GameObject go){
+        GridLocatorComponent locator = new GridLocatorComponent(this);
+        go.addComponent(locator);
+
+        // Take a slot
+        int slot;
+        if(free != -1){
+            slot = free;
+            free = next[free];
+        }else{
+            if(used == objects.length){
+                growSlots();
+            }
+            slot = used++;
+        }
+        objects[slot] = go;
+        locator.slot = slot;
+        store(slot);
+        link(slot);
+
+        // Keep the buckets at least as many as the game objects
+        if(++count > heads.length){
+            rehash(2 * heads.length);
+        }
+    }
+
+    @Override
+    public boolean remove(GameObject go){
+        GridLocatorComponent locator = getLocator(go);
+        if(locator == null){
+            return false;
+        }
+
+        // Free the slot
+        int slot = locator.slot;
+        unlink(slot);
+        objects[slot] = null;
+        next[slot] = free;
+        free = slot;
+        count--;
+        locator.slot = -1;
+        go.removeComponent(locator);
+        return true;
+    }
+
+    /**
+     * Return the locator of a game object in this grid
+     *
+     * @param go Game object
+     * @return Locator or {@code null} when the game object was not added to this grid
+     */
+    private GridLocatorComponent getLocator(GameObject go){
+        GridLocatorComponent locator = (GridLocatorComponent) go.getComponent(GridLocatorComponent.ID);
+        return (locator != null && locator.grid == this && locator.slot != -1) ? locator : null;
+    }
+
+    @Override
+    public void markMoved(GameObject go){
+        GridLocatorComponent locator = getLocator(go);
+        if(locator != null){
+            WorldMatrixComponent.invalidate(go);
+            locator.queue();
+        }
+    }
+
+    /**
+     * Queue a game object for relocation (called by its locator)
+     *
+     * @param go Game object that moved
+     */
+    void queueMoved(GameObject go){
+        moved.add(go);
+    }
+
+    @Override
+    public void relocate(){
+        for(int i = 0; i < moved.size(); i++){
+            GameObject go = moved.get(i);
+            GridLocatorComponent locator = getLocator(go);
+            if(locator == null){
+                // Removed since it was queued
+                continue;
+            }
+            locator.queued = false;
+
+            // Only move between buckets when the cell changed
+            int slot = locator.slot;
+            float px = go.position.getX();
+            float py = go.position.getY();
+            if(cell(px) != cellX[slot] || cell(py) != cellY[slot]){
+                unlink(slot);
+                store(slot);
+                link(slot);
+            }else{
+                store(slot);
+            }
+        }
+        moved.clear();
+    }
+
+    @Override
+    public void update(long delta){
+        GameObjectEvent event = GameObject.UpdateEvent.pooled(delta);
+        for(int i = 0; i < used; i++){
+            GameObject go = objects[i];
+            if(go != null){
+                go.distributeEvent(event);
+            }
+        }
+        relocate();
+    }
+
+    @Override
+    public List<GameObject> getByCondition(Condition cond){
+        List<GameObject> result = new ArrayList<>();
+        for(int i = 0; i < used; i++){
+            GameObject go = objects[i];
+            if(go != null && cond.check(go)){
+                result.add(go);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void queryRect(float minX, float minY, float maxX, float maxY, Condition cond, Consumer<GameObject> visitor){
+        if(count == 0){
+            return;
+        }
+
+        // Cells that can hold a matching position (grown by the extents and clamped to the occupied cells)
+        int x0 = Math.max(cell(minX - maxExtX), minCellX);
+        int y0 = Math.max(cell(minY - maxExtY), minCellY);
+        int x1 = Math.min(cell(maxX + maxExtX), maxCellX);
+        int y1 = Math.min(cell(maxY + maxExtY), maxCellY);
+        if(x0 > x1 || y0 > y1){
+            return;
+        }
+
+        if((long) (x1 - x0 + 1) * (y1 - y0 + 1) > used){
+            // Scanning the slots is cheaper than walking the cells
+            for(int s = 0; s < used; s++){
+                if(objects[s] != null){
+                    visitRect(s, minX, minY, maxX, maxY, cond, visitor);
+                }
+            }
+            return;
+        }
+        for(int x = x0; x <= x1; x++){
+            for(int y = y0; y <= y1; y++){
+                for(int s = heads[bucket(x, y)]; s != -1; s = next[s]){
+                    if(cellX[s] == x && cellY[s] == y){
+                        visitRect(s, minX, minY, maxX, maxY, cond, visitor);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit the game object in a slot when its box intersects a rectangle
+     *
+     * @param s Slot
+     * @param minX Minimal x coordinate of the rectangle
+     * @param minY Minimal y coordinate of the rectangle
+     * @param maxX Maximal x coordinate of the rectangle
+     * @param maxY Maximal y coordinate of the rectangle
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param visitor Action to perform for the game object
+     */
+    private void visitRect(int s, float minX, float minY, float maxX, float maxY, Condition cond,
+                           Consumer<GameObject> visitor){
+        if(posX[s] + extX[s] >= minX && posX[s] - extX[s] <= maxX && posY[s] + extY[s] >= minY &&
+                posY[s] - extY[s] <= maxY && (cond == null || cond.check(objects[s]))){
+            visitor.accept(objects[s]);
+        }
+    }
+
+    @Override
+    public void queryCircle(float x, float y, float radius, Condition cond, Consumer<GameObject> visitor){
+        if(count == 0){
+            return;
+        }
+
+        // Cells that can hold a matching position (grown by the extents and clamped to the occupied cells)
+        int x0 = Math.max(cell(x - radius - maxExtX), minCellX);
+        int y0 = Math.max(cell(y - radius - maxExtY), minCellY);
+        int x1 = Math.min(cell(x + radius + maxExtX), maxCellX);
+        int y1 = Math.min(cell(y + radius + maxExtY), maxCellY);
+        if(x0 > x1 || y0 > y1){
+            return;
+        }
+
+        float radiusSq = radius * radius;
+        if((long) (x1 - x0 + 1) * (y1 - y0 + 1) > used){
+            // Scanning the slots is cheaper than walking the cells
+            for(int s = 0; s < used; s++){
+                if(objects[s] != null){
+                    visitCircle(s, x, y, radiusSq, cond, visitor);
+                }
+            }
+            return;
+        }
+        for(int cx = x0; cx <= x1; cx++){
+            for(int cy = y0; cy <= y1; cy++){
+                for(int s = heads[bucket(cx, cy)]; s != -1; s = next[s]){
+                    if(cellX[s] == cx && cellY[s] == cy){
+                        visitCircle(s, x, y, radiusSq, cond, visitor);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit the game object in a slot when its box is within a radius of a point
+     *
+     * @param s Slot
+     * @param x Center x coordinate
+     * @param y Center y coordinate
+     * @param radiusSq Squared radius of the circle
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param visitor Action to perform for the game object
+     */
+    private void visitCircle(int s, float x, float y, float radiusSq, Condition cond, Consumer<GameObject> visitor){
+        float dx = Math.max(Math.abs(posX[s] - x) - extX[s], 0);
+        float dy = Math.max(Math.abs(posY[s] - y) - extY[s], 0);
+        if(dx * dx + dy * dy <= radiusSq && (cond == null || cond.check(objects[s]))){
+            visitor.accept(objects[s]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Searches rings of cells around the point, stopping once a ring cannot hold anything closer than the current k-th
+     *  game object.
+     * Not thread-safe (reuses the search state of the grid).
+     */
+    @Override
+    public int queryNearest(float x, float y, Condition cond, GameObject[] dest){
+        if(dest.length == 0){
+            return 0;
+        }
+        nearest.begin(x, y, cond, dest);
+        if(count == 0){
+            return nearest.end();
+        }
+
+        // Start at the first ring reaching the occupied cells and end at the last one
+        int cx = cell(x);
+        int cy = cell(y);
+        int first = Math.max(Math.max(minCellX - cx, cx - maxCellX), Math.max(minCellY - cy, cy - maxCellY));
+        int last = Math.max(Math.max(cx - minCellX, maxCellX - cx), Math.max(cy - minCellY, maxCellY - cy));
+        for(int r = Math.max(first, 0); r <= last; r++){
+            // Everything in the ring is farther than r - 1 cells
+            float d = (r - 1) * cellSize;
+            if(r > 0 && !nearest.accepts(d * d)){
+                break;
+            }
+            nearestRing(cx, cy, r);
+        }
+        return nearest.end();
+    }
+
+    /**
+     * Continue a nearest neighbour search in the occupied cells of a ring around a cell
+     *
+     * @param cx Center cell x coordinate
+     * @param cy Center cell y coordinate
+     * @param r Chebyshev radius of the ring in cells
+     */
+    private void nearestRing(int cx, int cy, int r){
+        if(r == 0){
+            nearestCell(cx, cy);
+            return;
+        }
+
+        // Bottom and top rows
+        int x0 = Math.max(cx - r, minCellX);
+        int x1 = Math.min(cx + r, maxCellX);
+        for(int x = x0; x <= x1; x++){
+            if(cy - r >= minCellY) nearestCell(x, cy - r);
+            if(cy + r <= maxCellY) nearestCell(x, cy + r);
+        }
+
+        // Left and right columns (without the corners)
+        int y0 = Math.max(cy - r + 1, minCellY);
+        int y1 = Math.min(cy + r - 1, maxCellY);
+        for(int y = y0; y <= y1; y++){
+            if(cx - r >= minCellX) nearestCell(cx - r, y);
+            if(cx + r <= maxCellX) nearestCell(cx + r, y);
+        }
+    }
+
+    /**
+     * Continue a nearest neighbour search in a cell
+     *
+     * @param x Cell x coordinate
+     * @param y Cell y coordinate
+     */
+    private void nearestCell(int x, int y){
+        NearestSearch n = nearest;
+        for(int s = heads[bucket(x, y)]; s != -1; s = next[s]){
+            if(cellX[s] != x || cellY[s] != y){
+                continue;
+            }
+            float dx = posX[s] - n.x;
+            float dy = posY[s] - n.y;
+            float d = dx * dx + dy * dy;
+            if(n.accepts(d) && (n.cond == null || n.cond.check(objects[s]))){
+                n.offer(objects[s], d);
+            }
+        }
+    }
+
+    @Override
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Copy the position, half-extents and cell of the game object in a slot, growing the loose bounds
+     *
+     * @param slot Slot
+     */
+    private void store(int slot){
+        GameObject go = objects[slot];
+        float px = go.position.getX();
+        float py = go.position.getY();
+        posX[slot] = px;
+        posY[slot] = py;
+        BoundsComponent bounds = (BoundsComponent) go.getComponent(BoundsComponent.ID);
+        if(bounds != null){
+            Vector2fc e = bounds.getHalfExtents();
+            extX[slot] = e.x();
+            extY[slot] = e.y();
+        }else{
+            extX[slot] = 0;
+            extY[slot] = 0;
+        }
+        cellX[slot] = cell(px);
+        cellY[slot] = cell(py);
+        grow(slot);
+    }
+
+    /**
+     * Grow the loose bounds to cover a slot
+     *
+     * @param slot Slot
+     */
+    private void grow(int slot){
+        maxExtX = Math.max(maxExtX, extX[slot]);
+        maxExtY = Math.max(maxExtY, extY[slot]);
+        minCellX = Math.min(minCellX, cellX[slot]);
+        minCellY = Math.min(minCellY, cellY[slot]);
+        maxCellX = Math.max(maxCellX, cellX[slot]);
+        maxCellY = Math.max(maxCellY, cellY[slot]);
+    }
+
+    /**
+     * Insert a slot at the front of the bucket of its cell
+     *
+     * @param slot Slot
+     */
+    private void link(int slot){
+        int b = bucket(cellX[slot], cellY[slot]);
+        int head = heads[b];
+        prev[slot] = -1;
+        next[slot] = head;
+        if(head != -1){
+            prev[head] = slot;
+        }
+        heads[b] = slot;
+    }
+
+    /**
+     * Remove a slot from the bucket of its cell
+     *
+     * @param slot Slot
+     */
+    private void unlink(int slot){
+        int p = prev[slot];
+        int n = next[slot];
+        if(p != -1){
+            next[p] = n;
+        }else{
+            heads[bucket(cellX[slot], cellY[slot])] = n;
+        }
+        if(n != -1){
+            prev[n] = p;
+        }
+    }
+
+    /**
+     * Double the number of slots
+     */
+    private void growSlots(){
+        int capacity = 2 * objects.length;
+        objects = Arrays.copyOf(objects, capacity);
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        extX = Arrays.copyOf(extX, capacity);
+        extY = Arrays.copyOf(extY, capacity);
+        cellX = Arrays.copyOf(cellX, capacity);
+        cellY = Arrays.copyOf(cellY, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+    }
+
+    /**
+     * Rebuild the buckets with a new bucket count, tightening the loose bounds
+     *
+     * @param buckets New number of buckets (a power of two)
+     */
+    private void rehash(int buckets){
+        heads = new int[buckets];
+        Arrays.fill(heads, -1);
+        maxExtX = 0;
+        maxExtY = 0;
+        minCellX = Integer.MAX_VALUE;
+        minCellY = Integer.MAX_VALUE;
+        maxCellX = Integer.MIN_VALUE;
+        maxCellY = Integer.MIN_VALUE;
+        for(int s = 0; s < used; s++){
+            if(objects[s] != null){
+                grow(s);
+                link(s);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the buckets, tightening the loose bounds after game objects shrank, left or were removed
+     */
+    public void rebuild(){
+        rehash(heads.length);
+    }
+
+    /**
+     * Calculate the cell coordinate of a world coordinate
+     *
+     * @param v World coordinate
+     * @return Cell coordinate
+     */
+    private int cell(float v){
+        return (int) Math.floor(v * inverse);
+    }
+
+    /**
+     * Calculate the bucket of a cell
+     *
+     * @param x Cell x coordinate
+     * @param y Cell y coordinate
+     * @return Bucket index
+     */
+    private int bucket(int x, int y){
+        int h = x * 0x9E3779B1 ^ y * 0x85EBCA77;
+        return (h ^ (h >>> 16)) & (heads.length - 1);
+    }
+
+    /**
+     * Return the length of one side of a cell
+     *
+     * @return Cell size
+     */
+    public float getCellSize() {
+        return cellSize;
+    }
+}
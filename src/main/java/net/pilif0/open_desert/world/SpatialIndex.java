@@ -0,0 +1,120 @@
+package net.pilif0.open_desert.world;
+
+import net.pilif0.open_desert.ecs.Condition;
+import net.pilif0.open_desert.ecs.GameObject;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Spatial index of game objects by their position (and box, when they have a bounds component).
+ * Game objects that move are only relocated in the index on {@link #relocate()} (or {@link #update(long)}), which
+ *  the index learns about from their position events or from {@link #markMoved(GameObject)}.
+ * Implementations are not thread-safe.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public interface SpatialIndex {
+    /**
+     * Add a game object to the index
+     *
+     * @param go Game object to add
+     */
+    void add(GameObject go);
+
+    /**
+     * Remove a game object from the index
+     *
+     * @param go Game object to remove
+     * @return Whether the game object was in the index
+     */
+    boolean remove(GameObject go);
+
+    /**
+     * Mark a game object as moved, so that it is relocated on the next relocation and its world matrix is recalculated.
+     * Needed only for position changes that do not emit a position event.
+     *
+     * @param go Game object that moved
+     */
+    void markMoved(GameObject go);
+
+    /**
+     * Relocate the game objects that moved since the last relocation, so that queries find them at their new positions
+     */
+    void relocate();
+
+    /**
+     * Update all game objects in the index and relocate the ones that moved
+     *
+     * @param delta Delta time in ns
+     */
+    void update(long delta);
+
+    /**
+     * Get the game objects in the index based on a condition
+     *
+     * @param cond Condition to check
+     * @return Game objects for which the condition holds
+     */
+    List<GameObject> getByCondition(Condition cond);
+
+    /**
+     * Visit the game objects whose position (or box, when bounded) intersects an axis-aligned rectangle (borders
+     *  included)
+     *
+     * @param minX Minimal x coordinate of the rectangle
+     * @param minY Minimal y coordinate of the rectangle
+     * @param maxX Maximal x coordinate of the rectangle
+     * @param maxY Maximal y coordinate of the rectangle
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param visitor Action to perform for each game object found
+     */
+    void queryRect(float minX, float minY, float maxX, float maxY, Condition cond, Consumer<GameObject> visitor);
+
+    /**
+     * Add the game objects whose position (or box, when bounded) intersects an axis-aligned rectangle (borders
+     *  included) to a list.
+     * Unlike {@link #queryRect(float, float, float, float, Condition, Consumer)}, the index may search in parallel.
+     *
+     * @param minX Minimal x coordinate of the rectangle
+     * @param minY Minimal y coordinate of the rectangle
+     * @param maxX Maximal x coordinate of the rectangle
+     * @param maxY Maximal y coordinate of the rectangle
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param dest List to add the game objects to
+     */
+    default void collectRect(float minX, float minY, float maxX, float maxY, Condition cond, List<GameObject> dest){
+        queryRect(minX, minY, maxX, maxY, cond, dest::add);
+    }
+
+    /**
+     * Visit the game objects whose position (or box, when bounded) is within a radius of a point (border included)
+     *
+     * @param x Center x coordinate
+     * @param y Center y coordinate
+     * @param radius Radius of the circle
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param visitor Action to perform for each game object found
+     */
+    void queryCircle(float x, float y, float radius, Condition cond, Consumer<GameObject> visitor);
+
+    /**
+     * Find the game objects whose positions are closest to a point.
+     * Fills the destination with up to {@code dest.length} game objects ordered from the closest.
+     *
+     * @param x Point x coordinate
+     * @param y Point y coordinate
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param dest Destination array, its length is the number of game objects to find
+     * @return Number of game objects found (the rest of the destination is left unchanged)
+     */
+    int queryNearest(float x, float y, Condition cond, GameObject[] dest);
+
+    /**
+     * Return the number of game objects in the index
+     *
+     * @return Number of game objects
+     */
+    int size();
+}
@@ -0,0 +1,138 @@
+package net.pilif0.open_desert.world;
+
+import net.pilif0.open_desert.components.BoundsComponent;
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.components.RotationComponent;
+import net.pilif0.open_desert.components.ScaleComponent;
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.Components;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.ecs.GameObjectEvent;
+import net.pilif0.open_desert.ecs.Template;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Runtime component attached by a world tree to each game object it contains.
+ * Remembers the leaf quad holding the game object and queues the game object for relocation in the tree whenever its
+ *  position (or, with a bounds component, its extent) changes, so the tree only has to look at game objects that moved.
+ * Not declared for templates and never serialised.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class TreeLocatorComponent implements Component {
+    /** Name of this component */
+    public static final String NAME = "tree_locator";
+    /** ID of this component */
+    public static final int ID = Components.getId(NAME);
+    /** Types of events that may change where a game object is indexed */
+    static final List<Class<? extends GameObjectEvent>> EVENT_TYPES = Arrays.asList(
+            PositionComponent.PositionEvent.class, RotationComponent.RotationEvent.class,
+            ScaleComponent.ScaleEvent.class, BoundsComponent.BoundsEvent.class);
+
+    /** Tree the game object is in */
+    final WorldTree tree;
+    /** Leaf quad holding the game object ({@code null} when not in the tree) */
+    WorldTree.Quad leaf;
+    /** Whether the game object is queued for relocation */
+    boolean queued;
+    /** Position x of the game object at its last relocation */
+    float x;
+    /** Position y of the game object at its last relocation */
+    float y;
+    /** Component's owner */
+    private GameObject owner;
+    /** Handler of the position changes */
+    private final Consumer<GameObjectEvent> positionHandler = e -> queue();
+    /** Handler of the rotation, scale and bounds changes (which only move game objects indexed by their extent) */
+    private final Consumer<GameObjectEvent> extentHandler = e -> {
+        if(indexesExtent(owner)){
+            queue();
+        }
+    };
+
+    /**
+     * Construct the locator for a tree
+     *
+     * @param tree Tree the game object is in
+     */
+    TreeLocatorComponent(WorldTree tree){
+        this.tree = tree;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void handle(GameObjectEvent e) {
+        getHandler(e.getClass()).accept(e);
+    }
+
+    @Override
+    public Consumer<GameObjectEvent> getHandler(Class<? extends GameObjectEvent> type) {
+        return PositionComponent.PositionEvent.class.isAssignableFrom(type) ? positionHandler : extentHandler;
+    }
+
+    @Override
+    public List<Class<? extends GameObjectEvent>> getEventTypes() {
+        return EVENT_TYPES;
+    }
+
+    /**
+     * Whether a game object is indexed by its extent (it has a bounds component), so that rotation, scale and bounds
+     *  changes move it as well
+     *
+     * @param owner Game object to check
+     * @return Whether the extent of the game object is indexed
+     */
+    static boolean indexesExtent(GameObject owner){
+        return owner != null && owner.getComponent(BoundsComponent.ID) != null;
+    }
+
+    /**
+     * Queue the game object for relocation (once until the next relocation).
+     * During a parallel update two threads may both queue the game object, which only relocates it twice.
+     */
+    void queue(){
+        if(!queued && owner != null){
+            queued = true;
+            tree.queueMoved(owner);
+        }
+    }
+
+    @Override
+    public void onAttach(GameObject owner) {
+        // Remember who the component is attached to
+        this.owner = owner;
+    }
+
+    @Override
+    public void onDetach(GameObject owner) {
+        // Forget the owner
+        this.owner = null;
+    }
+
+    @Override
+    public void overrideFields(Map<String, Object> overrides) {}
+
+    @Override
+    public Object toYaml(Template t) {
+        // Runtime state only
+        return null;
+    }
+
+    /**
+     * Return the leaf quad holding the game object
+     *
+     * @return Leaf quad or {@code null} when not in the tree
+     */
+    public WorldTree.Quad getLeaf() {
+        return leaf;
+    }
+}
@@ -1,30 +1,88 @@
 package net.pilif0.open_desert.world;
 
 import net.pilif0.open_desert.Launcher;
+import net.pilif0.open_desert.collision.CollisionSystem;
+import net.pilif0.open_desert.components.BoundsComponent;
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.components.WorldMatrixComponent;
+import net.pilif0.open_desert.ecs.Archetype;
+import net.pilif0.open_desert.ecs.ArchetypeStorage;
+import net.pilif0.open_desert.ecs.Component;
 import net.pilif0.open_desert.ecs.Condition;
+import net.pilif0.open_desert.ecs.EventQueue;
 import net.pilif0.open_desert.ecs.GameObject;
 import net.pilif0.open_desert.ecs.GameObjectEvent;
+import net.pilif0.open_desert.ecs.Query;
+import net.pilif0.open_desert.ecs.SystemScheduler;
+import net.pilif0.open_desert.ecs.UpdateSystem;
 import net.pilif0.open_desert.util.Severity;
 import org.joml.Vector2f;
 import org.joml.Vector2fc;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * Quad tree representation of the (2D) world utilising the position component of game objects.
  * The borders between quads belong to the "more positive" side - the one closer to the point (+infty,+infty).
  * The world is assumed to be square.
+ * Alongside the tree, the game objects are kept in an archetype storage for contiguous iteration by components.
+ * Leaves split when they overflow their content limit (down to a maximum depth, below which they keep the extra game
+ *  objects as an overflow bucket) and subtrees collapse back into one leaf once they hold at most half the limit.
+ * The tree is loose for game objects with a {@link BoundsComponent}: each quad also remembers the largest half-extents
+ *  in its subtree, and spatial queries grow the quad bounds by them and test the boxes of the game objects, so large
+ *  game objects are found wherever they overlap the query.
+ * Each game object in the tree gets a {@link TreeLocatorComponent} that remembers its leaf and queues it when its
+ *  position changes, so only the game objects that moved are relocated on update.
+ * The traversals are sequential by default. In the parallel mode (opt-in through
+ *  {@link #setMode(SystemScheduler.Mode)}), updates, condition searches and rectangle collection split subtrees above
+ *  a size threshold into fork/join tasks. Game objects moved during a parallel update are only queued (the queue is synchronised) and
+ *  relocated afterwards on the calling thread, so the tree never changes shape while it is traversed.
  *
  * @author Filip Smola
  * @version 1.0
  */
 // Yggdrasil
-public class WorldTree {
+public class WorldTree implements SpatialIndex {
     /** Root of the tree */
     public final Quad root;
+    /** Archetype storage of the game objects in the world */
+    public final ArchetypeStorage storage = new ArchetypeStorage();
+    /** Scheduler of the update systems running over the game objects in the world */
+    public final SystemScheduler systems = new SystemScheduler(storage);
+    /** Collision detection over the colliders in the world */
+    public final CollisionSystem collisions = new CollisionSystem(this);
+    /** Game objects whose position changed since the last relocation */
+    private final List<GameObject> moved = new ArrayList<>();
+    /** Queries of the update systems that write positions (which change the columns without position events) */
+    private final Map<UpdateSystem, Query> positionWriters = new IdentityHashMap<>();
+    /** Visitor queueing the game objects of a chunk whose position columns changed */
+    private final Consumer<Archetype.Chunk> positionScan = this::queueChanged;
+    /** Reused state of the nearest neighbour search */
+    private final NearestSearch nearest = new NearestSearch();
+    /** Pool to run the parallel traversals in */
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    /** Traversal mode (sequential unless the state opts in to the parallel one) */
+    private SystemScheduler.Mode mode = SystemScheduler.Mode.SEQUENTIAL;
+    /** Number of game objects in a subtree above which the parallel traversals split it into tasks */
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    /** Queue of deferred game object events flushed before the relocation ({@code null} for none) */
+    private EventQueue eventQueue;
+
+    /** The default number of game objects in a subtree above which the parallel traversals split it into tasks */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+    /** Qualified name of the position x column */
+    private static final String X_COLUMN = PositionComponent.NAME + ".x";
+    /** Qualified name of the position y column */
+    private static final String Y_COLUMN = PositionComponent.NAME + ".y";
 
     /**
      * Construct a world tree for a square world
@@ -32,10 +90,20 @@ public class WorldTree {
      * @param a Length of one side of the world
      */
     public WorldTree(float a){
+        this(a, Quad.DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Construct a world tree for a square world with a maximum depth
+     *
+     * @param a Length of one side of the world
+     * @param maxDepth Maximum depth of a quad (the root has depth 0)
+     */
+    public WorldTree(float a, int maxDepth){
         float h = a / 2;
         Vector2fc min = (new Vector2f(-h, -h)).toImmutable();
         Vector2fc max = (new Vector2f(h, h)).toImmutable();
-        root = new Quad(min, max);
+        root = new Quad(null, min, max, maxDepth);
     }
 
     /**
@@ -45,7 +113,18 @@ public class WorldTree {
      * @param max Corner with maximal coordinates
      */
     public WorldTree(Vector2fc min, Vector2fc max){
-        root = new Quad(min, max);
+        this(min, max, Quad.DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Construct a world tree for a rectangle world with a maximum depth
+     *
+     * @param min Corner with minimal coordinates
+     * @param max Corner with maximal coordinates
+     * @param maxDepth Maximum depth of a quad (the root has depth 0)
+     */
+    public WorldTree(Vector2fc min, Vector2fc max, int maxDepth){
+        root = new Quad(null, min, max, maxDepth);
     }
 
     /**
@@ -65,14 +144,362 @@ public class WorldTree {
     }
 
     /**
-     * Update the root, validate the tree, and reinsert any game objects that were in the wrong quad
+     * Add a game object to the world (both the tree and the archetype storage)
+     *
+     * @param go Game object to add
+     */
+    @Override
+    public void add(GameObject go){
+        // Attach the locator before storing to avoid migrating the game object
+        TreeLocatorComponent locator = new TreeLocatorComponent(this);
+        go.addComponent(locator);
+        storage.add(go);
+        root.add(go);
+        locator.x = go.position.getX();
+        locator.y = go.position.getY();
+    }
+
+    /**
+     * Remove a game object from the world (both the tree and the archetype storage)
+     *
+     * @param go Game object to remove
+     * @return Whether the game object was in the tree
+     */
+    @Override
+    public boolean remove(GameObject go){
+        storage.remove(go);
+        TreeLocatorComponent locator = getLocator(go);
+        if(locator == null){
+            return root.remove(go);
+        }
+
+        // Remove directly from the remembered leaf
+        Quad leaf = locator.leaf;
+        boolean result = leaf != null && leaf.removeContent(go);
+        locator.leaf = null;
+        if(result){
+            leaf.discount(null);
+            leaf.collapseUp();
+        }
+        go.removeComponent(locator);
+        return result;
+    }
+
+    /**
+     * Return the locator of a game object in this tree
+     *
+     * @param go Game object
+     * @return Locator or {@code null} when the game object was not added to this tree
+     */
+    private TreeLocatorComponent getLocator(GameObject go){
+        TreeLocatorComponent locator = (TreeLocatorComponent) go.getComponent(TreeLocatorComponent.ID);
+        return (locator != null && locator.tree == this) ? locator : null;
+    }
+
+    /**
+     * Mark a game object as moved, so that it is relocated on the next relocation.
+     * Needed only for position changes that do not emit a position event.
+     *
+     * @param go Game object that moved
+     */
+    @Override
+    public void markMoved(GameObject go){
+        TreeLocatorComponent locator = getLocator(go);
+        if(locator != null){
+            WorldMatrixComponent.invalidate(go);
+            locator.queue();
+        }
+    }
+
+    /**
+     * Queue a game object for relocation (called by its locator)
+     *
+     * @param go Game object that moved
+     */
+    void queueMoved(GameObject go){
+        // Game objects can move during a parallel update
+        synchronized(moved){
+            moved.add(go);
+        }
+    }
+
+    /**
+     * Move the game objects that moved since the last relocation to the leaves containing their new positions.
+     * Each game object climbs from its leaf to the nearest ancestor containing its position and descends from there.
+     */
+    @Override
+    public void relocate(){
+        for(int i = 0; i < moved.size(); i++){
+            GameObject go = moved.get(i);
+            TreeLocatorComponent locator = getLocator(go);
+            if(locator == null){
+                // Removed since it was queued
+                continue;
+            }
+            locator.queued = false;
+
+            // Only grow the extents for game objects still inside their leaf
+            Quad leaf = locator.leaf;
+            float px = go.position.getX();
+            float py = go.position.getY();
+            locator.x = px;
+            locator.y = py;
+            if(leaf == null){
+                continue;
+            }
+            if(leaf.contains(px, py)){
+                leaf.growUp(go);
+                continue;
+            }
+
+            // Climb to the nearest quad containing the position and add from there (from the root when outside)
+            leaf.removeContent(go);
+            Quad q = leaf.parent;
+            while(q != null && !q.contains(px, py)){
+                q = q.parent;
+            }
+            if(q == null){
+                leaf.discount(null);
+                root.add(go);
+            }else{
+                leaf.discount(q.parent);
+                q.add(go, false);
+                if(q.parent != null){
+                    q.parent.growUp(go);
+                }
+            }
+
+            // Merge the subtree the game object left when it became sparse
+            leaf.collapseUp();
+        }
+        moved.clear();
+    }
+
+    /**
+     * Return the number of game objects queued for relocation
+     *
+     * @return Number of queued game objects
+     */
+    public int getMovedCount(){
+        return moved.size();
+    }
+
+    /**
+     * Visit the game objects whose position (or box, when bounded) intersects an axis-aligned rectangle (borders
+     *  included).
+     * Only quads intersecting the rectangle are traversed.
+     *
+     * @param minX Minimal x coordinate of the rectangle
+     * @param minY Minimal y coordinate of the rectangle
+     * @param maxX Maximal x coordinate of the rectangle
+     * @param maxY Maximal y coordinate of the rectangle
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param visitor Action to perform for each game object found
+     */
+    @Override
+    public void queryRect(float minX, float minY, float maxX, float maxY, Condition cond, Consumer<GameObject> visitor){
+        root.queryRect(minX, minY, maxX, maxY, cond, visitor);
+    }
+
+    /**
+     * Visit the game objects whose position (or box, when bounded) is within a radius of a point (border included).
+     * Only quads intersecting the circle are traversed.
+     *
+     * @param x Center x coordinate
+     * @param y Center y coordinate
+     * @param radius Radius of the circle
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param visitor Action to perform for each game object found
+     */
+    @Override
+    public void queryCircle(float x, float y, float radius, Condition cond, Consumer<GameObject> visitor){
+        root.queryCircle(x, y, radius * radius, cond, visitor);
+    }
+
+    /**
+     * Find the game objects whose positions are closest to a point.
+     * Fills the destination with up to {@code dest.length} game objects ordered from the closest. Quads farther than
+     *  the current k-th closest game object are not traversed.
+     * Not thread-safe (reuses the search state of the tree).
+     *
+     * @param x Point x coordinate
+     * @param y Point y coordinate
+     * @param cond Condition to satisfy ({@code null} for none)
+     * @param dest Destination array, its length is the number of game objects to find
+     * @return Number of game objects found (the rest of the destination is left unchanged)
+     */
+    @Override
+    public int queryNearest(float x, float y, Condition cond, GameObject[] dest){
+        if(dest.length == 0){
+            return 0;
+        }
+        nearest.begin(x, y, cond, dest);
+        root.nearest(nearest);
+        return nearest.end();
+    }
+
+    @Override
+    public List<GameObject> getByCondition(Condition cond){
+        return isParallel() ? root.getByCondition(cond, pool, parallelThreshold) : root.getByCondition(cond);
+    }
+
+    @Override
+    public void collectRect(float minX, float minY, float maxX, float maxY, Condition cond, List<GameObject> dest){
+        if(isParallel()){
+            root.collectRect(minX, minY, maxX, maxY, cond, dest, pool, parallelThreshold);
+        }else{
+            root.queryRect(minX, minY, maxX, maxY, cond, dest::add);
+        }
+    }
+
+    /**
+     * Whether the traversals run in parallel (in the parallel mode when the tree holds more game objects than the
+     *  threshold)
+     *
+     * @return Whether to traverse in parallel
+     */
+    private boolean isParallel(){
+        return mode == SystemScheduler.Mode.PARALLEL && root.getCount() > parallelThreshold;
+    }
+
+    /**
+     * Return the traversal mode
+     *
+     * @return Traversal mode
+     */
+    public SystemScheduler.Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Set the traversal mode
+     *
+     * @param mode New traversal mode
+     */
+    public void setMode(SystemScheduler.Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Return the number of game objects in a subtree above which the parallel traversals split it into tasks
+     *
+     * @return Parallel threshold
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Set the number of game objects in a subtree above which the parallel traversals split it into tasks
+     *
+     * @param parallelThreshold New value
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Return the queue of deferred game object events flushed before the relocation
+     *
+     * @return Event queue or {@code null} for none
+     */
+    public EventQueue getEventQueue() {
+        return eventQueue;
+    }
+
+    /**
+     * Set the queue of deferred game object events to flush before the relocation, so that the game objects deferring
+     *  their events into it are relocated and collide in the same update
+     *
+     * @param eventQueue Event queue or {@code null} for none
+     */
+    public void setEventQueue(EventQueue eventQueue) {
+        this.eventQueue = eventQueue;
+    }
+
+    @Override
+    public int size(){
+        return root.getCount();
+    }
+
+    /**
+     * Register a live query over the game objects in the world.
+     * The result follows additions and removals of game objects and their components, so it can be kept instead of
+     *  calling {@link Quad#getByCondition(Condition)} repeatedly.
+     *
+     * @param cond Condition to satisfy
+     * @return Live query
+     */
+    public Query query(Condition cond){
+        return storage.query(cond);
+    }
+
+    /**
+     * Update the root (in parallel in the parallel mode), run the update systems, flush the deferred game object events,
+     *  relocate the game objects that moved, and detect collisions
      *
      * @param delta Delta time in ns
      */
+    @Override
     public void update(long delta) {
-        root.update(delta);
-        GameObject[] outside = root.validate();
-        for (GameObject go : outside) root.add(go);
+        if(isParallel()){
+            root.update(delta, pool, parallelThreshold);
+        }else{
+            root.update(delta);
+        }
+        systems.update(delta);
+        if(eventQueue != null){
+            eventQueue.flush();
+        }
+        queuePositionWrites();
+        relocate();
+        collisions.update();
+    }
+
+    /**
+     * Queue the game objects the update systems moved through the position columns and invalidate their world matrices
+     */
+    private void queuePositionWrites(){
+        for(List<UpdateSystem> stage : systems.getStages()){
+            for(UpdateSystem s : stage){
+                if(s.getWrites().get(PositionComponent.ID)){
+                    Query q = positionWriters.get(s);
+                    if(q == null){
+                        q = storage.query(s.getCondition());
+                        positionWriters.put(s, q);
+                    }
+                    q.forEachChunk(positionScan);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue the game objects of a chunk whose position columns differ from their position at the last relocation and
+     *  invalidate their world matrices
+     *
+     * @param chunk Chunk of a position writing update system
+     */
+    private void queueChanged(Archetype.Chunk chunk){
+        Archetype archetype = chunk.getArchetype();
+        int locators = archetype.getComponentIndex(TreeLocatorComponent.ID);
+        if(locators < 0){
+            return;
+        }
+        float[] xs = chunk.columns[archetype.getColumnIndex(X_COLUMN)];
+        float[] ys = chunk.columns[archetype.getColumnIndex(Y_COLUMN)];
+        int matrices = archetype.getComponentIndex(WorldMatrixComponent.ID);
+        Component[] row = chunk.components[locators];
+        for(int i = 0; i < chunk.size(); i++){
+            TreeLocatorComponent locator = (TreeLocatorComponent) row[i];
+            if(locator.tree == this && (xs[i] != locator.x || ys[i] != locator.y)){
+                // Already queued game objects may have moved again since their position event
+                if(matrices >= 0){
+                    ((WorldMatrixComponent) chunk.components[matrices][i]).invalidate();
+                }
+                locator.queue();
+            }
+        }
     }
 
     /**
@@ -83,6 +510,11 @@ public class WorldTree {
     public static class Quad{
         /** The maximum number of game objects in the quad before it splits */
         public static final int CONTENT_LIMIT = 1024;
+        /** The number of game objects in a subtree at which it collapses into one leaf (lower than the limit to avoid
+         *  splitting and collapsing repeatedly) */
+        public static final int MERGE_LIMIT = CONTENT_LIMIT / 2;
+        /** The default maximum depth of a quad */
+        public static final int DEFAULT_MAX_DEPTH = 16;
 
         /** Corner of the quad with maximal x and y coordinates */
         private final Vector2fc max;
@@ -90,6 +522,18 @@ public class WorldTree {
         private final Vector2fc min;
         /** Center of the quad */
         private Vector2fc mid;
+        /** Parent of this quad ({@code null} for the root) */
+        private final Quad parent;
+        /** Depth of this quad (the root has depth 0) */
+        private final int depth;
+        /** Maximum depth of a quad, leaves at this depth never split */
+        private final int maxDepth;
+        /** Number of game objects in the subtree of this quad */
+        private int count;
+        /** Largest half-extent along x of the bounded game objects in the subtree (may overestimate after removals) */
+        private float looseX;
+        /** Largest half-extent along y of the bounded game objects in the subtree (may overestimate after removals) */
+        private float looseY;
         /** Children of this quad - either {@code null} when this quad is a leaf, or exactly four quads (from top left clockwise) */
         private Quad[] children;
         /** Game objects in this quad */
@@ -99,10 +543,15 @@ public class WorldTree {
         /**
          * Construct a quad from its corners
          *
+         * @param parent Parent quad ({@code null} for the root)
          * @param min Corner with minimal coordinates
          * @param max Corner with maximal coordinates
+         * @param maxDepth Maximum depth of a quad
          */
-        private Quad(Vector2fc min, Vector2fc max){
+        private Quad(Quad parent, Vector2fc min, Vector2fc max, int maxDepth){
+            this.parent = parent;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.maxDepth = maxDepth;
             this.min = min;
             this.max = max;
             this.mid = (new Vector2f(min)).add(max).mul(0.5f).toImmutable();
@@ -128,10 +577,10 @@ public class WorldTree {
             Vector2fc botMid    = (new Vector2f(min)).add(halfSide, 0).toImmutable();
 
             // Fill the children
-            children[0] = new Quad(leftMid, topMid);    // Top-left
-            children[1] = new Quad(mid, max);           // Top-right
-            children[2] = new Quad(botMid, rightMid);   // Bot-right
-            children[3] = new Quad(min, mid);           // Bot-left
+            children[0] = new Quad(this, leftMid, topMid, maxDepth);    // Top-left
+            children[1] = new Quad(this, mid, max, maxDepth);           // Top-right
+            children[2] = new Quad(this, botMid, rightMid, maxDepth);   // Bot-right
+            children[3] = new Quad(this, min, mid, maxDepth);           // Bot-left
 
             // Transfer contents
             Iterator<GameObject> it = contents.iterator();
@@ -140,7 +589,105 @@ public class WorldTree {
 
                 // Move the game object
                 it.remove();
-                getChild(o.position.getPosition()).add(o, false);  // Position already checked
+                getChild(o.position.getX(), o.position.getY()).add(o, false);  // Position already checked
+            }
+        }
+
+        /**
+         * Merge the children back into this quad, making it a leaf holding all game objects of its subtree
+         */
+        private void collapse(){
+            // Skip if already a leaf
+            if(children == null){
+                return;
+            }
+
+            // Gather the contents of the subtree
+            for(Quad q : children) q.gather(contents);
+            children = null;
+
+            // Point the locators to this quad and tighten the extents
+            looseX = 0;
+            looseY = 0;
+            for(GameObject o : contents){
+                grow(o);
+                TreeLocatorComponent locator = (TreeLocatorComponent) o.getComponent(TreeLocatorComponent.ID);
+                if(locator != null){
+                    locator.leaf = this;
+                }
+            }
+        }
+
+        /**
+         * Add all game objects in the subtree of this quad to a list
+         *
+         * @param dest List to add to
+         */
+        private void gather(List<GameObject> dest){
+            if(isLeaf()){
+                dest.addAll(contents);
+            }else{
+                for(Quad q : children) q.gather(dest);
+            }
+        }
+
+        /**
+         * Collapse the highest ancestor (or this quad) whose subtree dropped to the merge limit
+         */
+        private void collapseUp(){
+            Quad target = null;
+            for(Quad q = this; q != null && q.count <= MERGE_LIMIT; q = q.parent){
+                if(!q.isLeaf()){
+                    target = q;
+                }
+            }
+            if(target != null){
+                target.collapse();
+            }
+        }
+
+        /**
+         * Grow the extents of this quad to cover a game object
+         *
+         * @param o Game object
+         * @return Whether the extents changed
+         */
+        private boolean grow(GameObject o){
+            BoundsComponent bounds = (BoundsComponent) o.getComponent(BoundsComponent.ID);
+            if(bounds == null){
+                return false;
+            }
+            Vector2fc e = bounds.getHalfExtents();
+            boolean result = false;
+            if(e.x() > looseX){
+                looseX = e.x();
+                result = true;
+            }
+            if(e.y() > looseY){
+                looseY = e.y();
+                result = true;
+            }
+            return result;
+        }
+
+        /**
+         * Grow the extents of this quad and its ancestors to cover a game object.
+         * Stops at the first quad that already covers it, as ancestors always cover their descendants.
+         *
+         * @param o Game object
+         */
+        private void growUp(GameObject o){
+            for(Quad q = this; q != null && q.grow(o); q = q.parent);
+        }
+
+        /**
+         * Decrease the game object counts of this quad and its ancestors by one
+         *
+         * @param end First ancestor not to change ({@code null} to change all the way to the root)
+         */
+        private void discount(Quad end){
+            for(Quad q = this; q != end; q = q.parent){
+                q.count--;
             }
         }
 
@@ -150,26 +697,73 @@ public class WorldTree {
          * @return All game objects whose position was outside (now removed)
          */
         public GameObject[] validate(){
+            return discountAncestors(validateSubtree());
+        }
+
+        /**
+         * Validate the quad like {@link #validate()}, processing large subtrees in parallel
+         *
+         * @param pool Pool to run the tasks in
+         * @param threshold Number of game objects in a subtree above which it is split into tasks
+         * @return All game objects whose position was outside (now removed)
+         */
+        public GameObject[] validate(ForkJoinPool pool, int threshold){
+            return discountAncestors(pool.invoke(new ValidateTask(this, threshold)));
+        }
+
+        /**
+         * Decrease the game object counts of the ancestors by the number of game objects removed from this subtree
+         *
+         * @param removed Removed game objects
+         * @return The removed game objects
+         */
+        private GameObject[] discountAncestors(GameObject[] removed){
+            for(Quad q = parent; q != null; q = q.parent){
+                q.count -= removed.length;
+            }
+            return removed;
+        }
+
+        /**
+         * Remove and return the game objects whose position is outside their leaf, updating the counts in this subtree
+         *  only (so that disjoint subtrees can be validated concurrently)
+         *
+         * @return All game objects whose position was outside (now removed)
+         */
+        private GameObject[] validateSubtree(){
+            GameObject[] result;
             if(isLeaf()){
                 // Gather the game objects, remove and return them
-                List<GameObject> result = contents.stream()
-                        .filter(go -> !this.contains(go.position.getPosition()))
+                List<GameObject> outside = contents.stream()
+                        .filter(go -> !this.contains(go.position.getX(), go.position.getY()))
                         .collect(Collectors.toList());
-                contents.removeAll(result);
-                return result.toArray(new GameObject[0]);
+                contents.removeAll(outside);
+                result = outside.toArray(new GameObject[0]);
             }else{
                 // Delegate to children, then merge and return
-                GameObject[] a = children[0].validate();
-                GameObject[] b = children[1].validate();
-                GameObject[] c = children[2].validate();
-                GameObject[] d = children[3].validate();
-                GameObject[] result = new GameObject[a.length + b.length + c.length + d.length];
-                System.arraycopy(a, 0, result, 0, a.length);
-                System.arraycopy(b, 0, result, a.length, b.length);
-                System.arraycopy(c, 0, result, a.length + b.length, c.length);
-                System.arraycopy(d, 0, result, a.length + b.length + c.length, d.length);
-                return result;
+                result = concat(children[0].validateSubtree(), children[1].validateSubtree(),
+                        children[2].validateSubtree(), children[3].validateSubtree());
             }
+            count -= result.length;
+            return result;
+        }
+
+        /**
+         * Concatenate the arrays of game objects of the four children
+         *
+         * @param a Array of the first child
+         * @param b Array of the second child
+         * @param c Array of the third child
+         * @param d Array of the fourth child
+         * @return Concatenation of the arrays
+         */
+        private static GameObject[] concat(GameObject[] a, GameObject[] b, GameObject[] c, GameObject[] d){
+            GameObject[] result = new GameObject[a.length + b.length + c.length + d.length];
+            System.arraycopy(a, 0, result, 0, a.length);
+            System.arraycopy(b, 0, result, a.length, b.length);
+            System.arraycopy(c, 0, result, a.length + b.length, c.length);
+            System.arraycopy(d, 0, result, a.length + b.length + c.length, d.length);
+            return result;
         }
 
         /**
@@ -190,7 +784,7 @@ public class WorldTree {
          */
         private void add(GameObject o, boolean check){
             // Check position only when asked to
-            if(check && !contains(o.position.getPosition())){
+            if(check && !contains(o.position.getX(), o.position.getY())){
                 Launcher.getLog().log(
                         Severity.ERROR,
                         "Quad.add()",
@@ -198,11 +792,18 @@ public class WorldTree {
                 );
             }
 
+            count++;
+            grow(o);
+
             // Handle leaf quad
             if(isLeaf()){
-                // Check if there is space
-                if(contents.size() <= CONTENT_LIMIT){
+                // Check if there is space (leaves at the maximum depth keep the rest as an overflow bucket)
+                if(contents.size() <= CONTENT_LIMIT || depth >= maxDepth){
                     contents.add(o);
+                    TreeLocatorComponent locator = (TreeLocatorComponent) o.getComponent(TreeLocatorComponent.ID);
+                    if(locator != null){
+                        locator.leaf = this;
+                    }
                     return;
                 }else{
                     split();
@@ -210,7 +811,74 @@ public class WorldTree {
             }
 
             // Handle inner quad
-            getChild(o.position.getPosition()).add(o, false);  // Position already checked
+            getChild(o.position.getX(), o.position.getY()).add(o, false);  // Position already checked
+        }
+
+        /**
+         * Remove a game object from the quad.
+         * Looks in the leaf that contains the game object's position first and falls back to searching all leaves (for
+         *  game objects that moved since the last validation).
+         *
+         * @param o Game object to remove
+         * @return Whether the game object was in the quad
+         */
+        public boolean remove(GameObject o){
+            float px = o.position.getX();
+            float py = o.position.getY();
+            Quad leaf = null;
+            if(contains(px, py)){
+                leaf = this;
+                while(!leaf.isLeaf()) leaf = leaf.getChild(px, py);
+                if(!leaf.removeContent(o)){
+                    leaf = null;
+                }
+            }
+            if(leaf == null){
+                leaf = removeAnywhere(o);
+            }
+            if(leaf == null){
+                return false;
+            }
+
+            // Update the counts and merge when sparse
+            leaf.discount(null);
+            leaf.collapseUp();
+            return true;
+        }
+
+        /**
+         * Remove a game object from the contents of this leaf (without preserving order)
+         *
+         * @param o Game object to remove
+         * @return Whether the game object was in the contents
+         */
+        private boolean removeContent(GameObject o){
+            int i = contents.indexOf(o);
+            if(i < 0){
+                return false;
+            }
+            int last = contents.size() - 1;
+            contents.set(i, contents.get(last));
+            contents.remove(last);
+            return true;
+        }
+
+        /**
+         * Remove a game object from any leaf of the quad (without updating the counts)
+         *
+         * @param o Game object to remove
+         * @return Leaf the game object was removed from or {@code null} when it was not in the quad
+         */
+        private Quad removeAnywhere(GameObject o){
+            if(isLeaf()){
+                return removeContent(o) ? this : null;
+            }else{
+                for(Quad q : children){
+                    Quad result = q.removeAnywhere(o);
+                    if(result != null) return result;
+                }
+                return null;
+            }
         }
 
         /**
@@ -219,11 +887,32 @@ public class WorldTree {
          * @param delta Delta time in ns
          */
         public void update(long delta){
+            distribute(GameObject.UpdateEvent.pooled(delta));
+        }
+
+        /**
+         * Updates all the game objects in this quad, processing large subtrees in parallel.
+         * The game objects of different subtrees are updated concurrently, so their handlers must not change the tree
+         *  (moves are only queued and relocated later) or touch other game objects' state unsafely.
+         *
+         * @param delta Delta time in ns
+         * @param pool Pool to run the tasks in
+         * @param threshold Number of game objects in a subtree above which it is split into tasks
+         */
+        public void update(long delta, ForkJoinPool pool, int threshold){
+            pool.invoke(new UpdateTask(this, GameObject.UpdateEvent.pooled(delta), threshold));
+        }
+
+        /**
+         * Distribute an event to all the game objects in this quad
+         *
+         * @param event Event to distribute
+         */
+        private void distribute(GameObjectEvent event){
             if(isLeaf()) {
-                GameObjectEvent event = new GameObject.UpdateEvent(delta);
-                contents.forEach(go -> go.distributeEvent(event));
+                for(int i = 0; i < contents.size(); i++) contents.get(i).distributeEvent(event);
             }else{
-                for(Quad q : children) q.update(delta);
+                for(Quad q : children) q.distribute(event);
             }
         }
 
@@ -245,9 +934,20 @@ public class WorldTree {
          * @return Index of the child
          */
         private int getChildIndex(Vector2fc p){
-            if(p.x() >= mid.x()){
+            return getChildIndex(p.x(), p.y());
+        }
+
+        /**
+         * Calculate the index of the child that contains the provided position
+         *
+         * @param x Position x coordinate
+         * @param y Position y coordinate
+         * @return Index of the child
+         */
+        private int getChildIndex(float x, float y){
+            if(x >= mid.x()){
                 // Right
-                if(p.y() >= mid.y()){
+                if(y >= mid.y()){
                     // Top-right
                     return 1;
                 }else{
@@ -256,7 +956,7 @@ public class WorldTree {
                 }
             }else{
                 // Left
-                if(p.y() >= mid.y()){
+                if(y >= mid.y()){
                     // Top-left
                     return 0;
                 }else{
@@ -278,6 +978,18 @@ public class WorldTree {
             return children[getChildIndex(p)];
         }
 
+        /**
+         * Get the child quad that contains the provided position.
+         * Assumes that the quad has children, throws an NPE otherwise.
+         *
+         * @param x Position x coordinate
+         * @param y Position y coordinate
+         * @return Child quad that contain the position
+         */
+        private Quad getChild(float x, float y){
+            return children[getChildIndex(x, y)];
+        }
+
         /**
          * Whether this quad contains the point
          *
@@ -285,15 +997,181 @@ public class WorldTree {
          * @return Whether this point is contained
          */
         public boolean contains(Vector2fc p){
-            if(p.x() >= max.x() || p.y() >= max.y()){
+            return contains(p.x(), p.y());
+        }
+
+        /**
+         * Whether this quad contains the point
+         *
+         * @param x Point x coordinate
+         * @param y Point y coordinate
+         * @return Whether this point is contained
+         */
+        public boolean contains(float x, float y){
+            if(x >= max.x() || y >= max.y()){
                 return false;
             }
-            if(p.x() < min.x() || p.y() < min.y()){
+            if(x < min.x() || y < min.y()){
                 return false;
             }
             return true;
         }
 
+        /**
+         * Visit the game objects in this quad whose position (or box, when bounded) intersects an axis-aligned rectangle
+         *  (borders included)
+         *
+         * @param minX Minimal x coordinate of the rectangle
+         * @param minY Minimal y coordinate of the rectangle
+         * @param maxX Maximal x coordinate of the rectangle
+         * @param maxY Maximal y coordinate of the rectangle
+         * @param cond Condition to satisfy ({@code null} for none)
+         * @param visitor Action to perform for each game object found
+         */
+        public void queryRect(float minX, float minY, float maxX, float maxY, Condition cond, Consumer<GameObject> visitor){
+            // Prune quads outside the rectangle (bounds grown by the extents)
+            if(isOutside(minX, minY, maxX, maxY)){
+                return;
+            }
+
+            if(isLeaf()){
+                for(int i = 0; i < contents.size(); i++){
+                    GameObject go = contents.get(i);
+                    float px = go.position.getX();
+                    float py = go.position.getY();
+                    BoundsComponent bounds = (BoundsComponent) go.getComponent(BoundsComponent.ID);
+                    float hx = 0;
+                    float hy = 0;
+                    if(bounds != null){
+                        Vector2fc e = bounds.getHalfExtents();
+                        hx = e.x();
+                        hy = e.y();
+                    }
+                    if(px + hx >= minX && px - hx <= maxX && py + hy >= minY && py - hy <= maxY &&
+                            (cond == null || cond.check(go))){
+                        visitor.accept(go);
+                    }
+                }
+            }else{
+                for(Quad q : children) q.queryRect(minX, minY, maxX, maxY, cond, visitor);
+            }
+        }
+
+        /**
+         * Collect the game objects in this quad whose position (or box, when bounded) intersects an axis-aligned
+         *  rectangle (borders included), querying large subtrees in parallel
+         *
+         * @param minX Minimal x coordinate of the rectangle
+         * @param minY Minimal y coordinate of the rectangle
+         * @param maxX Maximal x coordinate of the rectangle
+         * @param maxY Maximal y coordinate of the rectangle
+         * @param cond Condition to satisfy ({@code null} for none)
+         * @param dest List to add the game objects to
+         * @param pool Pool to run the tasks in
+         * @param threshold Number of game objects in a subtree above which it is split into tasks
+         */
+        public void collectRect(float minX, float minY, float maxX, float maxY, Condition cond, List<GameObject> dest,
+                                ForkJoinPool pool, int threshold){
+            dest.addAll(pool.invoke(new RectTask(this, minX, minY, maxX, maxY, cond, threshold)));
+        }
+
+        /**
+         * Whether the bounds of this quad grown by its extents are outside an axis-aligned rectangle
+         *
+         * @param minX Minimal x coordinate of the rectangle
+         * @param minY Minimal y coordinate of the rectangle
+         * @param maxX Maximal x coordinate of the rectangle
+         * @param maxY Maximal y coordinate of the rectangle
+         * @return Whether no game object in this quad can intersect the rectangle
+         */
+        private boolean isOutside(float minX, float minY, float maxX, float maxY){
+            return max.x() + looseX <= minX || max.y() + looseY <= minY || min.x() - looseX > maxX || min.y() - looseY > maxY;
+        }
+
+        /**
+         * Visit the game objects in this quad whose position (or box, when bounded) is within a radius of a point (border
+         *  included)
+         *
+         * @param x Center x coordinate
+         * @param y Center y coordinate
+         * @param radiusSq Squared radius of the circle
+         * @param cond Condition to satisfy ({@code null} for none)
+         * @param visitor Action to perform for each game object found
+         */
+        public void queryCircle(float x, float y, float radiusSq, Condition cond, Consumer<GameObject> visitor){
+            // Prune quads outside the circle (bounds grown by the extents)
+            float qx = Math.max(Math.max(min.x() - looseX - x, x - max.x() - looseX), 0);
+            float qy = Math.max(Math.max(min.y() - looseY - y, y - max.y() - looseY), 0);
+            if(qx * qx + qy * qy > radiusSq){
+                return;
+            }
+
+            if(isLeaf()){
+                for(int i = 0; i < contents.size(); i++){
+                    GameObject go = contents.get(i);
+                    float px = go.position.getX();
+                    float py = go.position.getY();
+                    BoundsComponent bounds = (BoundsComponent) go.getComponent(BoundsComponent.ID);
+                    float dx = Math.abs(px - x);
+                    float dy = Math.abs(py - y);
+                    if(bounds != null){
+                        // Distance to the box
+                        Vector2fc e = bounds.getHalfExtents();
+                        dx = Math.max(dx - e.x(), 0);
+                        dy = Math.max(dy - e.y(), 0);
+                    }
+                    if(dx * dx + dy * dy <= radiusSq && (cond == null || cond.check(go))){
+                        visitor.accept(go);
+                    }
+                }
+            }else{
+                for(Quad q : children) q.queryCircle(x, y, radiusSq, cond, visitor);
+            }
+        }
+
+        /**
+         * Continue a nearest neighbour search in this quad, visiting the child containing the point first
+         *
+         * @param s Search state
+         */
+        private void nearest(NearestSearch s){
+            if(isLeaf()){
+                for(int i = 0; i < contents.size(); i++){
+                    GameObject go = contents.get(i);
+                    float px = go.position.getX();
+                    float py = go.position.getY();
+                    float dx = px - s.x;
+                    float dy = py - s.y;
+                    float d = dx * dx + dy * dy;
+                    if(s.accepts(d) && (s.cond == null || s.cond.check(go))){
+                        s.offer(go, d);
+                    }
+                }
+            }else{
+                // Start with the closest child to tighten the bound early
+                int first = getChildIndex(s.x, s.y);
+                for(int i = 0; i < 4; i++){
+                    Quad q = children[(first + i) % 4];
+                    if(s.accepts(q.distanceSq(s.x, s.y))){
+                        q.nearest(s);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Calculate the squared distance from a point to the closest point of this quad
+         *
+         * @param x Point x coordinate
+         * @param y Point y coordinate
+         * @return Squared distance ({@code 0} when inside)
+         */
+        public float distanceSq(float x, float y){
+            float dx = Math.max(Math.max(min.x() - x, x - max.x()), 0);
+            float dy = Math.max(Math.max(min.y() - y, y - max.y()), 0);
+            return dx * dx + dy * dy;
+        }
+
         /**
          * Get game objects in this quad based on a condition
          *
@@ -317,6 +1195,18 @@ public class WorldTree {
             }
         }
 
+        /**
+         * Get game objects in this quad based on a condition, searching large subtrees in parallel
+         *
+         * @param cond Condition to check
+         * @param pool Pool to run the tasks in
+         * @param threshold Number of game objects in a subtree above which it is split into tasks
+         * @return Game objects for which the condition holds
+         */
+        public List<GameObject> getByCondition(Condition cond, ForkJoinPool pool, int threshold){
+            return pool.invoke(new ConditionTask(this, cond, threshold));
+        }
+
         /**
          * Get the length of one side of the quad
          *
@@ -326,6 +1216,52 @@ public class WorldTree {
             return max.x() - min.x();
         }
 
+        /**
+         * Get the number of game objects in the subtree of this quad
+         *
+         * @return Number of game objects
+         */
+        public int getCount(){
+            return count;
+        }
+
+        /**
+         * Get the depth of this quad
+         *
+         * @return Depth (the root has depth 0)
+         */
+        public int getDepth(){
+            return depth;
+        }
+
+        /**
+         * Get the maximum depth of the subtree of this quad
+         *
+         * @return Depth of the deepest leaf
+         */
+        public int getHeight(){
+            if(isLeaf()){
+                return depth;
+            }
+            int result = depth;
+            for(Quad q : children) result = Math.max(result, q.getHeight());
+            return result;
+        }
+
+        /**
+         * Get the number of quads in the subtree of this quad (including this one)
+         *
+         * @return Number of quads
+         */
+        public int getQuadCount(){
+            if(isLeaf()){
+                return 1;
+            }
+            int result = 1;
+            for(Quad q : children) result += q.getQuadCount();
+            return result;
+        }
+
         /**
          * Whether this quad is a leaf quad
          *
@@ -334,5 +1270,219 @@ public class WorldTree {
         public boolean isLeaf(){
             return children == null;
         }
+
+        /**
+         * Whether a parallel traversal should split this quad into tasks for its children
+         *
+         * @param threshold Number of game objects in a subtree above which it is split into tasks
+         * @return Whether to split
+         */
+        private boolean forks(int threshold){
+            return !isLeaf() && count > threshold;
+        }
+
+        /**
+         * Fork/join task distributing an event to the game objects of a subtree
+         */
+        private static class UpdateTask extends RecursiveAction{
+            /** Serialisation version */
+            private static final long serialVersionUID = 1L;
+            /** Root of the subtree */
+            private final Quad quad;
+            /** Event to distribute */
+            private final GameObjectEvent event;
+            /** Number of game objects in a subtree above which it is split into tasks */
+            private final int threshold;
+
+            /**
+             * Construct the task for a subtree
+             *
+             * @param quad Root of the subtree
+             * @param event Event to distribute
+             * @param threshold Number of game objects in a subtree above which it is split into tasks
+             */
+            UpdateTask(Quad quad, GameObjectEvent event, int threshold){
+                this.quad = quad;
+                this.event = event;
+                this.threshold = threshold;
+            }
+
+            @Override
+            protected void compute() {
+                if(quad.forks(threshold)){
+                    Quad[] q = quad.children;
+                    invokeAll(new UpdateTask(q[0], event, threshold), new UpdateTask(q[1], event, threshold),
+                            new UpdateTask(q[2], event, threshold), new UpdateTask(q[3], event, threshold));
+                }else{
+                    quad.distribute(event);
+                }
+            }
+        }
+
+        /**
+         * Fork/join task validating a subtree
+         */
+        private static class ValidateTask extends RecursiveTask<GameObject[]>{
+            /** Serialisation version */
+            private static final long serialVersionUID = 1L;
+            /** Root of the subtree */
+            private final Quad quad;
+            /** Number of game objects in a subtree above which it is split into tasks */
+            private final int threshold;
+
+            /**
+             * Construct the task for a subtree
+             *
+             * @param quad Root of the subtree
+             * @param threshold Number of game objects in a subtree above which it is split into tasks
+             */
+            ValidateTask(Quad quad, int threshold){
+                this.quad = quad;
+                this.threshold = threshold;
+            }
+
+            @Override
+            protected GameObject[] compute() {
+                if(!quad.forks(threshold)){
+                    return quad.validateSubtree();
+                }
+
+                // Validate the children concurrently, then update the count of this quad
+                Quad[] q = quad.children;
+                ValidateTask a = new ValidateTask(q[0], threshold);
+                ValidateTask b = new ValidateTask(q[1], threshold);
+                ValidateTask c = new ValidateTask(q[2], threshold);
+                ValidateTask d = new ValidateTask(q[3], threshold);
+                invokeAll(a, b, c, d);
+                GameObject[] result = concat(a.join(), b.join(), c.join(), d.join());
+                quad.count -= result.length;
+                return result;
+            }
+        }
+
+        /**
+         * Fork/join task getting the game objects of a subtree based on a condition
+         */
+        private static class ConditionTask extends RecursiveTask<List<GameObject>>{
+            /** Serialisation version */
+            private static final long serialVersionUID = 1L;
+            /** Root of the subtree */
+            private final Quad quad;
+            /** Condition to check */
+            private final Condition cond;
+            /** Number of game objects in a subtree above which it is split into tasks */
+            private final int threshold;
+
+            /**
+             * Construct the task for a subtree
+             *
+             * @param quad Root of the subtree
+             * @param cond Condition to check
+             * @param threshold Number of game objects in a subtree above which it is split into tasks
+             */
+            ConditionTask(Quad quad, Condition cond, int threshold){
+                this.quad = quad;
+                this.cond = cond;
+                this.threshold = threshold;
+            }
+
+            @Override
+            protected List<GameObject> compute() {
+                if(!quad.forks(threshold)){
+                    return quad.getByCondition(cond);
+                }
+
+                // Search the children concurrently, then merge
+                Quad[] q = quad.children;
+                ConditionTask a = new ConditionTask(q[0], cond, threshold);
+                ConditionTask b = new ConditionTask(q[1], cond, threshold);
+                ConditionTask c = new ConditionTask(q[2], cond, threshold);
+                ConditionTask d = new ConditionTask(q[3], cond, threshold);
+                invokeAll(a, b, c, d);
+                List<GameObject> result = a.join();
+                result.addAll(b.join());
+                result.addAll(c.join());
+                result.addAll(d.join());
+                return result;
+            }
+        }
+
+        /**
+         * Fork/join task collecting the game objects of a subtree that intersect a rectangle
+         */
+        private static class RectTask extends RecursiveTask<List<GameObject>>{
+            /** Serialisation version */
+            private static final long serialVersionUID = 1L;
+            /** Root of the subtree */
+            private final Quad quad;
+            /** Minimal x coordinate of the rectangle */
+            private final float minX;
+            /** Minimal y coordinate of the rectangle */
+            private final float minY;
+            /** Maximal x coordinate of the rectangle */
+            private final float maxX;
+            /** Maximal y coordinate of the rectangle */
+            private final float maxY;
+            /** Condition to satisfy ({@code null} for none) */
+            private final Condition cond;
+            /** Number of game objects in a subtree above which it is split into tasks */
+            private final int threshold;
+
+            /**
+             * Construct the task for a subtree
+             *
+             * @param quad Root of the subtree
+             * @param minX Minimal x coordinate of the rectangle
+             * @param minY Minimal y coordinate of the rectangle
+             * @param maxX Maximal x coordinate of the rectangle
+             * @param maxY Maximal y coordinate of the rectangle
+             * @param cond Condition to satisfy ({@code null} for none)
+             * @param threshold Number of game objects in a subtree above which it is split into tasks
+             */
+            RectTask(Quad quad, float minX, float minY, float maxX, float maxY, Condition cond, int threshold){
+                this.quad = quad;
+                this.minX = minX;
+                this.minY = minY;
+                this.maxX = maxX;
+                this.maxY = maxY;
+                this.cond = cond;
+                this.threshold = threshold;
+            }
+
+            /**
+             * Construct the task for a child of the subtree of another task
+             *
+             * @param parent Task of the parent
+             * @param quad Child quad
+             */
+            private RectTask(RectTask parent, Quad quad){
+                this(quad, parent.minX, parent.minY, parent.maxX, parent.maxY, parent.cond, parent.threshold);
+            }
+
+            @Override
+            protected List<GameObject> compute() {
+                List<GameObject> result = new ArrayList<>();
+                if(quad.isOutside(minX, minY, maxX, maxY)){
+                    return result;
+                }
+                if(!quad.forks(threshold)){
+                    quad.queryRect(minX, minY, maxX, maxY, cond, result::add);
+                    return result;
+                }
+
+                // Query the children concurrently, then merge
+                Quad[] q = quad.children;
+                RectTask a = new RectTask(this, q[0]);
+                RectTask b = new RectTask(this, q[1]);
+                RectTask c = new RectTask(this, q[2]);
+                RectTask d = new RectTask(this, q[3]);
+                invokeAll(a, b, c, d);
+                result.addAll(a.join());
+                result.addAll(b.join());
+                result.addAll(c.join());
+                result.addAll(d.join());
+                return result;
+            }
+        }
     }
 }
@@ -0,0 +1,11 @@
+#version 330
+
+in vec2 texCoordinates;
+out vec4 fragColor;
+
+uniform sampler2D textureSampler;
+
+void main()
+{
+    fragColor = texture(textureSampler, texCoordinates);
+}
\ No newline at end of file
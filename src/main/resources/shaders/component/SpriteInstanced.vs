@@ -0,0 +1,19 @@
+#version 330
+
+layout (location=0) in vec2 pos;
+layout (location=1) in vec4 affineLinear;
+layout (location=2) in vec4 translationDimensions;
+layout (location=3) in vec2 textureDelta;
+
+out vec2 texCoordinates;
+
+uniform mat4 projectionMatrix;
+uniform vec2 textureDimensions;
+
+void main()
+{
+    // The world matrix is in the 2D affine form: linear part (columns xy and zw) and translation
+    vec2 worldPos = mat2(affineLinear.xy, affineLinear.zw) * (translationDimensions.zw * pos) + translationDimensions.xy;
+    gl_Position = projectionMatrix * vec4(worldPos, 0.0, 1.0);
+    texCoordinates = ((pos + vec2(0.5, 0.5)) * textureDimensions) + textureDelta;
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package net.pilif0.open_desert.collision;
+
+import net.pilif0.open_desert.components.BoundsComponent;
+import net.pilif0.open_desert.components.ColliderComponent;
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.world.WorldTree;
+import org.joml.Vector2f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark comparing the broad phase strategies on moving bodies (not run as a unit test).
+ * Run with {@code java -cp <test and main classpath> net.pilif0.open_desert.collision.BroadPhaseBenchmark [bodies]}.
+ * Every frame moves all bodies a little, runs the collision system with each strategy, and reports the average time
+ *  per frame.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class BroadPhaseBenchmark {
+    /** Default number of bodies */
+    public static final int DEFAULT_BODIES = 50_000;
+    /** Number of warm up frames */
+    public static final int WARM_UP = 10;
+    /** Number of measured frames */
+    public static final int FRAMES = 20;
+    /** Size of a body */
+    public static final float BODY_SIZE = 8;
+
+    /**
+     * Run the benchmark
+     *
+     * @param args Optional number of bodies
+     */
+    public static void main(String[] args){
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BODIES;
+        float side = (float) Math.sqrt(n) * BODY_SIZE * 4;
+
+        // Build the world
+        WorldTree world = new WorldTree(side * 2);
+        Random random = new Random(1);
+        PositionComponent[] positions = new PositionComponent[n];
+        for(int i = 0; i < n; i++){
+            PositionComponent position = new PositionComponent();
+            BoundsComponent bounds = new BoundsComponent();
+            GameObject go = new GameObject(i, new ArrayList<>(Arrays.<Component>asList(
+                    position, bounds, new ColliderComponent()))){};
+            position.setPosition(new Vector2f(random.nextFloat() * side - side / 2, random.nextFloat() * side - side / 2));
+            bounds.setSize(new Vector2f(BODY_SIZE, BODY_SIZE));
+            world.add(go);
+            positions[i] = position;
+        }
+        world.relocate();
+
+        // Measure the strategies
+        BroadPhase[] strategies = {
+                new SortAndSweep(),
+                new UniformGrid(BODY_SIZE * 2),
+                new SpatialIndexBroadPhase(world, CollisionSystem.COLLIDERS)
+        };
+        Vector2f step = new Vector2f();
+        for(BroadPhase strategy : strategies){
+            world.collisions.setStrategy(strategy);
+            long total = 0;
+            long pairs = 0;
+            for(int frame = 0; frame < WARM_UP + FRAMES; frame++){
+                // Move the bodies and keep the tree up to date
+                for(PositionComponent p : positions){
+                    step.set(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+                    p.addPosition(step);
+                }
+                world.relocate();
+
+                long start = System.nanoTime();
+                world.collisions.detect();
+                long time = System.nanoTime() - start;
+                if(frame >= WARM_UP){
+                    total += time;
+                    pairs += world.collisions.getPairCount();
+                }
+            }
+            System.out.printf("%-20s %8.3f ms/frame %10d pairs/frame%n", strategy.getClass().getSimpleName(),
+                    total / 1e6 / FRAMES, pairs / FRAMES);
+        }
+    }
+}
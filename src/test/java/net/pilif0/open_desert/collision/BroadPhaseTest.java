@@ -0,0 +1,188 @@
+package net.pilif0.open_desert.collision;
+
+import net.pilif0.open_desert.components.ColliderComponent;
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.ecs.GameObjectEvent;
+import net.pilif0.open_desert.ecs.Template;
+import net.pilif0.open_desert.ecs.TestGameObjects;
+import net.pilif0.open_desert.world.WorldTree;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the broad phase strategies and the {@code CollisionSystem} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class BroadPhaseTest {
+
+    /**
+     * Fill a body set with random boxes
+     *
+     * @param bodies Body set to fill
+     * @param n Number of bodies
+     * @param random Source of randomness
+     */
+    private static void fill(BodySet bodies, int n, Random random){
+        bodies.clear();
+        for(int i = 0; i < n; i++){
+            float x = random.nextFloat() * 200 - 100;
+            float y = random.nextFloat() * 200 - 100;
+            float w = random.nextFloat() * 6;
+            float h = random.nextFloat() * 6;
+            bodies.add(null, x, y, x + w, y + h);
+        }
+    }
+
+    /**
+     * Find the pairs of a strategy
+     *
+     * @param strategy Strategy to use
+     * @param bodies Bodies to check
+     * @return Pairs encoded as {@code a * n + b}
+     */
+    private static Set<Long> pairs(BroadPhase strategy, BodySet bodies){
+        Set<Long> result = new HashSet<>();
+        int n = bodies.size();
+        strategy.findPairs(bodies, (a, b) -> {
+            assertTrue(a < b);
+            assertTrue("Pair reported twice", result.add((long) a * n + b));
+        });
+        return result;
+    }
+
+    /**
+     * Find the pairs by comparing all bodies
+     *
+     * @param bodies Bodies to check
+     * @return Pairs encoded as {@code a * n + b}
+     */
+    private static Set<Long> bruteForce(BodySet bodies){
+        Set<Long> result = new HashSet<>();
+        int n = bodies.size();
+        for(int a = 0; a < n; a++){
+            for(int b = a + 1; b < n; b++){
+                if(bodies.overlap(a, b)) result.add((long) a * n + b);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testStrategies() throws Exception {
+        Random random = new Random(7);
+        BodySet bodies = new BodySet();
+        SortAndSweep sweep = new SortAndSweep();
+        UniformGrid grid = new UniformGrid(4);
+
+        //Test against brute force over several frames (the sweep keeps its order between them)
+        fill(bodies, 2000, random);
+        for(int frame = 0; frame < 3; frame++){
+            Set<Long> expected = bruteForce(bodies);
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, pairs(sweep, bodies));
+            assertEquals(expected, pairs(grid, bodies));
+
+            //Move the bodies a little
+            for(int i = 0; i < bodies.size(); i++){
+                float dx = random.nextFloat() - 0.5f;
+                bodies.minX[i] += dx;
+                bodies.maxX[i] += dx;
+            }
+        }
+
+        //Test a change in the number of bodies
+        fill(bodies, 500, random);
+        assertEquals(bruteForce(bodies), pairs(sweep, bodies));
+    }
+
+    @Test
+    public void testCollisionSystem() throws Exception {
+        WorldTree world = new WorldTree(1000);
+        List<GameObject> hits = new ArrayList<>();
+        GameObject a = body(0, 0, 0, hits);
+        GameObject b = body(1, 3, 0, hits);
+        GameObject c = body(2, 50, 50, hits);
+        world.add(a);
+        world.add(b);
+        world.add(c);
+
+        //Test every strategy finds the one pair and delivers it to both game objects
+        BroadPhase[] strategies = {new SortAndSweep(), new UniformGrid(8),
+                new SpatialIndexBroadPhase(world, CollisionSystem.COLLIDERS)};
+        for(BroadPhase strategy : strategies){
+            hits.clear();
+            world.collisions.setStrategy(strategy);
+            world.collisions.update();
+            assertEquals(1, world.collisions.getPairCount());
+            assertEquals(2, hits.size());
+            assertTrue(hits.contains(a) && hits.contains(b));
+        }
+    }
+
+    /**
+     * Create a collider of size 4 recording the game objects it collides with
+     *
+     * @param handle Handle of the game object
+     * @param x Position x
+     * @param y Position y
+     * @param hits Destination for the other game objects of the collisions
+     * @return New game object
+     */
+    private static GameObject body(int handle, float x, float y, List<GameObject> hits){
+        return TestGameObjects.box(handle, x, y, 4, new ColliderComponent(), new Recorder(hits));
+    }
+
+    /**
+     * Component recording the other game objects of collision events
+     */
+    private static class Recorder implements Component{
+        /** Destination for the other game objects */
+        private final List<GameObject> hits;
+
+        /**
+         * Construct the recorder
+         *
+         * @param hits Destination for the other game objects
+         */
+        Recorder(List<GameObject> hits){
+            this.hits = hits;
+        }
+
+        @Override
+        public String getName() {
+            return "test_recorder";
+        }
+
+        @Override
+        public void handle(GameObjectEvent e) {
+            if(e instanceof ColliderComponent.CollisionEvent){
+                hits.add(((ColliderComponent.CollisionEvent) e).getOther());
+            }
+        }
+
+        @Override
+        public void onAttach(GameObject owner) {}
+
+        @Override
+        public void onDetach(GameObject owner) {}
+
+        @Override
+        public void overrideFields(Map<String, Object> overrides) {}
+
+        @Override
+        public Object toYaml(Template t) {
+            return null;
+        }
+    }
+}
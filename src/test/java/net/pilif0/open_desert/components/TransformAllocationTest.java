@@ -0,0 +1,159 @@
+package net.pilif0.open_desert.components;
+
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.EventQueue;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.geometry.Affine2f;
+import net.pilif0.open_desert.geometry.VectorBatch;
+import net.pilif0.open_desert.graphics.render.SpriteBatch;
+import net.pilif0.open_desert.world.WorldTree;
+import org.joml.Matrix4fc;
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Allocation profiling test of the per-object transform path, which has to run without allocating once warmed up.
+ * The game objects live in a world tree and are moved through their components, so every frame covers the change
+ *  events (immediate and queued), the world matrix invalidation, the tree relocation and the sprite batch.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class TransformAllocationTest {
+    /** Number of game objects */
+    private static final int OBJECTS = 256;
+    /** Number of warm up frames (only enough to fill the batch groups, so that the measured frames mostly run before
+     *  the JIT could hide allocations by escape analysis) */
+    private static final int WARM_UP = 2;
+    /** Number of measured frames */
+    private static final int FRAMES = 200;
+    /** Number of bytes tolerated over all measured frames (one-off allocations of the JIT and the class loading) */
+    private static final int TOLERANCE = 4096;
+
+    /** Game objects */
+    private final GameObject[] objects = new GameObject[OBJECTS];
+    /** Position components of the game objects */
+    private final PositionComponent[] positions = new PositionComponent[OBJECTS];
+    /** Rotation components of the game objects */
+    private final RotationComponent[] rotations = new RotationComponent[OBJECTS];
+    /** World matrix components of the game objects */
+    private final WorldMatrixComponent[] matrices = new WorldMatrixComponent[OBJECTS];
+    /** World holding the game objects */
+    private final WorldTree world = new WorldTree(1e4f);
+    /** Queue of the deferred events (of every other game object) */
+    private final EventQueue queue = new EventQueue();
+    /** Position columns */
+    private final float[] xs = new float[OBJECTS];
+    /** Position columns */
+    private final float[] ys = new float[OBJECTS];
+    /** Velocity columns */
+    private final float[] vxs = new float[OBJECTS];
+    /** Velocity columns */
+    private final float[] vys = new float[OBJECTS];
+    /** Transformations in the array form */
+    private final float[] affines = new float[OBJECTS * Affine2f.FLOATS];
+    /** Scratch transformation */
+    private final Affine2f affine = new Affine2f();
+    /** Scratch position */
+    private final Vector2f point = new Vector2f();
+    /** Sprite batch */
+    private final SpriteBatch batch = new SpriteBatch();
+    /** Segment size of the sprites */
+    private final Vector2fc segment = new Vector2f(0.5f, 0.5f);
+    /** Sprite dimensions */
+    private final Vector2fc dimensions = new Vector2f(16, 16);
+    /** Texture delta of the sprites */
+    private final Vector2fc delta = new Vector2f();
+    /** Sink for the results, so they are not optimised away */
+    private float sink;
+
+    /**
+     * Return the number of bytes allocated by the current thread so far
+     *
+     * @return Allocated bytes
+     */
+    private static long allocated(){
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Run one frame of the transform path
+     */
+    private void frame(){
+        //Integrate the positions in the columns and write them back through the components
+        VectorBatch.addScaled(xs, ys, vxs, vys, 0.016f, 0, OBJECTS);
+        for(int i = 0; i < OBJECTS; i++){
+            positions[i].setPosition(point.set(xs[i], ys[i]));
+            rotations[i].addRotation(0.01f);
+        }
+        queue.flush();
+        world.relocate();
+
+        //Batch the sprites from the recalculated world matrices
+        VectorBatch.translationRotateScale(xs, ys, null, null, null, affines, 0, OBJECTS);
+        batch.clear();
+        for(int i = 0; i < OBJECTS; i++){
+            Matrix4fc m = matrices[i].getWorldMatrix();
+            matrices[i].getAffine(affine);
+            sink += m.m30() + affine.m20 - affines[i * Affine2f.FLOATS + 4];
+            batch.add(1 + (i & 1), segment, m, dimensions, delta);
+        }
+        batch.build();
+        sink += batch.getDrawCalls().size();
+    }
+
+    @Test
+    public void testZeroAllocations() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean &&
+                ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+
+        //Create the game objects
+        for(int i = 0; i < OBJECTS; i++){
+            positions[i] = new PositionComponent();
+            rotations[i] = new RotationComponent();
+            matrices[i] = new WorldMatrixComponent();
+            objects[i] = new GameObject(i, new ArrayList<>(Arrays.<Component>asList(
+                    positions[i], rotations[i], new ScaleComponent(), matrices[i]))){};
+            if(i % 2 == 0){
+                objects[i].setEventQueue(queue);
+            }
+            xs[i] = i;
+            ys[i] = -i;
+            vxs[i] = i % 7;
+            vys[i] = i % 3;
+            positions[i].setPosition(new Vector2f(xs[i], ys[i]));
+            world.add(objects[i]);
+        }
+
+        //Warm up
+        for(int i = 0; i < WARM_UP; i++){
+            frame();
+        }
+
+        //Find what the measurement itself allocates
+        long overhead = Long.MAX_VALUE;
+        for(int i = 0; i < 5; i++){
+            long start = allocated();
+            overhead = Math.min(overhead, allocated() - start);
+        }
+
+        //Test that the measured frames do not allocate (a single object per sprite would be tens of kilobytes)
+        long start = allocated();
+        for(int i = 0; i < FRAMES; i++){
+            frame();
+        }
+        long bytes = allocated() - start - overhead;
+        assertTrue("Allocated " + bytes + " bytes in " + FRAMES + " frames", bytes < TOLERANCE);
+        assertTrue(sink != 0);
+    }
+}
@@ -0,0 +1,57 @@
+package net.pilif0.open_desert.components;
+
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.geometry.Affine2f;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code WorldMatrixComponent} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class WorldMatrixComponentTest {
+    /** Tolerance of the float comparisons */
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    public void testDirtyPropagation() throws Exception {
+        PositionComponent position = new PositionComponent();
+        RotationComponent rotation = new RotationComponent();
+        ScaleComponent scale = new ScaleComponent();
+        WorldMatrixComponent worldMatrix = new WorldMatrixComponent();
+        GameObject go = new GameObject(0, new ArrayList<>(Arrays.<Component>asList(
+                worldMatrix, position, rotation, scale))){};
+
+        //Test that each transformation component marks the matrix dirty
+        assertEquals(0, worldMatrix.getWorldMatrix().m30(), 0);
+        position.setPosition(new Vector2f(3, 4));
+        assertEquals(3, worldMatrix.getWorldMatrix().m30(), 0);
+        assertEquals(4, worldMatrix.getWorldMatrix().m31(), 0);
+        rotation.setRotation((float) Math.PI / 2);
+        assertEquals(1, worldMatrix.getWorldMatrix().m01(), EPSILON);
+        scale.setScale(new Vector2f(2, 5));
+        assertEquals(2, worldMatrix.getWorldMatrix().m01(), EPSILON);
+        assertEquals(-5, worldMatrix.getWorldMatrix().m10(), EPSILON);
+
+        //Test that the matrix matches the JOML composition
+        Matrix4f expected = new Matrix4f().translate(3, 4, 0).rotateZ((float) Math.PI / 2).scale(2, 5, 1);
+        assertArrayEquals(expected.get(new float[16]), worldMatrix.getWorldMatrix().get(new float[16]), EPSILON);
+
+        //Test that the affine form matches the matrix
+        Affine2f affine = worldMatrix.getAffine(new Affine2f());
+        assertArrayEquals(new Affine2f().set(new float[]{0, 2, -5, 0, 3, 4}, 0).get(new float[6], 0),
+                affine.get(new float[6], 0), EPSILON);
+        float[] array = worldMatrix.getAffine(new float[8], 2);
+        assertEquals(3, array[6], 0);
+        assertEquals(4, array[7], 0);
+    }
+}
@@ -0,0 +1,109 @@
+package net.pilif0.open_desert.ecs;
+
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.components.RotationComponent;
+import org.joml.Vector2f;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code ArchetypeStorage} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class ArchetypeStorageTest {
+
+    /**
+     * Create a game object with a position and optionally a rotation
+     *
+     * @param handle Handle to use
+     * @param rotation Whether to add a rotation component
+     * @return The game object
+     */
+    private static GameObject create(int handle, boolean rotation){
+        List<Component> components = new ArrayList<>();
+        components.add(new PositionComponent());
+        if(rotation){
+            components.add(new RotationComponent());
+        }
+        return new GameObject(handle, components);
+    }
+
+    @Test
+    public void testChunking() throws Exception {
+        //Test that game objects fill dense chunks
+        ArchetypeStorage storage = new ArchetypeStorage();
+        List<GameObject> objects = new ArrayList<>();
+        for(int i = 0; i < Archetype.CHUNK_CAPACITY + 10; i++){
+            GameObject go = create(i, false);
+            objects.add(go);
+            storage.add(go);
+        }
+        assertEquals(1, storage.getArchetypes().size());
+        Archetype archetype = storage.getArchetypes().iterator().next();
+        assertEquals(2, archetype.getChunks().size());
+        assertEquals(Archetype.CHUNK_CAPACITY + 10, archetype.size());
+
+        //Test that removal refills the hole from the last chunk
+        storage.remove(objects.get(0));
+        assertNull(objects.get(0).getChunk());
+        assertEquals(Archetype.CHUNK_CAPACITY, archetype.getChunks().get(0).size());
+        assertEquals(9, archetype.getChunks().get(1).size());
+        GameObject moved = objects.get(objects.size() - 1);
+        assertSame(archetype.getChunks().get(0), moved.getChunk());
+        assertEquals(0, moved.getRow());
+    }
+
+    @Test
+    public void testColumns() throws Exception {
+        //Test that the position is stored in the columns
+        ArchetypeStorage storage = new ArchetypeStorage();
+        GameObject go = create(0, false);
+        go.position.setPosition(new Vector2f(3, 4));
+        storage.add(go);
+        Archetype.Chunk chunk = go.getChunk();
+        int x = chunk.getArchetype().getColumnIndex("position.x");
+        int y = chunk.getArchetype().getColumnIndex("position.y");
+        assertEquals(3, chunk.columns[x][go.getRow()], 0);
+        assertEquals(4, chunk.columns[y][go.getRow()], 0);
+
+        //Test that the component is a view into the columns
+        go.position.addPosition(new Vector2f(1, 1));
+        assertEquals(4, chunk.columns[x][go.getRow()], 0);
+        chunk.columns[y][go.getRow()] = 10;
+        assertEquals(new Vector2f(4, 10), go.position.getPosition());
+
+        //Test that the value survives leaving the storage
+        storage.remove(go);
+        assertEquals(new Vector2f(4, 10), go.position.getPosition());
+    }
+
+    @Test
+    public void testMigration() throws Exception {
+        //Test that a component change moves the game object between archetypes
+        ArchetypeStorage storage = new ArchetypeStorage();
+        GameObject a = create(0, false);
+        GameObject b = create(1, true);
+        a.position.setPosition(new Vector2f(7, 8));
+        storage.add(a);
+        storage.add(b);
+        assertEquals(2, storage.getArchetypes().size());
+
+        a.addComponent(new RotationComponent());
+        assertSame(b.getChunk(), a.getChunk());
+        assertEquals(new Vector2f(7, 8), a.position.getPosition());
+
+        //Test iteration by condition
+        List<GameObject> found = new ArrayList<>();
+        storage.forEachChunk(new Condition("rotation"), c -> {
+            for(int i = 0; i < c.size(); i++) found.add(c.objects[i]);
+        });
+        assertEquals(2, found.size());
+        assertEquals(2, storage.size());
+    }
+}
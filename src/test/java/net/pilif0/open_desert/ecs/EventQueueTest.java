@@ -0,0 +1,147 @@
+package net.pilif0.open_desert.ecs;
+
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.components.RotationComponent;
+import org.joml.Vector2f;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code EventQueue} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class EventQueueTest {
+
+    @Test
+    public void testCoalescing() throws Exception {
+        EventQueue queue = new EventQueue();
+        List<GameObjectEvent> received = new ArrayList<>();
+        PositionComponent position = new PositionComponent();
+        RotationComponent rotation = new RotationComponent();
+        GameObject go = new GameObject(0, new ArrayList<>(Arrays.asList(position, rotation, new Recorder(received))));
+        go.setEventQueue(queue);
+
+        //Test that the events are deferred and coalesced per class
+        position.addPosition(new Vector2f(1, 0));
+        rotation.setRotation(1);
+        position.addPosition(new Vector2f(1, 0));
+        position.addPosition(new Vector2f(1, 0));
+        assertTrue(received.isEmpty());
+        assertEquals(2, queue.size());
+        assertEquals(2, queue.getCoalescedCount());
+
+        //Test that the flush keeps the order of the first posts
+        assertEquals(2, queue.flush());
+        assertEquals(2, received.size());
+        assertTrue(received.get(0) instanceof PositionComponent.PositionEvent);
+        assertTrue(received.get(1) instanceof RotationComponent.RotationEvent);
+        assertEquals(3, position.getPosition().x(), 0);
+
+        //Test that events after a flush are queued again
+        position.addPosition(new Vector2f(1, 0));
+        assertEquals(1, queue.size());
+        queue.clear();
+        assertEquals(0, queue.flush());
+
+        //Test that events are distributed immediately without a queue
+        go.setEventQueue(null);
+        position.addPosition(new Vector2f(1, 0));
+        assertEquals(3, received.size());
+    }
+
+    @Test
+    public void testGrowth() throws Exception {
+        //Test many game objects posting over several flushes (growing the buffer and the index)
+        EventQueue queue = new EventQueue();
+        List<GameObjectEvent> received = new ArrayList<>();
+        PositionComponent[] positions = new PositionComponent[1000];
+        for(int i = 0; i < positions.length; i++){
+            positions[i] = new PositionComponent();
+            GameObject go = new GameObject(i, new ArrayList<>(Arrays.asList(positions[i], new Recorder(received))));
+            go.setEventQueue(queue);
+        }
+        for(int frame = 0; frame < 3; frame++){
+            for(int move = 0; move < 4; move++){
+                for(PositionComponent p : positions){
+                    p.addPosition(new Vector2f(1, 1));
+                }
+            }
+            assertEquals(positions.length, queue.size());
+            assertEquals(positions.length, queue.flush());
+        }
+        assertEquals(3 * positions.length, received.size());
+        assertEquals(9 * positions.length, queue.getCoalescedCount());
+    }
+
+    @Test
+    public void testPostDuringFlush() throws Exception {
+        //Test that events posted by the components while flushing are distributed in the same flush
+        EventQueue queue = new EventQueue();
+        List<GameObjectEvent> received = new ArrayList<>();
+        PositionComponent position = new PositionComponent();
+        RotationComponent rotation = new RotationComponent();
+        GameObject go = new GameObject(0, new ArrayList<>(Arrays.asList(position, rotation, new Recorder(received){
+            @Override
+            public void handle(GameObjectEvent e) {
+                super.handle(e);
+                if(e instanceof PositionComponent.PositionEvent){
+                    rotation.setRotation(1);
+                }
+            }
+        })));
+        go.setEventQueue(queue);
+        position.addPosition(new Vector2f(1, 0));
+        assertEquals(2, queue.flush());
+        assertEquals(2, received.size());
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * Component recording the events it receives
+     */
+    private static class Recorder implements Component{
+        /** Destination for the received events */
+        private final List<GameObjectEvent> received;
+
+        /**
+         * Construct the recorder
+         *
+         * @param received Destination for the received events
+         */
+        Recorder(List<GameObjectEvent> received){
+            this.received = received;
+        }
+
+        @Override
+        public String getName() {
+            return "test_recorder";
+        }
+
+        @Override
+        public void handle(GameObjectEvent e) {
+            received.add(e);
+        }
+
+        @Override
+        public void onAttach(GameObject owner) {}
+
+        @Override
+        public void onDetach(GameObject owner) {}
+
+        @Override
+        public void overrideFields(Map<String, Object> overrides) {}
+
+        @Override
+        public Object toYaml(Template t) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package net.pilif0.open_desert.ecs;
+
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.components.RotationComponent;
+import org.joml.Vector2f;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the event dispatch of the {@code GameObject} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class GameObjectTest {
+
+    @Test
+    public void testSubscriptions() throws Exception {
+        Recorder updates = new Recorder("test_updates", Collections.singletonList(GameObject.UpdateEvent.class));
+        Recorder positions = new Recorder("test_positions", Collections.singletonList(PositionComponent.PositionEvent.class));
+        Recorder all = new Recorder("test_all", null);
+        PositionComponent position = new PositionComponent();
+        GameObject go = new GameObject(0, new ArrayList<>(Arrays.asList(position, updates, positions, all)));
+
+        //Test that only the subscribed components receive each event
+        go.update(5);
+        position.setPosition(new Vector2f(1, 2));
+        go.cleanUp();
+        assertEquals(1, updates.received.size());
+        assertEquals(1, positions.received.size());
+        assertEquals(3, all.received.size());
+        assertTrue(positions.received.get(0) instanceof PositionComponent.PositionEvent);
+
+        //Test that the table follows component changes
+        Recorder late = new Recorder("test_late", Collections.singletonList(GameObjectEvent.class));
+        go.addComponent(late);
+        go.update(5);
+        assertEquals(1, late.received.size());
+        go.removeComponent(updates);
+        go.update(5);
+        assertEquals(2, updates.received.size());
+        assertEquals(2, late.received.size());
+
+        //Test that components subscribed to nothing are never invoked
+        Recorder none = new Recorder("test_none", Component.NO_EVENTS);
+        go.addComponent(none);
+        go.update(5);
+        go.addComponent(new RotationComponent());
+        ((RotationComponent) go.getComponent(RotationComponent.ID)).setRotation(1);
+        assertTrue(none.received.isEmpty());
+    }
+
+    @Test
+    public void testPooledUpdate() throws Exception {
+        //Test that the update event is reused and carries the latest delta time
+        Recorder updates = new Recorder("test_updates", Collections.singletonList(GameObject.UpdateEvent.class));
+        GameObject go = new GameObject(0, new ArrayList<>(Arrays.asList(new PositionComponent(), updates)));
+        go.update(3);
+        long first = updates.deltas.get(0);
+        go.update(7);
+        assertSame(updates.received.get(0), updates.received.get(1));
+        assertEquals(3, first);
+        assertEquals(7, updates.deltas.get(1).longValue());
+    }
+
+    @Test
+    public void testHandlers() throws Exception {
+        Recorder all = new Recorder("test_all", null);
+        PositionComponent position = new PositionComponent();
+        GameObject go = new GameObject(0, new ArrayList<>(Arrays.asList(position, all)));
+
+        //Test that the handler is picked once per event type and receives the events of that type
+        go.update(1);
+        go.update(2);
+        position.setPosition(new Vector2f(1, 2));
+        position.setPosition(new Vector2f(3, 4));
+        assertEquals(Arrays.asList(GameObject.UpdateEvent.class, PositionComponent.PositionEvent.class),
+                all.handlerTypes);
+        assertEquals(Arrays.asList(1L, 2L), all.deltas);
+        assertEquals(4, all.received.size());
+    }
+
+    /**
+     * Component recording the events it receives
+     */
+    private static class Recorder implements Component{
+        /** Name of the component */
+        private final String name;
+        /** Types of events to receive */
+        private final List<Class<? extends GameObjectEvent>> types;
+        /** Received events */
+        final List<GameObjectEvent> received = new ArrayList<>();
+        /** Delta times of the received update events */
+        final List<Long> deltas = new ArrayList<>();
+        /** Event types the handlers were picked for */
+        final List<Class<?>> handlerTypes = new ArrayList<>();
+
+        /**
+         * Construct the recorder
+         *
+         * @param name Name of the component
+         * @param types Types of events to receive ({@code null} for all)
+         */
+        Recorder(String name, List<Class<? extends GameObjectEvent>> types){
+            this.name = name;
+            this.types = types;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void handle(GameObjectEvent e) {
+            received.add(e);
+        }
+
+        @Override
+        public Consumer<GameObjectEvent> getHandler(Class<? extends GameObjectEvent> type) {
+            handlerTypes.add(type);
+            if(GameObject.UpdateEvent.class.isAssignableFrom(type)){
+                return e -> {
+                    handle(e);
+                    deltas.add(((GameObject.UpdateEvent) e).getDelta());
+                };
+            }
+            return this::handle;
+        }
+
+        @Override
+        public List<Class<? extends GameObjectEvent>> getEventTypes() {
+            return types;
+        }
+
+        @Override
+        public void onAttach(GameObject owner) {}
+
+        @Override
+        public void onDetach(GameObject owner) {}
+
+        @Override
+        public void overrideFields(Map<String, Object> overrides) {}
+
+        @Override
+        public Object toYaml(Template t) {
+            return null;
+        }
+    }
+}
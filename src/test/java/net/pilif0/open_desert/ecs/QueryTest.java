@@ -0,0 +1,55 @@
+package net.pilif0.open_desert.ecs;
+
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.components.RotationComponent;
+import net.pilif0.open_desert.components.ScaleComponent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code Query} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class QueryTest {
+
+    @Test
+    public void testLiveResult() throws Exception {
+        //Test that the result follows game object additions and removals
+        ArchetypeStorage storage = new ArchetypeStorage();
+        Query rotated = storage.query(new Condition(PositionComponent.NAME, RotationComponent.NAME));
+        GameObject a = new GameObject(0, new ArrayList<>(Arrays.asList(new PositionComponent(), new RotationComponent())));
+        GameObject b = new GameObject(1, new ArrayList<>(Arrays.asList(new PositionComponent())));
+        storage.add(a);
+        storage.add(b);
+        assertEquals(1, rotated.size());
+        assertTrue(rotated.contains(a));
+        assertFalse(rotated.contains(b));
+
+        //Test that the result follows component changes
+        b.addComponent(new RotationComponent());
+        assertEquals(2, rotated.size());
+        a.removeComponent(RotationComponent.NAME);
+        assertEquals(1, rotated.size());
+        assertFalse(rotated.contains(a));
+
+        //Test that archetypes created later are matched
+        GameObject c = new GameObject(2, new ArrayList<>(Arrays.asList(new PositionComponent(), new RotationComponent(), new ScaleComponent())));
+        storage.add(c);
+        List<GameObject> result = new ArrayList<>();
+        rotated.forEach(result::add);
+        assertEquals(2, result.size());
+        assertTrue(result.contains(b) && result.contains(c));
+
+        //Test removal from the storage
+        storage.remove(b);
+        assertEquals(1, rotated.size());
+        assertFalse(rotated.contains(b));
+    }
+}
@@ -0,0 +1,65 @@
+package net.pilif0.open_desert.ecs;
+
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.components.RotationComponent;
+import net.pilif0.open_desert.components.ScaleComponent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code Signature} class and its use in conditions
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SignatureTest {
+
+    @Test
+    public void testContainsAll() throws Exception {
+        //Test subset checks, including across multiple words
+        Signature a = new Signature().set(1).set(5).set(100);
+        Signature b = new Signature().set(1).set(100);
+        Signature c = new Signature().set(2);
+        assertTrue(a.containsAll(b));
+        assertFalse(b.containsAll(a));
+        assertFalse(a.containsAll(c));
+        assertTrue(a.containsAll(new Signature()));
+        assertTrue(a.intersects(b));
+        assertFalse(a.intersects(c));
+    }
+
+    @Test
+    public void testEquality() throws Exception {
+        //Test that equality ignores the number of words
+        Signature a = new Signature().set(3).set(70).clear(70);
+        Signature b = new Signature().set(3);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, new Signature().set(4));
+    }
+
+    @Test
+    public void testCondition() throws Exception {
+        //Test condition checks against game object signatures
+        GameObject go = new GameObject(0, new ArrayList<>(Arrays.asList(new PositionComponent(), new RotationComponent())));
+        assertTrue(new Condition(PositionComponent.NAME).check(go));
+        assertTrue(new Condition(PositionComponent.NAME, RotationComponent.NAME).check(go));
+        assertFalse(new Condition(PositionComponent.NAME, ScaleComponent.NAME).check(go));
+
+        //Test that the signature follows component changes
+        Condition scaled = new Condition(ScaleComponent.NAME);
+        go.addComponent(new ScaleComponent());
+        assertTrue(scaled.check(go));
+        go.removeComponent(ScaleComponent.NAME);
+        assertFalse(scaled.check(go));
+        assertNull(go.getComponent(ScaleComponent.ID));
+
+        //Test that removing a desired component relaxes the condition
+        scaled.removeComponent(ScaleComponent.NAME);
+        assertTrue(scaled.check(go));
+    }
+}
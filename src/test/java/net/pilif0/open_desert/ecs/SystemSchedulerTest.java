@@ -0,0 +1,99 @@
+package net.pilif0.open_desert.ecs;
+
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.components.RotationComponent;
+import net.pilif0.open_desert.components.ScaleComponent;
+import org.joml.Vector2f;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code SystemScheduler} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SystemSchedulerTest {
+
+    /**
+     * Construct a system with the provided access that moves the game objects along x when it writes the position
+     *
+     * @param reads Read component IDs
+     * @param writes Written component IDs
+     * @return The system
+     */
+    private static UpdateSystem system(Signature reads, Signature writes){
+        return new UpdateSystem() {
+            @Override
+            public Condition getCondition() {
+                return new Condition(PositionComponent.NAME);
+            }
+
+            @Override
+            public Signature getReads() {
+                return reads;
+            }
+
+            @Override
+            public Signature getWrites() {
+                return writes;
+            }
+
+            @Override
+            public void update(Archetype.Chunk chunk, long delta) {
+                if(writes.get(PositionComponent.ID)){
+                    float[] xs = chunk.columns[chunk.getArchetype().getColumnIndex("position.x")];
+                    for(int i = 0; i < chunk.size(); i++) xs[i] += delta;
+                }
+            }
+        };
+    }
+
+    @Test
+    public void testStages() throws Exception {
+        //Test that only conflicting systems are placed into separate stages
+        SystemScheduler scheduler = new SystemScheduler(new ArchetypeStorage());
+        UpdateSystem a = system(new Signature().set(PositionComponent.ID), new Signature().set(PositionComponent.ID));
+        UpdateSystem b = system(new Signature().set(ScaleComponent.ID), new Signature().set(RotationComponent.ID));
+        UpdateSystem c = system(new Signature().set(PositionComponent.ID), new Signature());
+        UpdateSystem d = system(new Signature(), new Signature().set(ScaleComponent.ID));
+        scheduler.add(a);
+        scheduler.add(b);
+        scheduler.add(c);
+        scheduler.add(d);
+        assertEquals(2, scheduler.getStages().size());
+        assertEquals(Arrays.asList(a, b), scheduler.getStages().get(0));
+        assertEquals(Arrays.asList(c, d), scheduler.getStages().get(1));
+    }
+
+    @Test
+    public void testModes() throws Exception {
+        //Test that both modes update all chunks the same way
+        for(SystemScheduler.Mode mode : SystemScheduler.Mode.values()){
+            ArchetypeStorage storage = new ArchetypeStorage();
+            SystemScheduler scheduler = new SystemScheduler(storage);
+            scheduler.setMode(mode);
+            Signature position = new Signature().set(PositionComponent.ID);
+            scheduler.add(system(position, position));
+            scheduler.add(system(position, position));
+
+            int n = 3 * Archetype.CHUNK_CAPACITY + 7;
+            GameObject[] objects = new GameObject[n];
+            for(int i = 0; i < n; i++){
+                objects[i] = new GameObject(i, new ArrayList<>(Arrays.asList(new PositionComponent())));
+                objects[i].position.setPosition(new Vector2f(i, 0));
+                storage.add(objects[i]);
+            }
+
+            scheduler.update(1);
+            scheduler.update(1);
+            for(int i = 0; i < n; i++){
+                assertEquals(mode.toString(), i + 4, objects[i].position.getPosition().x(), 0);
+            }
+        }
+    }
+}
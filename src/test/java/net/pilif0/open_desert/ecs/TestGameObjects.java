@@ -0,0 +1,64 @@
+package net.pilif0.open_desert.ecs;
+
+import net.pilif0.open_desert.components.BoundsComponent;
+import net.pilif0.open_desert.components.PositionComponent;
+import org.joml.Vector2f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Factory of game objects for the unit tests
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public final class TestGameObjects {
+
+    /**
+     * No instances
+     */
+    private TestGameObjects(){}
+
+    /**
+     * Create a game object at a position
+     *
+     * @param handle Handle of the game object
+     * @param x Position x
+     * @param y Position y
+     * @return New game object
+     */
+    public static GameObject at(int handle, float x, float y){
+        return box(handle, x, y, 0);
+    }
+
+    /**
+     * Create a game object at a position, with a square box when the size is positive
+     *
+     * @param handle Handle of the game object
+     * @param x Position x
+     * @param y Position y
+     * @param size Size of the box ({@code 0} for no bounds component)
+     * @param extra Further components (after the position and the bounds)
+     * @return New game object
+     */
+    public static GameObject box(int handle, float x, float y, float size, Component... extra){
+        PositionComponent position = new PositionComponent();
+        List<Component> components = new ArrayList<>();
+        components.add(position);
+        BoundsComponent bounds = null;
+        if(size > 0){
+            bounds = new BoundsComponent();
+            components.add(bounds);
+        }
+        components.addAll(Arrays.asList(extra));
+
+        GameObject result = new GameObject(handle, components);
+        position.setPosition(new Vector2f(x, y));
+        if(bounds != null){
+            bounds.setSize(new Vector2f(size, size));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+package net.pilif0.open_desert.events;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code EventMultiplexer} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class EventMultiplexerTest {
+
+    @Test
+    public void testMutationDuringDistribution() throws Exception {
+        EventMultiplexer<TestEvent> multiplexer = new EventMultiplexer<>();
+        List<String> calls = new ArrayList<>();
+        EventListener<TestEvent> late = e -> calls.add("late");
+        EventListener<TestEvent> once = new EventListener<TestEvent>() {
+            @Override
+            public void handle(TestEvent event) {
+                calls.add("once");
+                multiplexer.remove(this);
+                multiplexer.register(late);
+            }
+        };
+        multiplexer.register(once);
+        multiplexer.register(e -> calls.add("other"));
+
+        //Test that the distribution goes to the listeners present when it started
+        multiplexer.handle(new TestEvent());
+        assertEquals(2, calls.size());
+        assertEquals("once", calls.get(0));
+        assertEquals("other", calls.get(1));
+
+        //Test that the changes apply to the next distribution
+        calls.clear();
+        multiplexer.handle(new TestEvent());
+        assertEquals(2, calls.size());
+        assertEquals("other", calls.get(0));
+        assertEquals("late", calls.get(1));
+    }
+
+    @Test
+    public void testAsynchronous() throws Exception {
+        EventMultiplexer<TestEvent> multiplexer = new EventMultiplexer<>();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger handled = new AtomicInteger();
+        multiplexer.register(e -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            handled.incrementAndGet();
+        });
+        multiplexer.setAsynchronous(1, 2);
+        assertTrue(multiplexer.isAsynchronous());
+
+        //Test that a blocked listener does not block the caller and that the overflow is dropped
+        for(int i = 0; i < 10; i++){
+            multiplexer.handle(new TestEvent());
+        }
+        assertEquals(0, handled.get());
+        assertTrue(multiplexer.getDroppedCount() >= 7);
+        assertEquals(10, multiplexer.getSubmittedCount() + multiplexer.getDroppedCount());
+        assertTrue(multiplexer.getPeakPendingCount() >= 1 && multiplexer.getPeakPendingCount() <= 2);
+
+        //Test that the accepted events are distributed once the listener is released
+        release.countDown();
+        assertTrue(multiplexer.awaitQueued(5000));
+        assertEquals(multiplexer.getSubmittedCount(), handled.get());
+        assertEquals(0, multiplexer.getPendingCount());
+
+        //Test switching back
+        multiplexer.setSynchronous();
+        multiplexer.handle(new TestEvent());
+        assertEquals(multiplexer.getSubmittedCount() + 1, handled.get());
+    }
+
+    /**
+     * Event used in the tests
+     */
+    private static class TestEvent implements Event {}
+}
@@ -0,0 +1,73 @@
+package net.pilif0.open_desert.geometry;
+
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code Affine2f} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class Affine2fTest {
+    /** Tolerance of the comparisons */
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    public void testTranslationRotateScale() throws Exception {
+        //Test against the JOML 4x4 composition
+        Affine2f a = new Affine2f().translationRotateScale(3, -2, 0.7f, 2, 0.5f);
+        Matrix4f expected = new Matrix4f().translate(3, -2, 0).rotateZ(0.7f).scale(2, 0.5f, 1);
+        Matrix4f actual = a.get(new Matrix4f());
+        assertArrayEquals(expected.get(new float[16]), actual.get(new float[16]), EPSILON);
+
+        //Test the point and direction transformations
+        Vector3f p = expected.transformPosition(new Vector3f(1.5f, -4, 0));
+        Vector2f q = a.transformPosition(1.5f, -4, new Vector2f());
+        assertEquals(p.x, q.x, EPSILON);
+        assertEquals(p.y, q.y, EPSILON);
+        Vector3f d = expected.transformDirection(new Vector3f(1, 1, 0));
+        Vector2f e = a.transformDirection(1, 1, new Vector2f());
+        assertEquals(d.x, e.x, EPSILON);
+        assertEquals(d.y, e.y, EPSILON);
+
+        //Test the array form
+        float[] array = a.get(new float[Affine2f.FLOATS + 1], 1);
+        assertEquals(a, new Affine2f().set(array, 1));
+    }
+
+    @Test
+    public void testMulInvert() throws Exception {
+        Affine2f a = new Affine2f().translationRotateScale(1, 2, 0.3f, 1.5f, 2);
+        Affine2f b = new Affine2f().translationRotateScale(-4, 0.5f, -1.1f, 0.5f, 3);
+
+        //Test that the product applies the right transformation first
+        Vector2f expected = a.transformPosition(b.transformPosition(2, 3, new Vector2f()).x,
+                b.transformPosition(2, 3, new Vector2f()).y, new Vector2f());
+        Vector2f actual = a.mul(b, new Affine2f()).transformPosition(2, 3, new Vector2f());
+        assertEquals(expected.x, actual.x, EPSILON);
+        assertEquals(expected.y, actual.y, EPSILON);
+
+        //Test multiplication in place
+        Affine2f c = new Affine2f(a);
+        c.mul(b, c);
+        assertEquals(actual.x, c.transformPosition(2, 3, new Vector2f()).x, EPSILON);
+
+        //Test that the inverse undoes the transformation (also in place)
+        Affine2f inverse = a.invert(new Affine2f());
+        Vector2f back = inverse.transformPosition(a.transformPosition(5, -7, new Vector2f()).x,
+                a.transformPosition(5, -7, new Vector2f()).y, new Vector2f());
+        assertEquals(5, back.x, 1e-4f);
+        assertEquals(-7, back.y, 1e-4f);
+        Affine2f identity = inverse.mul(a, new Affine2f());
+        assertEquals(1, identity.m00, EPSILON);
+        assertEquals(0, identity.m01, EPSILON);
+        assertEquals(0, identity.m20, EPSILON);
+        c.set(a).invert(c);
+        assertEquals(inverse, c);
+    }
+}
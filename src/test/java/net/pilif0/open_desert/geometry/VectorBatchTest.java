@@ -0,0 +1,69 @@
+package net.pilif0.open_desert.geometry;
+
+import org.joml.Vector2f;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code VectorBatch} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class VectorBatchTest {
+    /** Tolerance of the comparisons */
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    public void testArithmetic() throws Exception {
+        float[] xs = {1, 2, 3, 0};
+        float[] ys = {1, -2, 4, 0};
+
+        //Test that only the range is changed
+        VectorBatch.add(xs, ys, 1, 1, 1, 3);
+        assertArrayEquals(new float[]{1, 3, 4, 0}, xs, 0);
+        assertArrayEquals(new float[]{1, -1, 5, 0}, ys, 0);
+
+        //Test the scaled addition and scaling
+        VectorBatch.addScaled(xs, ys, new float[]{2, 2, 2, 2}, new float[]{0, 1, 0, 1}, 0.5f, 0, 4);
+        assertArrayEquals(new float[]{2, 4, 5, 1}, xs, 0);
+        assertArrayEquals(new float[]{1, -0.5f, 5, 0.5f}, ys, 0);
+        VectorBatch.scale(xs, ys, 2, 0, 4);
+        assertArrayEquals(new float[]{4, 8, 10, 2}, xs, 0);
+
+        //Test normalisation (zero vectors stay zero)
+        float[] zx = {3, 0};
+        float[] zy = {4, 0};
+        VectorBatch.normalize(zx, zy, 0, 2);
+        assertArrayEquals(new float[]{0.6f, 0}, zx, EPSILON);
+        assertArrayEquals(new float[]{0.8f, 0}, zy, EPSILON);
+    }
+
+    @Test
+    public void testTransforms() throws Exception {
+        //Test the batch composition against the single one
+        float[] xs = {1, -3};
+        float[] ys = {2, 5};
+        float[] angles = {0.4f, -2};
+        float[] sxs = {1, 2};
+        float[] sys = {3, 0.5f};
+        float[] dest = new float[2 * Affine2f.FLOATS];
+        VectorBatch.translationRotateScale(xs, ys, angles, sxs, sys, dest, 0, 2);
+        for(int i = 0; i < 2; i++){
+            Affine2f expected = new Affine2f().translationRotateScale(xs[i], ys[i], angles[i], sxs[i], sys[i]);
+            assertEquals(expected, new Affine2f().set(dest, i * Affine2f.FLOATS));
+        }
+
+        //Test the defaults of the optional columns
+        VectorBatch.translationRotateScale(xs, ys, null, null, null, dest, 0, 1);
+        assertEquals(new Affine2f().translationRotateScale(1, 2, 0, 1, 1), new Affine2f().set(dest, 0));
+
+        //Test the batch point transformation in place
+        Affine2f m = new Affine2f().translationRotateScale(1, 1, 1, 2, 2);
+        Vector2f p = m.transformPosition(xs[1], ys[1], new Vector2f());
+        VectorBatch.transform(m, xs, ys, xs, ys, 0, 2);
+        assertEquals(p.x, xs[1], EPSILON);
+        assertEquals(p.y, ys[1], EPSILON);
+    }
+}
@@ -0,0 +1,62 @@
+package net.pilif0.open_desert.graphics.render;
+
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.graphics.PerpendicularCamera;
+import net.pilif0.open_desert.world.WorldTree;
+import org.joml.Vector2f;
+import org.joml.Vector2i;
+import org.junit.Test;
+
+import java.util.List;
+
+import static net.pilif0.open_desert.ecs.TestGameObjects.at;
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code Culler} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class CullerTest {
+
+    @Test
+    public void testVisibleArea() throws Exception {
+        //Test that the visible area is recovered from the camera matrix
+        PerpendicularCamera camera = new PerpendicularCamera(new Vector2f(100, 50), new Vector2i(800, 600));
+        camera.update();
+        Vector2f min = new Vector2f();
+        Vector2f max = new Vector2f();
+        camera.getVisibleArea(min, max);
+        assertEquals(100, min.x, 1e-3f);
+        assertEquals(50, min.y, 1e-3f);
+        assertEquals(900, max.x, 1e-3f);
+        assertEquals(650, max.y, 1e-3f);
+    }
+
+    @Test
+    public void testCull() throws Exception {
+        WorldTree world = new WorldTree(10000);
+        GameObject inside = at(0, 500, 300);
+        GameObject margin = at(1, 95, 300);
+        GameObject outside = at(2, -500, 300);
+        world.add(inside);
+        world.add(margin);
+        world.add(outside);
+        PerpendicularCamera camera = new PerpendicularCamera(new Vector2f(100, 50), new Vector2i(800, 600));
+        camera.update();
+
+        //Test that only game objects on screen (or within the margin) are visible
+        Culler culler = new Culler(null, 10);
+        List<GameObject> visible = culler.cull(world, camera);
+        assertEquals(2, visible.size());
+        assertTrue(visible.contains(inside) && visible.contains(margin));
+
+        //Test that the visible set is replaced by the next cull
+        camera.move(new Vector2f(-1000, 0));
+        camera.update();
+        culler.cull(world, camera);
+        assertEquals(1, culler.getVisible().size());
+        assertSame(outside, culler.getVisible().get(0));
+    }
+}
@@ -0,0 +1,98 @@
+package net.pilif0.open_desert.graphics.render;
+
+import net.pilif0.open_desert.geometry.Transformation;
+import net.pilif0.open_desert.graphics.PerpendicularCamera;
+import net.pilif0.open_desert.util.Color;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+import org.joml.Vector2i;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code RenderSnapshot} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class RenderSnapshotTest {
+
+    @Test
+    public void testCapture() throws Exception {
+        SpriteBatch batch = new SpriteBatch();
+        RenderSnapshot snapshot = new RenderSnapshot();
+        Vector2fc segment = new Vector2f(0.5f, 0.5f);
+        Vector2fc dims = new Vector2f(16, 16);
+        batch.add(4, segment, new Matrix4f().translation(1, 0, 0), dims, new Vector2f());
+        batch.add(5, segment, new Matrix4f().translation(2, 0, 0), dims, new Vector2f());
+        batch.build();
+        batch.clear();
+        snapshot.capture(batch);
+
+        //Test that the snapshot is independent of the next build of the batch
+        batch.add(6, segment, new Matrix4f().translation(3, 0, 0), dims, new Vector2f());
+        batch.build();
+        List<SpriteBatch.DrawCall> calls = snapshot.getDrawCalls();
+        assertEquals(2, calls.size());
+        assertEquals(4, calls.get(0).textureID);
+        assertEquals(5, calls.get(1).textureID);
+        assertEquals(1, calls.get(1).first);
+        assertEquals(2 * SpriteBatch.INSTANCE_FLOATS, snapshot.getInstanceFloatCount());
+        assertEquals(1, snapshot.getInstances()[4], 0);
+        assertEquals(2, snapshot.getInstances()[SpriteBatch.INSTANCE_FLOATS + 4], 0);
+
+        //Test that a recapture reuses the snapshot
+        snapshot.capture(batch);
+        assertEquals(1, snapshot.getDrawCalls().size());
+        assertEquals(6, snapshot.getDrawCalls().get(0).textureID);
+        snapshot.clear();
+        assertTrue(snapshot.getDrawCalls().isEmpty());
+        assertEquals(0, snapshot.getInstanceFloatCount());
+    }
+
+    @Test
+    public void testCameraCapture() throws Exception {
+        //Test that the camera is copied, not shared
+        PerpendicularCamera camera = new PerpendicularCamera(new Vector2f(10, 20), new Vector2i(640, 480));
+        camera.update();
+        RenderSnapshot snapshot = new RenderSnapshot();
+        snapshot.capture(camera);
+        camera.setPosition(new Vector2f(0, 0));
+        camera.update();
+
+        assertEquals(new Vector2f(10, 20), snapshot.camera.getPosition());
+        assertEquals(new Vector2i(640, 480), snapshot.camera.getDimensions());
+        assertNotEquals(camera.getMatrix(), snapshot.camera.getMatrix());
+    }
+
+    @Test
+    public void testEntityCapture() throws Exception {
+        RenderSnapshot snapshot = new RenderSnapshot();
+        Transformation transformation = new Transformation().translate(new Vector2f(5, 6));
+        Color color = new Color(0x10_20_30_ff);
+        assertEquals(0, snapshot.capture(transformation, color));
+        assertEquals(1, snapshot.capture(transformation, null));
+
+        //Test that the states are copies
+        transformation.translate(new Vector2f(1, 1));
+        color.setRed(1);
+        assertEquals(new Vector2f(5, 6), snapshot.getEntity(0).transformation.getTranslation());
+        assertEquals(5, snapshot.getEntity(0).transformation.getMatrix().m30(), 0);
+        assertEquals(0x10_20_30_ff, snapshot.getEntity(0).color.getInt());
+
+        //Test that a reused state without a colour is white again
+        snapshot.clear();
+        assertEquals(0, snapshot.getEntityCount());
+        snapshot.capture(transformation, null);
+        assertEquals(0xff_ff_ff_ff, snapshot.getEntity(0).color.getInt());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMissingEntity() throws Exception {
+        new RenderSnapshot().getEntity(0);
+    }
+}
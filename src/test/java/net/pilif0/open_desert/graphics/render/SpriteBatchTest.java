@@ -0,0 +1,83 @@
+package net.pilif0.open_desert.graphics.render;
+
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the CPU side of the {@code SpriteBatch} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SpriteBatchTest {
+
+    @Test
+    public void testGrouping() throws Exception {
+        //Test that sprites are grouped per atlas in order of first appearance
+        SpriteBatch batch = new SpriteBatch();
+        Vector2fc segment = new Vector2f(0.25f, 0.5f);
+        Vector2fc dims = new Vector2f(64, 32);
+        batch.add(7, segment, new Matrix4f().translation(1, 0, 0), dims, new Vector2f(0.25f, 0));
+        batch.add(3, segment, new Matrix4f().translation(2, 0, 0), dims, new Vector2f(0.5f, 0));
+        batch.add(7, segment, new Matrix4f().translation(3, 0, 0), dims, new Vector2f(0.75f, 0.5f));
+        batch.build();
+
+        List<SpriteBatch.DrawCall> calls = batch.getDrawCalls();
+        assertEquals(2, calls.size());
+        assertEquals(7, calls.get(0).textureID);
+        assertEquals(0, calls.get(0).first);
+        assertEquals(2, calls.get(0).count);
+        assertEquals(3, calls.get(1).textureID);
+        assertEquals(2, calls.get(1).first);
+        assertEquals(1, calls.get(1).count);
+        assertEquals(segment, calls.get(0).segmentSize);
+
+        //Test the instance layout (translation follows the linear part of the affine form)
+        float[] data = batch.getInstances();
+        assertEquals(3 * SpriteBatch.INSTANCE_FLOATS, batch.getInstanceFloatCount());
+        assertEquals(1, data[4], 0);
+        assertEquals(3, data[SpriteBatch.INSTANCE_FLOATS + 4], 0);
+        assertEquals(2, data[2 * SpriteBatch.INSTANCE_FLOATS + 4], 0);
+        assertEquals(64, data[6], 0);
+        assertEquals(32, data[7], 0);
+        assertEquals(0.75f, data[SpriteBatch.INSTANCE_FLOATS + 8], 0);
+        assertEquals(0.5f, data[SpriteBatch.INSTANCE_FLOATS + 9], 0);
+    }
+
+    @Test
+    public void testSegmentSize() throws Exception {
+        //Test that the same texture with a different segment size needs a separate draw
+        SpriteBatch batch = new SpriteBatch();
+        Vector2fc dims = new Vector2f(1, 1);
+        batch.add(1, new Vector2f(0.5f, 0.5f), new Matrix4f(), dims, new Vector2f());
+        batch.add(1, new Vector2f(0.25f, 0.25f), new Matrix4f(), dims, new Vector2f());
+        batch.build();
+        assertEquals(2, batch.getDrawCalls().size());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        //Test that clearing empties the batch and the groups are reused
+        SpriteBatch batch = new SpriteBatch();
+        for(int i = 0; i < 100; i++){
+            batch.add(1, new Vector2f(1, 1), new Matrix4f(), new Vector2f(1, 1), new Vector2f());
+        }
+        batch.build();
+        assertEquals(100, batch.getDrawCalls().get(0).count);
+        batch.clear();
+        batch.build();
+        assertTrue(batch.getDrawCalls().isEmpty());
+        assertEquals(0, batch.getInstanceFloatCount());
+
+        batch.add(2, new Vector2f(1, 1), new Matrix4f(), new Vector2f(1, 1), new Vector2f());
+        batch.build();
+        assertEquals(1, batch.getDrawCalls().size());
+        assertEquals(2, batch.getDrawCalls().get(0).textureID);
+    }
+}
@@ -0,0 +1,63 @@
+package net.pilif0.open_desert.graphics.text;
+
+import org.joml.Vector2f;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the CPU side of the {@code GlyphMesh} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class GlyphMeshTest {
+
+    @Test
+    public void testBuild() throws Exception {
+        //Test glyph placement, new lines and baked texture deltas
+        GlyphMesh mesh = new GlyphMesh();
+        Vector2f segment = new Vector2f(0.0625f, 0.0625f);
+        mesh.build("ab\nc", 10, segment, c -> new Vector2f((c - 'a') * 0.0625f, 0.5f));
+        assertEquals(3, mesh.getGlyphCount());
+
+        float[] v = mesh.getVertices();
+        int glyph = 4 * GlyphMesh.VERTEX_FLOATS;
+        //First glyph top left corner
+        assertEquals(0, v[0], 0);
+        assertEquals(5, v[1], 0);
+        assertEquals(0, v[2], 0);
+        assertEquals(0.5f, v[3], 0);
+        //Second glyph is one glyph to the right with the second segment
+        assertEquals(10, v[glyph], 0);
+        assertEquals(0.0625f, v[glyph + 2], 0);
+        //Second glyph bottom right corner
+        assertEquals(20, v[glyph + 2 * GlyphMesh.VERTEX_FLOATS], 0);
+        assertEquals(15, v[glyph + 2 * GlyphMesh.VERTEX_FLOATS + 1], 0);
+        assertEquals(0.125f, v[glyph + 2 * GlyphMesh.VERTEX_FLOATS + 2], 0);
+        assertEquals(0.5625f, v[glyph + 2 * GlyphMesh.VERTEX_FLOATS + 3], 0);
+        //Third glyph starts the second line
+        assertEquals(0, v[2 * glyph], 0);
+        assertEquals(15, v[2 * glyph + 1], 0);
+
+        //Test the indices of the last glyph
+        int[] indices = mesh.getIndices();
+        assertEquals(3 * GlyphMesh.GLYPH_INDICES, indices.length);
+        assertArrayEquals(new int[]{8, 9, 10, 8, 11, 10}, Arrays.copyOfRange(indices, 12, 18));
+    }
+
+    @Test
+    public void testRebuild() throws Exception {
+        //Test that a shorter rebuild reuses the arrays and reports only the new glyphs
+        GlyphMesh mesh = new GlyphMesh();
+        Vector2f segment = new Vector2f(0.0625f, 0.0625f);
+        mesh.build("long text", 8, segment, c -> new Vector2f());
+        float[] before = mesh.getVertices();
+        mesh.build("\n\n", 8, segment, c -> new Vector2f());
+        assertEquals(0, mesh.getGlyphCount());
+        assertEquals(0, mesh.getIndices().length);
+        assertSame(before, mesh.getVertices());
+    }
+}
@@ -0,0 +1,78 @@
+package net.pilif0.open_desert.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code AssetCache} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class AssetCacheTest {
+
+    @Test
+    public void testStatistics() throws Exception {
+        AssetCache<String, String> cache = new AssetCache<>(100, v -> 10, v -> {});
+
+        //Test miss then hit returns the same asset
+        String a = cache.get("a", k -> new String(k));
+        assertSame(a, cache.get("a", k -> new String(k)));
+        cache.get("b", k -> new String(k));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(20, cache.getSize());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        List<String> disposed = new ArrayList<>();
+        AssetCache<String, String> cache = new AssetCache<>(20, v -> 10, disposed::add);
+
+        //Fill over budget, a is referenced and b is the least recently used unreferenced asset
+        String a = cache.get("a", k -> k);
+        cache.get("b", k -> k);
+        cache.get("c", k -> k);
+        assertTrue(cache.retain("a", a));
+        assertEquals(1, cache.trim());
+        assertEquals(1, disposed.size());
+        assertEquals("b", disposed.get(0));
+        assertFalse(cache.contains("b"));
+        assertEquals(1, cache.getEvictions());
+
+        //Test referenced assets are kept over budget
+        cache.setBudget(0);
+        cache.trim();
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("c"));
+
+        //Test released assets are evicted
+        cache.release("a", a);
+        assertEquals(0, cache.getReferences("a"));
+        cache.trim();
+        assertFalse(cache.contains("a"));
+        assertEquals(0, cache.getSize());
+
+        //Test an evicted asset can not be retained
+        assertFalse(cache.retain("a", a));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        List<String> disposed = new ArrayList<>();
+        AssetCache<String, String> cache = new AssetCache<>(100, v -> 10, disposed::add);
+        String a = cache.get("a", k -> k);
+        cache.retain("a", a);
+        cache.get("b", k -> k);
+
+        //Test clear disposes of everything
+        cache.clear();
+        assertEquals(2, disposed.size());
+        assertEquals(0, cache.getSize());
+        assertFalse(cache.contains("a"));
+    }
+}
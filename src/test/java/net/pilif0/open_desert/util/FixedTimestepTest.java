@@ -0,0 +1,53 @@
+package net.pilif0.open_desert.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code FixedTimestep} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class FixedTimestepTest {
+
+    @Test
+    public void testAccumulation() throws Exception {
+        FixedTimestep timestep = new FixedTimestep(50, FixedTimestep.DEFAULT_MAX_STEPS);
+        long step = timestep.getStep();
+        assertEquals(20 * Delta.MILLISECOND, step);
+
+        //Test that frames shorter than a step accumulate
+        assertEquals(0, timestep.advance(step / 4));
+        assertEquals(0.25f, timestep.getAlpha(), 1e-6f);
+        assertEquals(0, timestep.advance(step / 2));
+        assertEquals(1, timestep.advance(step / 2));
+        assertEquals(0.25f, timestep.getAlpha(), 1e-6f);
+
+        //Test that longer frames run several steps and keep the remainder
+        assertEquals(3, timestep.advance(3 * step));
+        assertEquals(0.25f, timestep.getAlpha(), 1e-6f);
+        assertEquals(0, timestep.getDroppedTime());
+    }
+
+    @Test
+    public void testClamping() throws Exception {
+        FixedTimestep timestep = new FixedTimestep(100, 3);
+        long step = timestep.getStep();
+
+        //Test that a long frame runs at most the maximal number of steps and drops the rest of the whole steps
+        assertEquals(3, timestep.advance(10 * step + step / 2));
+        assertEquals(7 * step, timestep.getDroppedTime());
+        assertEquals(0.5f, timestep.getAlpha(), 1e-6f);
+
+        //Test that the loop recovers afterwards
+        assertEquals(1, timestep.advance(step / 2));
+        assertEquals(0, timestep.getAlpha(), 1e-6f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRate() throws Exception {
+        new FixedTimestep(0, 1);
+    }
+}
@@ -0,0 +1,135 @@
+package net.pilif0.open_desert.world;
+
+import net.pilif0.open_desert.components.BoundsComponent;
+import net.pilif0.open_desert.ecs.Condition;
+import net.pilif0.open_desert.ecs.GameObject;
+import org.joml.Vector2f;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static net.pilif0.open_desert.ecs.TestGameObjects.box;
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code SpatialHashGrid} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SpatialHashGridTest {
+
+    /**
+     * Return the slot remembered for a game object
+     *
+     * @param go Game object
+     * @return Remembered slot
+     */
+    private static int slotOf(GameObject go){
+        return ((GridLocatorComponent) go.getComponent(GridLocatorComponent.ID)).getSlot();
+    }
+
+    @Test
+    public void testRelocation() throws Exception {
+        SpatialHashGrid grid = new SpatialHashGrid(10);
+        List<GameObject> objects = new ArrayList<>();
+        for(int i = 0; i < 200; i++){
+            GameObject go = box(i, i, -i, 0);
+            objects.add(go);
+            grid.add(go);
+        }
+        assertEquals(200, grid.size());
+
+        //Test that a moved game object is found at its new position only after relocation
+        GameObject go = objects.get(5);
+        int slot = slotOf(go);
+        go.position.setPosition(new Vector2f(1000, 1000));
+        List<GameObject> found = new ArrayList<>();
+        grid.queryRect(995, 995, 1005, 1005, null, found::add);
+        assertTrue(found.isEmpty());
+        grid.relocate();
+        grid.queryRect(995, 995, 1005, 1005, null, found::add);
+        assertEquals(Arrays.asList(go), found);
+        assertEquals(slot, slotOf(go));
+
+        //Test that removal frees the slot for the next game object
+        assertTrue(grid.remove(go));
+        assertFalse(grid.remove(go));
+        assertNull(go.getComponent(GridLocatorComponent.ID));
+        assertEquals(199, grid.size());
+        GameObject other = box(-1, 1000, 1000, 0);
+        grid.add(other);
+        assertEquals(slot, slotOf(other));
+        found.clear();
+        grid.queryRect(995, 995, 1005, 1005, null, found::add);
+        assertEquals(Arrays.asList(other), found);
+    }
+
+    @Test
+    public void testAgainstTree() throws Exception {
+        //Fill a tree and a grid with the same game objects (some with boxes)
+        Random random = new Random(7);
+        WorldTree tree = new WorldTree(2000);
+        SpatialHashGrid grid = new SpatialHashGrid(16);
+        List<GameObject> objects = new ArrayList<>();
+        for(int i = 0; i < 3000; i++){
+            GameObject go = box(i, random.nextFloat() * 1000 - 500, random.nextFloat() * 1000 - 500,
+                    i % 3 == 0 ? 1 + random.nextFloat() * 40 : 0);
+            objects.add(go);
+            tree.add(go);
+            grid.add(go);
+        }
+        Condition bounded = new Condition(BoundsComponent.NAME);
+        assertEquals(tree.getByCondition(bounded).size(), grid.getByCondition(bounded).size());
+
+        for(int frame = 0; frame < 3; frame++){
+            //Move and remove some game objects
+            for(int i = 0; i < 300; i++){
+                GameObject go = objects.get(random.nextInt(objects.size()));
+                go.position.setPosition(new Vector2f(random.nextFloat() * 1000 - 500, random.nextFloat() * 1000 - 500));
+            }
+            GameObject removed = objects.remove(random.nextInt(objects.size()));
+            assertTrue(tree.remove(removed));
+            assertTrue(grid.remove(removed));
+            tree.relocate();
+            grid.relocate();
+            assertEquals(tree.size(), grid.size());
+
+            //Compare the queries
+            for(int q = 0; q < 20; q++){
+                float x = random.nextFloat() * 1200 - 600;
+                float y = random.nextFloat() * 1200 - 600;
+                float r = random.nextFloat() * 100;
+                Set<GameObject> expected = new HashSet<>();
+                Set<GameObject> actual = new HashSet<>();
+                tree.queryRect(x - r, y - r, x + r, y + r, null, expected::add);
+                grid.queryRect(x - r, y - r, x + r, y + r, null, actual::add);
+                assertEquals(expected, actual);
+
+                expected.clear();
+                actual.clear();
+                tree.queryCircle(x, y, r, bounded, expected::add);
+                grid.queryCircle(x, y, r, bounded, actual::add);
+                assertEquals(expected, actual);
+
+                GameObject[] a = new GameObject[5];
+                GameObject[] b = new GameObject[5];
+                assertEquals(tree.queryNearest(x, y, null, a), grid.queryNearest(x, y, null, b));
+                for(int i = 0; i < a.length; i++){
+                    assertEquals(a[i].position.getPosition().distance(x, y),
+                            b[i].position.getPosition().distance(x, y), 1e-3f);
+                }
+            }
+        }
+
+        //Test a query covering everything (scans the slots)
+        Set<GameObject> all = new HashSet<>();
+        grid.queryRect(-1e6f, -1e6f, 1e6f, 1e6f, null, all::add);
+        assertEquals(new HashSet<>(objects), all);
+    }
+}
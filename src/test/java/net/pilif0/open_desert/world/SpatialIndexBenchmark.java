@@ -0,0 +1,134 @@
+package net.pilif0.open_desert.world;
+
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.GameObject;
+import org.joml.Vector2f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark comparing the spatial indices for several object counts and movement patterns (not run as a unit test).
+ * Run with {@code java -cp <test and main classpath> net.pilif0.open_desert.world.SpatialIndexBenchmark}.
+ * Every frame moves the game objects by the pattern, relocates them, and runs a batch of rectangle and nearest
+ *  neighbour queries. Reports the average time per frame of the relocation and of the queries.
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class SpatialIndexBenchmark {
+    /** Object counts to measure */
+    public static final int[] COUNTS = {1_000, 10_000, 50_000};
+    /** Average area of the world per game object */
+    public static final float AREA_PER_OBJECT = 256;
+    /** Number of warm up frames */
+    public static final int WARM_UP = 10;
+    /** Number of measured frames */
+    public static final int FRAMES = 30;
+    /** Number of queries of each kind per frame */
+    public static final int QUERIES = 1_000;
+    /** Side of a query rectangle */
+    public static final float QUERY_SIZE = 64;
+    /** Cell size of the grid */
+    public static final float CELL_SIZE = 32;
+
+    /**
+     * Movement pattern of the game objects
+     */
+    private enum Pattern {
+        /** No game object moves */
+        STATIC,
+        /** All game objects move a little */
+        DRIFT,
+        /** A tenth of the game objects jump to random positions */
+        TELEPORT
+    }
+
+    /** Sink for the query results, so they are not optimised away */
+    private static int found;
+    /** Counter of the query results */
+    private static final Consumer<GameObject> counter = go -> found++;
+
+    /**
+     * Run the benchmark
+     *
+     * @param args Unused
+     */
+    public static void main(String[] args){
+        System.out.printf("%-16s %-8s %8s %14s %14s%n", "index", "pattern", "objects", "relocate ms", "queries ms");
+        for(int n : COUNTS){
+            float side = (float) Math.sqrt(n * AREA_PER_OBJECT);
+            for(Pattern pattern : Pattern.values()){
+                measure("WorldTree", () -> new WorldTree(side * 2), n, side, pattern);
+                measure("SpatialHashGrid", () -> new SpatialHashGrid(CELL_SIZE), n, side, pattern);
+            }
+        }
+    }
+
+    /**
+     * Measure one index with one object count and movement pattern
+     *
+     * @param name Name of the index
+     * @param factory Creator of the empty index
+     * @param n Number of game objects
+     * @param side Side of the populated square
+     * @param pattern Movement pattern
+     */
+    private static void measure(String name, Supplier<SpatialIndex> factory, int n, float side, Pattern pattern){
+        Random random = new Random(1);
+        SpatialIndex index = factory.get();
+        PositionComponent[] positions = new PositionComponent[n];
+        for(int i = 0; i < n; i++){
+            PositionComponent position = new PositionComponent();
+            GameObject go = new GameObject(i, new ArrayList<>(Arrays.<Component>asList(position))){};
+            position.setPosition(new Vector2f(random.nextFloat() * side - side / 2, random.nextFloat() * side - side / 2));
+            index.add(go);
+            positions[i] = position;
+        }
+        index.relocate();
+
+        long relocateTime = 0;
+        long queryTime = 0;
+        Vector2f step = new Vector2f();
+        GameObject[] nearest = new GameObject[8];
+        for(int frame = 0; frame < WARM_UP + FRAMES; frame++){
+            // Move by the pattern
+            switch(pattern){
+                case DRIFT:
+                    for(PositionComponent p : positions){
+                        p.addPosition(step.set(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f));
+                    }
+                    break;
+                case TELEPORT:
+                    for(int i = 0; i < n / 10; i++){
+                        positions[random.nextInt(n)].setPosition(
+                                step.set(random.nextFloat() * side - side / 2, random.nextFloat() * side - side / 2));
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            long start = System.nanoTime();
+            index.relocate();
+            long relocated = System.nanoTime();
+            for(int q = 0; q < QUERIES; q++){
+                float x = random.nextFloat() * side - side / 2;
+                float y = random.nextFloat() * side - side / 2;
+                index.queryRect(x, y, x + QUERY_SIZE, y + QUERY_SIZE, null, counter);
+                found += index.queryNearest(x, y, null, nearest);
+            }
+            long end = System.nanoTime();
+            if(frame >= WARM_UP){
+                relocateTime += relocated - start;
+                queryTime += end - relocated;
+            }
+        }
+        System.out.printf("%-16s %-8s %8d %14.3f %14.3f%n", name, pattern, n, relocateTime / 1e6 / FRAMES,
+                queryTime / 1e6 / FRAMES);
+    }
+}
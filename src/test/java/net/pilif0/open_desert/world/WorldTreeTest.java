@@ -0,0 +1,408 @@
+package net.pilif0.open_desert.world;
+
+import net.pilif0.open_desert.components.BoundsComponent;
+import net.pilif0.open_desert.components.PositionComponent;
+import net.pilif0.open_desert.components.WorldMatrixComponent;
+import net.pilif0.open_desert.ecs.Archetype;
+import net.pilif0.open_desert.ecs.Component;
+import net.pilif0.open_desert.ecs.Condition;
+import net.pilif0.open_desert.ecs.EventQueue;
+import net.pilif0.open_desert.ecs.GameObject;
+import net.pilif0.open_desert.ecs.GameObjectEvent;
+import net.pilif0.open_desert.ecs.Signature;
+import net.pilif0.open_desert.ecs.SystemScheduler;
+import net.pilif0.open_desert.ecs.Template;
+import net.pilif0.open_desert.ecs.UpdateSystem;
+import net.pilif0.open_desert.geometry.Affine2f;
+import org.joml.Vector2f;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static net.pilif0.open_desert.ecs.TestGameObjects.at;
+import static net.pilif0.open_desert.ecs.TestGameObjects.box;
+import static org.junit.Assert.*;
+
+/**
+ * A set of unit tests for the {@code WorldTree} class
+ *
+ * @author Filip Smola
+ * @version 1.0
+ */
+public class WorldTreeTest {
+
+    /**
+     * Return the leaf remembered for a game object
+     *
+     * @param go Game object
+     * @return Remembered leaf
+     */
+    private static WorldTree.Quad leafOf(GameObject go){
+        return ((TreeLocatorComponent) go.getComponent(TreeLocatorComponent.ID)).getLeaf();
+    }
+
+    @Test
+    public void testRelocation() throws Exception {
+        //Fill the tree over the content limit so that it splits
+        WorldTree tree = new WorldTree(100);
+        for(int i = 0; i <= WorldTree.Quad.CONTENT_LIMIT + 1; i++){
+            tree.add(at(i, 10 + (i % 30), 10 + (i / 30) % 30));
+        }
+        GameObject go = at(-1, 20, 20);
+        tree.add(go);
+        assertFalse(tree.root.isLeaf());
+        assertTrue(leafOf(go).isLeaf());
+        assertTrue(leafOf(go).contains(go.position.getPosition()));
+
+        //Test that only the moved game object is queued (once)
+        assertEquals(0, tree.getMovedCount());
+        go.position.setPosition(new Vector2f(21, 20));
+        go.position.setPosition(new Vector2f(-30, -30));
+        assertEquals(1, tree.getMovedCount());
+
+        //Test that relocation moves it to the leaf containing the new position
+        WorldTree.Quad before = leafOf(go);
+        tree.relocate();
+        assertEquals(0, tree.getMovedCount());
+        assertNotSame(before, leafOf(go));
+        assertTrue(leafOf(go).isLeaf());
+        assertSame(tree.getLeafAt(go.position.getPosition()), leafOf(go));
+
+        //Test removal through the remembered leaf
+        assertTrue(tree.remove(go));
+        assertNull(go.getComponent(TreeLocatorComponent.ID));
+        go.position.setPosition(new Vector2f(30, 30));
+        assertEquals(0, tree.getMovedCount());
+    }
+
+    @Test
+    public void testDepthLimit() throws Exception {
+        //Test that game objects sharing one position end in an overflow bucket at the maximum depth
+        WorldTree tree = new WorldTree(100, 4);
+        int n = 2 * WorldTree.Quad.CONTENT_LIMIT;
+        for(int i = 0; i < n; i++){
+            tree.add(at(i, 1, 1));
+        }
+        assertEquals(4, tree.root.getHeight());
+        assertEquals(n, tree.root.getCount());
+        WorldTree.Quad bucket = tree.getLeafAt(new Vector2f(1, 1));
+        assertEquals(4, bucket.getDepth());
+        assertEquals(n, bucket.getCount());
+    }
+
+    @Test
+    public void testCollapse() throws Exception {
+        //Split the tree
+        WorldTree tree = new WorldTree(100);
+        int n = WorldTree.Quad.CONTENT_LIMIT + 2;
+        GameObject[] objects = new GameObject[n];
+        for(int i = 0; i < n; i++){
+            objects[i] = at(i, -40 + (i % 80), -40 + (i / 80));
+            tree.add(objects[i]);
+        }
+        assertFalse(tree.root.isLeaf());
+
+        //Test that the tree stays split above the merge limit (hysteresis)
+        int i = 0;
+        for(; n - i > WorldTree.Quad.MERGE_LIMIT + 1; i++){
+            tree.remove(objects[i]);
+        }
+        assertFalse(tree.root.isLeaf());
+        assertEquals(WorldTree.Quad.MERGE_LIMIT + 1, tree.root.getCount());
+
+        //Test that it collapses at the merge limit and the locators follow
+        tree.remove(objects[i++]);
+        assertTrue(tree.root.isLeaf());
+        assertEquals(1, tree.root.getQuadCount());
+        assertSame(tree.root, leafOf(objects[i]));
+
+        //Test that relocation keeps the counts
+        objects[i].position.setPosition(new Vector2f(45, 45));
+        tree.relocate();
+        assertEquals(WorldTree.Quad.MERGE_LIMIT, tree.root.getCount());
+    }
+
+    @Test
+    public void testSpatialQueries() throws Exception {
+        //Fill the tree with random game objects (enough to split it)
+        WorldTree tree = new WorldTree(100);
+        Random random = new Random(42);
+        List<GameObject> all = new ArrayList<>();
+        for(int i = 0; i < 3000; i++){
+            GameObject go = at(i, random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50);
+            all.add(go);
+            tree.add(go);
+        }
+
+        //Test the rectangle query against brute force
+        List<GameObject> found = new ArrayList<>();
+        tree.queryRect(-10, 5, 20, 30, null, found::add);
+        long expected = all.stream().map(go -> go.position.getPosition())
+                .filter(p -> p.x() >= -10 && p.x() <= 20 && p.y() >= 5 && p.y() <= 30)
+                .count();
+        assertEquals(expected, found.size());
+
+        //Test the circle query against brute force
+        found.clear();
+        tree.queryCircle(3, -7, 12, null, found::add);
+        expected = all.stream().map(go -> go.position.getPosition())
+                .filter(p -> (p.x() - 3) * (p.x() - 3) + (p.y() + 7) * (p.y() + 7) <= 144)
+                .count();
+        assertEquals(expected, found.size());
+
+        //Test the nearest neighbours against brute force (ordered by distance)
+        GameObject[] nearest = new GameObject[5];
+        assertEquals(5, tree.queryNearest(-49, 49, null, nearest));
+        all.sort((a, b) -> Float.compare(a.position.getPosition().distanceSquared(-49, 49),
+                b.position.getPosition().distanceSquared(-49, 49)));
+        for(int i = 0; i < 5; i++){
+            assertSame(all.get(i), nearest[i]);
+        }
+
+        //Test that fewer game objects than requested are reported
+        WorldTree small = new WorldTree(100);
+        small.add(at(0, 1, 1));
+        assertEquals(1, small.queryNearest(0, 0, null, nearest));
+    }
+
+    @Test
+    public void testBounds() throws Exception {
+        //Split the tree with point game objects
+        WorldTree tree = new WorldTree(100);
+        for(int i = 0; i <= WorldTree.Quad.CONTENT_LIMIT + 1; i++){
+            tree.add(at(i, 10 + (i % 30), 10 + (i / 30) % 30));
+        }
+
+        //Add a bounded game object crossing the center of the world
+        GameObject go = at(-1, 1, 1);
+        BoundsComponent bounds = new BoundsComponent();
+        bounds.setSize(new Vector2f(10, 10));
+        go.addComponent(bounds);
+        tree.add(go);
+        assertFalse(tree.root.isLeaf());
+
+        //Test that the box is found from a quad its position is not in
+        List<GameObject> found = new ArrayList<>();
+        tree.queryRect(-3, -3, -2, -2, null, found::add);
+        assertEquals(1, found.size());
+        assertSame(go, found.get(0));
+        found.clear();
+        tree.queryCircle(-5, 1, 2, null, found::add);
+        assertEquals(1, found.size());
+
+        //Test that a change of size is picked up by the tree
+        found.clear();
+        tree.queryRect(-9, -9, -8, -8, null, found::add);
+        assertEquals(0, found.size());
+        bounds.setSize(new Vector2f(20, 20));
+        assertEquals(1, tree.getMovedCount());
+        tree.relocate();
+        tree.queryRect(-9, -9, -8, -8, null, found::add);
+        assertEquals(1, found.size());
+    }
+
+    @Test
+    public void testParallelTraversal() throws Exception {
+        //Fill a tree with game objects that move right on update
+        WorldTree tree = new WorldTree(200);
+        assertEquals(SystemScheduler.Mode.SEQUENTIAL, tree.getMode());
+        tree.setMode(SystemScheduler.Mode.PARALLEL);
+        tree.setParallelThreshold(64);
+        Random random = new Random(3);
+        List<GameObject> all = new ArrayList<>();
+        float[] startX = new float[6000];
+        for(int i = 0; i < startX.length; i++){
+            startX[i] = random.nextFloat() * 100 - 50;
+            GameObject go = at(i, startX[i], random.nextFloat() * 100 - 50);
+            go.addComponent(new Mover());
+            all.add(go);
+            tree.add(go);
+        }
+        assertEquals(SystemScheduler.Mode.PARALLEL, tree.getMode());
+        assertTrue(tree.root.getHeight() > 1);
+
+        //Test that the parallel update reaches every game object and relocates all of them
+        tree.update(1);
+        assertEquals(0, tree.getMovedCount());
+        for(int i = 0; i < all.size(); i++){
+            GameObject go = all.get(i);
+            assertEquals(startX[i] + 1, go.position.getPosition().x(), 1e-4f);
+            assertTrue(leafOf(go).contains(go.position.getPosition()));
+        }
+        assertEquals(all.size(), tree.size());
+
+        //Test the parallel searches against the sequential ones
+        Condition moving = new Condition(PositionComponent.NAME);
+        Set<GameObject> parallel = new HashSet<>(tree.getByCondition(moving));
+        List<GameObject> collected = new ArrayList<>();
+        tree.collectRect(-20, -30, 25, 10, null, collected);
+        tree.setMode(SystemScheduler.Mode.SEQUENTIAL);
+        assertEquals(new HashSet<>(tree.getByCondition(moving)), parallel);
+        assertEquals(new HashSet<>(all), parallel);
+        Set<GameObject> sequential = new HashSet<>();
+        tree.queryRect(-20, -30, 25, 10, null, sequential::add);
+        assertEquals(sequential, new HashSet<>(collected));
+        assertEquals(sequential.size(), collected.size());
+
+        //Test that the parallel validation removes the same game objects and keeps the counts
+        for(int i = 0; i < 500; i++){
+            all.get(i).position.setPosition(new Vector2f(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50));
+        }
+        Set<GameObject> outside = new HashSet<>();
+        for(GameObject go : all){
+            if(!leafOf(go).contains(go.position.getPosition())){
+                outside.add(go);
+            }
+        }
+        GameObject[] removed = tree.root.validate(ForkJoinPool.commonPool(), 64);
+        assertEquals(outside, new HashSet<>(Arrays.asList(removed)));
+        assertEquals(all.size() - outside.size(), tree.root.getCount());
+    }
+
+    @Test
+    public void testSystemMoves() throws Exception {
+        //Record the number of game objects queued for each relocation
+        List<Integer> queued = new ArrayList<>();
+        WorldTree tree = new WorldTree(200){
+            @Override
+            public void relocate() {
+                queued.add(getMovedCount());
+                super.relocate();
+            }
+        };
+        List<GameObject> all = new ArrayList<>();
+        for(int i = 0; i < 2000; i++){
+            GameObject go = at(i, (i % 50) * 2 - 50, (i / 50) * 2 - 40);
+            all.add(go);
+            tree.add(go);
+        }
+        tree.systems.add(new Shifter());
+
+        //Test that only the game objects whose columns changed are queued, and that they are relocated
+        tree.update(1);
+        assertEquals(Collections.singletonList(40), queued);
+        for(GameObject go : all){
+            assertTrue(leafOf(go).contains(go.position.getPosition()));
+        }
+        assertEquals(50, all.get(0).position.getX(), 0);
+
+        //Test that rewriting the same values queues nothing
+        tree.update(0);
+        assertEquals(Arrays.asList(40, 0), queued);
+    }
+
+    @Test
+    public void testSystemMovesMatrix() throws Exception {
+        WorldTree tree = new WorldTree(200);
+        WorldMatrixComponent matrix = new WorldMatrixComponent();
+        GameObject go = box(0, -50, 10, 0, matrix);
+        tree.add(go);
+        tree.systems.add(new Shifter());
+        Affine2f affine = new Affine2f();
+        assertEquals(-50, matrix.getAffine(affine).m20, 0);
+
+        //Test that the world matrix follows a position written by an update system
+        tree.update(1);
+        matrix.getAffine(affine);
+        assertEquals(50, affine.m20, 0);
+        assertEquals(10, affine.m21, 0);
+
+        //Test that marking a game object as moved invalidates its world matrix
+        tree.query(new Condition(PositionComponent.NAME))
+                .forEachChunk(c -> c.columns[c.getArchetype().getColumnIndex("position.x")][0] = 20);
+        tree.markMoved(go);
+        assertEquals(20, matrix.getAffine(affine).m20, 0);
+    }
+
+    @Test
+    public void testDeferredMoves() throws Exception {
+        WorldTree tree = new WorldTree(200);
+        EventQueue queue = new EventQueue();
+        tree.setEventQueue(queue);
+        GameObject go = at(0, 0, 0);
+        go.addComponent(new Mover());
+        go.setEventQueue(queue);
+        tree.add(go);
+
+        //Test that the deferred position events are flushed before the relocation of the same update
+        tree.update(1);
+        assertEquals(0, queue.size());
+        assertEquals(0, tree.getMovedCount());
+        assertEquals(1, ((TreeLocatorComponent) go.getComponent(TreeLocatorComponent.ID)).x, 0);
+    }
+
+    /**
+     * Update system writing the positions of all game objects but only moving those at x = -50 by 100 times the delta
+     *  time
+     */
+    private static class Shifter implements UpdateSystem{
+        @Override
+        public Condition getCondition() {
+            return new Condition(PositionComponent.NAME);
+        }
+
+        @Override
+        public Signature getReads() {
+            return new Signature();
+        }
+
+        @Override
+        public Signature getWrites() {
+            return new Signature().set(PositionComponent.ID);
+        }
+
+        @Override
+        public void update(Archetype.Chunk chunk, long delta) {
+            float[] xs = chunk.columns[chunk.getArchetype().getColumnIndex("position.x")];
+            for(int i = 0; i < chunk.size(); i++){
+                xs[i] = xs[i] == -50 ? xs[i] + 100 * delta : xs[i];
+            }
+        }
+    }
+
+    /**
+     * Component moving its owner right by one unit on every update
+     */
+    private static class Mover implements Component{
+        /** Component's owner */
+        private GameObject owner;
+
+        @Override
+        public String getName() {
+            return "test_mover";
+        }
+
+        @Override
+        public void handle(GameObjectEvent e) {
+            if(e instanceof GameObject.UpdateEvent){
+                owner.position.addPosition(new Vector2f(1, 0));
+            }
+        }
+
+        @Override
+        public void onAttach(GameObject owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void onDetach(GameObject owner) {
+            this.owner = null;
+        }
+
+        @Override
+        public void overrideFields(Map<String, Object> overrides) {}
+
+        @Override
+        public Object toYaml(Template t) {
+            return null;
+        }
+    }
+}